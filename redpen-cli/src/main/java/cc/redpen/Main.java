@@ -19,9 +19,11 @@ package cc.redpen;
 
 import cc.redpen.formatter.Formatter;
 import cc.redpen.model.Document;
+import cc.redpen.parser.DocumentCache;
 import cc.redpen.parser.DocumentParser;
 import cc.redpen.util.FormatterUtils;
 import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.ValidationResultCache;
 import org.apache.commons.cli.*;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
@@ -46,6 +48,10 @@ public final class Main {
 
     private static final int DEFAULT_LIMIT = 1;
 
+    private static final int RESULT_CACHE_SIZE = 100000;
+
+    private static final String RESULT_CACHE_FILE = "validation-results.cache";
+
     private Main() {
         super();
     }
@@ -66,7 +72,7 @@ public final class Main {
         options.addOption("h", "help", false, "Displays this help information and exits");
 
         options.addOption(OptionBuilder.withLongOpt("format")
-                .withDescription("Input file format (markdown,plain,wiki,asciidoc,latex,rest)")
+                .withDescription("Input file format (markdown,commonmark,plain,wiki,asciidoc,latex,rest)")
                 .hasArg()
                 .withArgName("FORMAT")
                 .create("f"));
@@ -101,6 +107,12 @@ public final class Main {
                 .withArgName("LANGUAGE")
                 .create("L"));
 
+        options.addOption(OptionBuilder.withLongOpt("cache")
+                .withDescription("Directory to cache parsed documents and validation results in")
+                .hasArg()
+                .withArgName("CACHE DIR")
+                .create("C"));
+
         options.addOption(OptionBuilder.withLongOpt("version")
                 .withDescription("Displays version information and exits")
                 .create("v"));
@@ -120,6 +132,7 @@ public final class Main {
         String resultFormat = "plain";
         String inputSentence = null;
         String language = "en";
+        String cacheDirectory = null;
         int limit = DEFAULT_LIMIT;
 
         if (commandLine.hasOption("h")) {
@@ -148,6 +161,9 @@ public final class Main {
         if (commandLine.hasOption("s")) {
             inputSentence = commandLine.getOptionValue("s");
         }
+        if (commandLine.hasOption("C")) {
+            cacheDirectory = commandLine.getOptionValue("C");
+        }
 
         // set language
         if (language.equals("ja")) {
@@ -182,8 +198,18 @@ public final class Main {
             return -1;
         }
 
-        List<Document> documents = getDocuments(inputFormat, inputSentence, inputFileNames, redPen);
+        ValidationResultCache resultCache = null;
+        if (cacheDirectory != null) {
+            resultCache = new ValidationResultCache(RESULT_CACHE_SIZE, new File(cacheDirectory, RESULT_CACHE_FILE));
+            redPen.setValidationResultCache(resultCache);
+        }
+
+        List<Document> documents = getDocuments(inputFormat, inputSentence, inputFileNames, cacheDirectory, redPen);
         Map<Document, List<ValidationError>> documentListMap = redPen.validate(documents);
+        if (resultCache != null) {
+            LOG.info("Validation result cache hit rate: {}", resultCache.getHitRate());
+            resultCache.save();
+        }
 
         Formatter formatter = FormatterUtils.getFormatterByName(resultFormat);
         if (formatter == null) {
@@ -203,10 +229,13 @@ public final class Main {
         }
     }
 
-    private static List<Document> getDocuments(String inputFormat, String inputSentence, String[] inputFileNames, RedPen redPen) throws RedPenException {
+    private static List<Document> getDocuments(String inputFormat, String inputSentence, String[] inputFileNames,
+                                               String cacheDirectory, RedPen redPen) throws RedPenException {
         List<Document> documents = new ArrayList<>();
         DocumentParser parser = DocumentParser.of(inputFormat);
-        if (inputSentence == null) {
+        if (inputSentence == null && cacheDirectory != null) {
+            documents.addAll(redPen.parse(parser, extractInputFiles(inputFileNames), new DocumentCache(new File(cacheDirectory))));
+        } else if (inputSentence == null) {
             documents.addAll(redPen.parse(parser, extractInputFiles(inputFileNames)));
         } else {
             documents.add(redPen.parse(parser, inputSentence));
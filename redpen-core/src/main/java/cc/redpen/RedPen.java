@@ -21,10 +21,12 @@ import cc.redpen.config.Configuration;
 import cc.redpen.config.ConfigurationLoader;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.model.*;
+import cc.redpen.parser.DocumentCache;
 import cc.redpen.parser.DocumentParser;
 import cc.redpen.parser.PreprocessorRule;
 import cc.redpen.parser.SentenceExtractor;
 import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.ValidationResultCache;
 import cc.redpen.validator.Validator;
 import cc.redpen.validator.ValidatorFactory;
 import org.slf4j.Logger;
@@ -45,6 +47,7 @@ public class RedPen {
     private final Configuration configuration;
     private final SentenceExtractor sentenceExtractor;
     private final List<Validator> validators;
+    private ValidationResultCache resultCache;
 
     /**
      * constructs RedPen with specified config file.
@@ -129,6 +132,23 @@ public class RedPen {
         return documents;
     }
 
+    /**
+     * parse given files, reusing the documents cached from earlier runs.
+     *
+     * @param parser DocumentParser parser
+     * @param files  files to parse
+     * @param cache  cache of parsed documents
+     * @return parsed documents
+     * @throws RedPenException when failed to parse input stream
+     */
+    public List<Document> parse(DocumentParser parser, File[] files, DocumentCache cache) throws RedPenException {
+        List<Document> documents = new ArrayList<>();
+        for (File file : files) {
+            documents.add(cache.parse(parser, file, sentenceExtractor, configuration.getTokenizer()));
+        }
+        return documents;
+    }
+
     /**
      * validate the input document collection. Note that this method call is NOT thread safe. RedPen instances need to be crated for each thread.
      *
@@ -177,6 +197,15 @@ public class RedPen {
         return configuration;
     }
 
+    /**
+     * Set the cache of the results of sentence local validators, used by the following validations.
+     *
+     * @param resultCache validation result cache, or null not to cache the results
+     */
+    public void setValidationResultCache(ValidationResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     /**
      * Apply the preprocessor rules in the document to the valudation errors
      *
@@ -267,20 +296,20 @@ public class RedPen {
                 for (Paragraph paragraph : section.getParagraphs()) {
                     validators.forEach(e -> {
                         e.setErrorList(errors);
-                        paragraph.getSentences().forEach(sentence -> e.validate(sentence));
+                        paragraph.getSentences().forEach(sentence -> validate(e, sentence, errors));
                     });
                 }
                 // apply to section header
                 validators.forEach(e -> {
                     e.setErrorList(errors);
-                    section.getHeaderContents().forEach(sentence -> e.validate(sentence));
+                    section.getHeaderContents().forEach(sentence -> validate(e, sentence, errors));
                 });
                 // apply to lists
                 for (ListBlock listBlock : section.getListBlocks()) {
                     for (ListElement listElement : listBlock.getListElements()) {
                         validators.forEach(e -> {
                             e.setErrorList(errors);
-                            listElement.getSentences().forEach(sentence -> e.validate(sentence));
+                            listElement.getSentences().forEach(sentence -> validate(e, sentence, errors));
                         });
                     }
                 }
@@ -288,6 +317,14 @@ public class RedPen {
         }
     }
 
+    private void validate(Validator validator, Sentence sentence, List<ValidationError> errors) {
+        if (resultCache != null) {
+            resultCache.validate(validator, sentence, errors);
+        } else {
+            validator.validate(sentence);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
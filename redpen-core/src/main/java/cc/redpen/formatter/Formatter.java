@@ -19,6 +19,7 @@ package cc.redpen.formatter;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
+import cc.redpen.model.Sentence;
 import cc.redpen.validator.ValidationError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +60,18 @@ public abstract class Formatter {
      */
     public abstract String formatError(Document document, ValidationError error) throws RedPenException;
 
+    /**
+     * Get the sentence in error
+     *
+     * @param error an error
+     * @return the sentence of the error, or an empty sentence at the line and column of the error when the error
+     * is not reported on a sentence
+     */
+    protected static Sentence getSentence(ValidationError error) {
+        Sentence sentence = error.getSentence();
+        return sentence != null ? sentence : new Sentence("", error.getLineNumber(), error.getStartColumnNumber());
+    }
+
     /**
      * Format and print the errors for a set of documents
      *
@@ -46,8 +46,8 @@ public class JSONBySentenceFormatter extends JSONFormatter {
             if ((error1 == null) || (error2 == null)) {
                 return -1;
             }
-            Sentence sentence1 = error1.getSentence();
-            Sentence sentence2 = error2.getSentence();
+            Sentence sentence1 = getSentence(error1);
+            Sentence sentence2 = getSentence(error2);
             int lineComp = sentence1.getLineNumber() - sentence2.getLineNumber();
             if (lineComp == 0) {
                 int offsetComp = sentence1.getStartPositionOffset() - sentence2.getStartPositionOffset();
@@ -74,22 +74,23 @@ public class JSONBySentenceFormatter extends JSONFormatter {
         jsonError.put("message", error.getMessage());
         jsonError.put("validator", error.getValidatorName());
 
+        Sentence sentence = getSentence(error);
         LineOffset startOffset;
         LineOffset endOffset;
         if (error.getStartPosition().isPresent()) {
             startOffset = error.getStartPosition().get();
         } else {
-            startOffset = new LineOffset(error.getSentence().getLineNumber(), error.getSentence().getStartPositionOffset());
+            startOffset = new LineOffset(sentence.getLineNumber(), sentence.getStartPositionOffset());
         }
         if (error.getEndPosition().isPresent()) {
             endOffset = error.getEndPosition().get();
         } else {
-            endOffset = new LineOffset(error.getSentence().getLineNumber(), error.getSentence().getStartPositionOffset());
+            endOffset = new LineOffset(sentence.getLineNumber(), sentence.getStartPositionOffset());
         }
         jsonError.put("position", asJSON(startOffset, endOffset));
 
         // add the error position relative to the sentence's content
-        jsonError.put("subsentence", asJSON(error.getSentence(), startOffset, endOffset));
+        jsonError.put("subsentence", asJSON(sentence, startOffset, endOffset));
 
         return jsonError;
     }
@@ -118,8 +119,8 @@ public class JSONBySentenceFormatter extends JSONFormatter {
             for (ValidationError error : sortedErrors) {
                 if (BY_SENTENCE_COMPARATOR.compare(lastError, error) != 0) {
                     JSONObject sentenceError = new JSONObject();
-                    sentenceError.put("sentence", error.getSentence().getContent());
-                    Sentence sentence = error.getSentence();
+                    Sentence sentence = getSentence(error);
+                    sentenceError.put("sentence", sentence.getContent());
                     //NOTE: last position is optional
                     LineOffset lastPosition = sentence.getOffset(sentence.getContent().length() - 1)
                             .orElse(new LineOffset(sentence.getLineNumber(), sentence.getStartPositionOffset() + sentence.getContent().length()));
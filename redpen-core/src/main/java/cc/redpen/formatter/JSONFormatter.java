@@ -84,7 +84,7 @@ public class JSONFormatter extends Formatter {
     protected JSONObject asJSON(ValidationError error) throws JSONException {
         JSONObject jsonError = new JSONObject();
 
-        jsonError.put("sentence", error.getSentence().getContent());
+        jsonError.put("sentence", getSentence(error).getContent());
         jsonError.put("lineNum", error.getLineNumber());
         jsonError.put("message", error.getMessage());
         jsonError.put("validator", error.getValidatorName());
@@ -95,6 +95,9 @@ public class JSONFormatter extends Formatter {
         if (error.getEndPosition().isPresent()) {
             jsonError.put("endPosition", asJSON(error.getEndPosition().get()));
         }
+        if (!error.getSuggestions().isEmpty()) {
+            jsonError.put("suggestions", new JSONArray(error.getSuggestions()));
+        }
 
         return jsonError;
     }
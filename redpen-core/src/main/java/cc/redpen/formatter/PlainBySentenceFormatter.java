@@ -19,6 +19,7 @@ package cc.redpen.formatter;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
+import cc.redpen.model.Sentence;
 import cc.redpen.validator.ValidationError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,8 +51,9 @@ public final class PlainBySentenceFormatter extends Formatter {
             ValidationError lastError = null;
             for (ValidationError error : errors) {
                 if (JSONBySentenceFormatter.BY_SENTENCE_COMPARATOR.compare(lastError, error) != 0) {
-                    writer.write("\tLine: " + error.getSentence().getLineNumber() + ", Offset: " + error.getSentence().getStartPositionOffset() + "\n");
-                    writer.write("\t\tSentence: " + error.getSentence().getContent() + "\n");
+                    Sentence sentence = getSentence(error);
+                    writer.write("\tLine: " + sentence.getLineNumber() + ", Offset: " + sentence.getStartPositionOffset() + "\n");
+                    writer.write("\t\tSentence: " + sentence.getContent() + "\n");
                     lastError = error;
                 }
                 writer.write("\t\t\t" + formatError(document, error));
@@ -60,7 +60,7 @@ public final class PlainFormatter extends Formatter {
         str.append(error.getLineNumber());
         str.append(": ValidationError[").append(error.getValidatorName()).append("], ");
         str.append(error.getMessage());
-        str.append(" at line: ").append(error.getSentence().getContent());
+        str.append(" at line: ").append(getSentence(error).getContent());
         str.append("\n");
         return str.toString();
     }
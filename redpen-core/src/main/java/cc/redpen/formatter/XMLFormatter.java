@@ -121,7 +121,7 @@ public class XMLFormatter extends Formatter {
 
         Element sentenceElement = doc.createElement("sentence");
         errorElement.appendChild(sentenceElement);
-        sentenceElement.appendChild(doc.createTextNode(error.getSentence().getContent()));
+        sentenceElement.appendChild(doc.createTextNode(getSentence(error).getContent()));
 
         error.getStartPosition().ifPresent(e -> {
             Element startPositionElement = doc.createElement("errorStartPosition");
@@ -22,8 +22,11 @@ import cc.redpen.tokenizer.TokenElement;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Sentence block in a Document.
@@ -61,6 +64,10 @@ public class Sentence implements Serializable {
      * Combinations of line Number and the position offset
      */
     private List<LineOffset> offsetMap;
+    /**
+     * Results of the analyses of the content, by analyzer.
+     */
+    private transient Map<Function<String, ?>, Object> analyses;
 
     /**
      * Constructor.
@@ -153,6 +160,24 @@ public class Sentence implements Serializable {
      */
     public void setContent(String content) {
         this.content = content;
+        synchronized (this) {
+            analyses = null;
+        }
+    }
+
+    /**
+     * Get the result of an analysis of the content, computed once until the content changes.
+     *
+     * @param analyzer analysis of the content, shared by the callers to share its result
+     * @param <T>      type of the result
+     * @return result of the analysis
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getAnalysis(Function<String, T> analyzer) {
+        if (analyses == null) {
+            analyses = new IdentityHashMap<>();
+        }
+        return (T) analyses.computeIfAbsent(analyzer, a -> a.apply(content));
     }
 
     /**
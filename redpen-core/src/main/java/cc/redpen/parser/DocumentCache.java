@@ -0,0 +1,254 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.RedPen;
+import cc.redpen.RedPenException;
+import cc.redpen.model.Document;
+import cc.redpen.model.Section;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of parsed documents.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the file content together with the parser, the tokenizer
+ * and the sentence extraction settings, so an unchanged file skips parsing and tokenization on the next run
+ * while any change of the content or the configuration is a miss. The directory is kept under a size bound
+ * by removing the least recently used entries; the directory is only listed when the bound is exceeded, and
+ * enough entries are removed then that the following writes do not list it again.
+ */
+public class DocumentCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DocumentCache.class);
+    private static final String SUFFIX = ".rpdc";
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final File directory;
+    private final long maxBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // total size of the entries, scanned from the directory on the first write and then kept up to date
+    private long totalBytes = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param directory cache directory, created when it does not exist
+     */
+    public DocumentCache(File directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory cache directory, created when it does not exist
+     * @param maxBytes  upper bound of the total size of the cached entries
+     */
+    public DocumentCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Given input file, return the cached Document when the file was parsed with the same settings before,
+     * otherwise parse the file and store the result.
+     *
+     * @param parser            parser
+     * @param file              input file
+     * @param sentenceExtractor SentenceExtractor object
+     * @param tokenizer         tokenizer
+     * @return parsed document
+     * @throws RedPenException if the file cannot be read or parsed
+     */
+    public Document parse(DocumentParser parser, File file, SentenceExtractor sentenceExtractor, RedPenTokenizer tokenizer)
+        throws RedPenException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new RedPenException(e);
+        }
+
+        File entry = new File(directory, key(content, parser, sentenceExtractor, tokenizer) + SUFFIX);
+        Document document = read(entry);
+        if (document != null) {
+            hits.incrementAndGet();
+            // files of the same content share the entry, so the name is the one of the file being parsed
+            List<Section> sections = new ArrayList<>();
+            document.forEach(sections::add);
+            return new Document(sections, Optional.of(file.getName()), document.getPreprocessorRules());
+        }
+
+        misses.incrementAndGet();
+        document = parse(parser, content, Optional.of(file.getName()), sentenceExtractor, tokenizer);
+        write(entry, document);
+        return document;
+    }
+
+    /**
+     * Get the number of documents returned from the cache.
+     *
+     * @return number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of documents that had to be parsed.
+     *
+     * @return number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static Document parse(DocumentParser parser, byte[] content, Optional<String> fileName,
+                                  SentenceExtractor sentenceExtractor, RedPenTokenizer tokenizer) throws RedPenException {
+        InputStream is = new ByteArrayInputStream(content);
+        if (parser instanceof BaseDocumentParser) {
+            return ((BaseDocumentParser) parser).parse(is, fileName, sentenceExtractor, tokenizer);
+        }
+        Document document = parser.parse(is, sentenceExtractor, tokenizer);
+        List<Section> sections = new ArrayList<>();
+        document.forEach(sections::add);
+        return new Document(sections, fileName, document.getPreprocessorRules());
+    }
+
+    private static String key(byte[] content, DocumentParser parser, SentenceExtractor sentenceExtractor,
+                              RedPenTokenizer tokenizer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(content);
+        String settings = "\u0000" + parser.getClass().getName()
+            + "\u0000" + tokenizer.getClass().getName()
+            + "\u0000" + sentenceExtractor.getFingerprint()
+            + "\u0000" + DocumentCodec.VERSION + "\u0000" + RedPen.VERSION;
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    private Document read(File entry) {
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath())))) {
+            Document document = DocumentCodec.decode(in);
+            entry.setLastModified(System.currentTimeMillis());
+            return document;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Ignoring broken cache entry " + entry, e);
+            entry.delete();
+            return null;
+        }
+    }
+
+    private void write(File entry, Document document) {
+        try {
+            Files.createDirectories(directory.toPath());
+            Path temporary = Files.createTempFile(directory.toPath(), "entry", ".tmp");
+            long replaced = entry.length();
+            long written;
+            try {
+                try (OutputStream os = Files.newOutputStream(temporary);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                    DocumentCodec.encode(document, out);
+                }
+                written = Files.size(temporary);
+                try {
+                    Files.move(temporary, entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            added(written - replaced);
+        } catch (IOException e) {
+            LOG.warn("Failed to cache " + document.getFileName().orElse("document"), e);
+        }
+    }
+
+    private synchronized void added(long bytes) {
+        if (totalBytes < 0) {
+            totalBytes = evict(Long.MAX_VALUE);
+        } else {
+            totalBytes += bytes;
+        }
+        if (totalBytes > maxBytes) {
+            totalBytes = evict(maxBytes - maxBytes / 4);
+        }
+    }
+
+    /**
+     * Remove the least recently used entries until the total size is under the given bound.
+     *
+     * @param bound upper bound of the total size
+     * @return total size of the remaining entries
+     */
+    private long evict(long bound) {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (entries == null) {
+            return 0;
+        }
+        long total = Arrays.stream(entries).mapToLong(File::length).sum();
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (total <= bound) {
+                break;
+            }
+            total -= entry.length();
+            entry.delete();
+        }
+        return total;
+    }
+}
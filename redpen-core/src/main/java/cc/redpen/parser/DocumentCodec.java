@@ -0,0 +1,338 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.model.Document;
+import cc.redpen.model.ListBlock;
+import cc.redpen.model.ListElement;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.tokenizer.TokenElement;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of parsed documents, used by {@link DocumentCache}.
+ * <p>
+ * Integers are written as variable length integers, and each distinct string is written once
+ * and then referred to by its index, so the repeated token tags and surfaces take a few bytes.
+ */
+final class DocumentCodec {
+    private static final int MAGIC = 0x52504443; // "RPDC"
+    static final int VERSION = 1;
+
+    private DocumentCodec() {
+    }
+
+    static void encode(Document document, DataOutputStream out) throws IOException {
+        new Encoder(out).writeDocument(document);
+    }
+
+    static Document decode(DataInputStream in) throws IOException {
+        return new Decoder(in).readDocument();
+    }
+
+    private static class Encoder {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeDocument(Document document) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(document.getFileName().orElse(null));
+
+            Set<PreprocessorRule> rules = document.getPreprocessorRules();
+            writeInt(rules == null ? 0 : rules.size());
+            if (rules != null) {
+                for (PreprocessorRule rule : rules) {
+                    writeString(rule.getRuleType().name());
+                    writeInt(rule.getLineNumber());
+                    writeInt(rule.getLineNumberLimit());
+                    writeStrings(rule.getParameters());
+                }
+            }
+
+            Map<Section, Integer> indexes = new IdentityHashMap<>();
+            for (Section section : document) {
+                indexes.put(section, indexes.size());
+            }
+            writeInt(document.size());
+            for (Section section : document) {
+                writeSection(section, indexes);
+            }
+        }
+
+        private void writeSection(Section section, Map<Section, Integer> indexes) throws IOException {
+            writeInt(section.getLevel());
+            Integer parent = indexes.get(section.getParentSection());
+            writeInt(parent == null ? 0 : parent + 1);
+            List<Integer> subsections = new ArrayList<>();
+            for (int i = 0; i < section.getNumberOfSubsections(); i++) {
+                Integer index = indexes.get(section.getSubSection(i));
+                if (index != null) {
+                    subsections.add(index);
+                }
+            }
+            writeInt(subsections.size());
+            for (int index : subsections) {
+                writeInt(index);
+            }
+
+            writeSentences(section.getHeaderContents());
+            writeInt(section.getNumberOfParagraphs());
+            for (Paragraph paragraph : section.getParagraphs()) {
+                writeSentences(paragraph.getSentences());
+            }
+            writeInt(section.getNumberOfLists());
+            for (ListBlock listBlock : section.getListBlocks()) {
+                writeInt(listBlock.getNumberOfListElements());
+                for (ListElement element : listBlock.getListElements()) {
+                    writeInt(element.getLevel());
+                    writeSentences(element.getSentences());
+                }
+            }
+        }
+
+        private void writeSentences(List<Sentence> sentences) throws IOException {
+            writeInt(sentences.size());
+            for (Sentence sentence : sentences) {
+                writeString(sentence.getContent());
+                writeInt(sentence.getLineNumber());
+                writeInt(sentence.getStartPositionOffset());
+                out.writeBoolean(sentence.isFirstSentence());
+                writeStrings(sentence.getLinks());
+
+                // offsets are mostly on the same line and consecutive, so store the differences
+                List<LineOffset> offsets = sentence.getOffsetMap();
+                writeInt(offsets.size());
+                int lineNum = sentence.getLineNumber();
+                int offset = 0;
+                for (LineOffset lineOffset : offsets) {
+                    writeSignedInt(lineOffset.lineNum - lineNum);
+                    writeSignedInt(lineOffset.offset - offset);
+                    lineNum = lineOffset.lineNum;
+                    offset = lineOffset.offset;
+                }
+
+                writeInt(sentence.getTokens().size());
+                for (TokenElement token : sentence.getTokens()) {
+                    writeString(token.getSurface());
+                    writeStrings(token.getTags());
+                    writeInt(token.getOffset());
+                }
+            }
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(1);
+            writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeSignedInt(int value) throws IOException {
+            writeInt((value << 1) ^ (value >> 31));
+        }
+
+        private void writeInt(int value) throws IOException {
+            while ((value & ~0x7f) != 0) {
+                out.writeByte((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private static class Decoder {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        Decoder(DataInputStream in) {
+            this.in = in;
+        }
+
+        Document readDocument() throws IOException {
+            if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+                throw new IOException("Not a cached document");
+            }
+            Optional<String> fileName = Optional.ofNullable(readString());
+
+            Set<PreprocessorRule> rules = new LinkedHashSet<>();
+            int ruleCount = readInt();
+            for (int i = 0; i < ruleCount; i++) {
+                PreprocessorRule.RuleType type = PreprocessorRule.RuleType.valueOf(readString());
+                // the constructor moves the rule to the next line
+                PreprocessorRule rule = new PreprocessorRule(type, readInt() - 1);
+                rule.setLineNumberLimit(readInt());
+                readStrings().forEach(rule::addParameter);
+                rules.add(rule);
+            }
+
+            int sectionCount = readInt();
+            List<Section> sections = new ArrayList<>(sectionCount);
+            int[] parents = new int[sectionCount];
+            int[][] subsections = new int[sectionCount][];
+            for (int i = 0; i < sectionCount; i++) {
+                int level = readInt();
+                parents[i] = readInt() - 1;
+                subsections[i] = new int[readInt()];
+                for (int j = 0; j < subsections[i].length; j++) {
+                    subsections[i][j] = readInt();
+                }
+                sections.add(readSection(level));
+            }
+            for (int i = 0; i < sectionCount; i++) {
+                if (parents[i] >= 0) {
+                    sections.get(i).setParentSection(sections.get(parents[i]));
+                }
+                for (int subsection : subsections[i]) {
+                    sections.get(i).appendSubSection(sections.get(subsection));
+                }
+            }
+            return new Document(sections, fileName, rules);
+        }
+
+        private Section readSection(int level) throws IOException {
+            Section section = new Section(level, readSentences());
+            int paragraphCount = readInt();
+            for (int i = 0; i < paragraphCount; i++) {
+                Paragraph paragraph = new Paragraph();
+                readSentences().forEach(paragraph::appendSentence);
+                section.appendParagraph(paragraph);
+            }
+            int listCount = readInt();
+            for (int i = 0; i < listCount; i++) {
+                section.appendListBlock();
+                int elementCount = readInt();
+                for (int j = 0; j < elementCount; j++) {
+                    int elementLevel = readInt();
+                    section.appendListElement(elementLevel, readSentences());
+                }
+            }
+            return section;
+        }
+
+        private List<Sentence> readSentences() throws IOException {
+            int count = readInt();
+            List<Sentence> sentences = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String content = readString();
+                int lineNumber = readInt();
+                Sentence sentence = new Sentence(content, lineNumber, readInt());
+                sentence.setIsFirstSentence(in.readBoolean());
+                readStrings().forEach(sentence::addLink);
+
+                int offsetCount = readInt();
+                List<LineOffset> offsets = new ArrayList<>(offsetCount);
+                int lineNum = lineNumber;
+                int offset = 0;
+                for (int j = 0; j < offsetCount; j++) {
+                    lineNum += readSignedInt();
+                    offset += readSignedInt();
+                    offsets.add(new LineOffset(lineNum, offset));
+                }
+                sentence.setOffsetMap(offsets);
+
+                int tokenCount = readInt();
+                List<TokenElement> tokens = new ArrayList<>(tokenCount);
+                for (int j = 0; j < tokenCount; j++) {
+                    String surface = readString();
+                    List<String> tags = readStrings();
+                    tokens.add(new TokenElement(surface, tags, readInt()));
+                }
+                sentence.setTokens(tokens);
+                sentences.add(sentence);
+            }
+            return sentences;
+        }
+
+        private List<String> readStrings() throws IOException {
+            int count = readInt();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        private String readString() throws IOException {
+            int index = readInt();
+            if (index == 0) {
+                return null;
+            }
+            if (index > 1) {
+                return strings.get(index - 2);
+            }
+            byte[] bytes = new byte[readInt()];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private int readSignedInt() throws IOException {
+            int value = readInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int readInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = in.readByte();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed cached document");
+        }
+    }
+}
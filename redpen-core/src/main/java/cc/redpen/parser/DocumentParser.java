@@ -20,6 +20,7 @@ package cc.redpen.parser;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
 import cc.redpen.parser.asciidoc.AsciiDocParser;
+import cc.redpen.parser.markdown.CommonMarkParser;
 import cc.redpen.parser.rest.ReSTParser;
 import cc.redpen.parser.review.ReVIEWParser;
 import cc.redpen.tokenizer.RedPenTokenizer;
@@ -70,9 +71,19 @@ public interface DocumentParser {
     Document parse(File file, SentenceExtractor sentenceExtractor, RedPenTokenizer tokenizer)
         throws RedPenException;
 
+    /**
+     * Get the recognizer of the comments carrying suppress instructions in this format.
+     *
+     * @return suppress comment recognizer
+     */
+    default SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SuppressCommentRecognizer.NONE;
+    }
+
     DocumentParser PLAIN = new PlainTextParser();
     DocumentParser WIKI = new WikiParser();
     DocumentParser MARKDOWN = new MarkdownParser();
+    DocumentParser COMMONMARK = new CommonMarkParser();
     DocumentParser LATEX = new LaTeXParser();
     DocumentParser ASCIIDOC = new AsciiDocParser();
     DocumentParser PROPERTIES = new PropertiesParser();
@@ -85,6 +96,7 @@ public interface DocumentParser {
                 put("PLAIN", PLAIN);
                 put("WIKI", WIKI);
                 put("MARKDOWN", MARKDOWN);
+                put("COMMONMARK", COMMONMARK);
                 put("LATEX", LATEX);
                 put("ASCIIDOC", ASCIIDOC);
                 put("PROPERTIES", PROPERTIES);
@@ -35,10 +35,18 @@ import java.util.Optional;
  */
 class LaTeXParser extends BaseDocumentParser {
 
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('%', "^% *@suppress\\S*(.*)");
+
     LaTeXParser() {
         super();
     }
 
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
     /* XXX: huge duplication over the base */
     @Override
     public Document parse(InputStream inputStream, Optional<String> fileName, SentenceExtractor sentenceExtractor, RedPenTokenizer tokenizer)
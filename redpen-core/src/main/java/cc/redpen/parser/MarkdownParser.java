@@ -28,8 +28,7 @@ import org.pegdown.ast.RootNode;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -39,6 +38,9 @@ import java.util.Optional;
  */
 class MarkdownParser extends BaseDocumentParser {
 
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('<', "^ *<!-- *@suppress (.*)-->");
+
     private PegDownProcessor pegDownProcessor = new PegDownProcessor(
             Extensions.HARDWRAPS
                     + Extensions.AUTOLINKS
@@ -49,6 +51,11 @@ class MarkdownParser extends BaseDocumentParser {
         super();
     }
 
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
     @Override
     public Document parse(InputStream inputStream, Optional<String> fileName, SentenceExtractor sentenceExtractor, RedPenTokenizer tokenizer)
             throws RedPenException {
@@ -56,7 +63,8 @@ class MarkdownParser extends BaseDocumentParser {
         fileName.ifPresent(documentBuilder::setFileName);
 
         StringBuilder fullText = new StringBuilder();
-        List<Integer> lineLengths = new ArrayList<>();
+        int[] lineEnds = new int[64];
+        int lineCount = 0;
 
         try (PreprocessingReader br = createReader(inputStream)) {
             String line;
@@ -65,7 +73,10 @@ class MarkdownParser extends BaseDocumentParser {
                 fullText.append(line).append("\n");
                 // TODO surrogate pair ?
                 charCount += line.length() + 1;
-                lineLengths.add(charCount);
+                if (lineCount == lineEnds.length) {
+                    lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+                }
+                lineEnds[lineCount++] = charCount;
             }
             documentBuilder.setPreprocessorRules(br.getPreprocessorRules());
         } catch (IOException e) {
@@ -75,7 +86,8 @@ class MarkdownParser extends BaseDocumentParser {
         try {
             // TODO create documentBuilder after parsing... overhead...
             RootNode rootNode = pegDownProcessor.parseMarkdown(fullText.toString().toCharArray());
-            ToFileContentSerializer serializer = new ToFileContentSerializer(documentBuilder, lineLengths, sentenceExtractor);
+            ToFileContentSerializer serializer = new ToFileContentSerializer(documentBuilder,
+                    Arrays.copyOf(lineEnds, lineCount), sentenceExtractor);
             serializer.toFileContent(rootNode);
         } catch (ParsingTimeoutException e) {
             throw new RedPenException("Failed to parse timeout: ", e);
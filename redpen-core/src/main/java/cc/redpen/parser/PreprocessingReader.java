@@ -17,14 +17,12 @@
  */
 package cc.redpen.parser;
 
-import cc.redpen.parser.asciidoc.AsciiDocParser;
-import cc.redpen.parser.rest.ReSTParser;
-import cc.redpen.parser.review.ReVIEWParser;
-
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -37,11 +35,15 @@ public class PreprocessingReader implements AutoCloseable {
     private Set<PreprocessorRule> preprocessorRules = new HashSet<>();
     private int lineNumber = 0;
     private PreprocessorRule lastRule = null;
-    private DocumentParser parser = null;
+    private SuppressCommentRecognizer recognizer;
 
     public PreprocessingReader(Reader reader, DocumentParser parser) {
+        this(reader, parser != null ? parser.getSuppressCommentRecognizer() : SuppressCommentRecognizer.NONE);
+    }
+
+    public PreprocessingReader(Reader reader, SuppressCommentRecognizer recognizer) {
         this.reader = new BufferedReader(reader);
-        this.parser = parser;
+        this.recognizer = recognizer;
     }
 
     @Override
@@ -54,77 +56,21 @@ public class PreprocessingReader implements AutoCloseable {
         lineNumber++;
         if (line == null) { return line; }
 
-        String ruleText = line;
-        if (parser instanceof AsciiDocParser) {
-            if (ruleText.toLowerCase().startsWith("[suppress")) {
-                addAsciiDocAttributeSuppressRule(ruleText);
+        Optional<List<String>> parameters = recognizer.recognize(line);
+        if (parameters.isPresent()) {
+            addSuppressRule(parameters.get(), recognizer.getLineGap());
+            if (recognizer.isErasingLine()) {
                 return "";
             }
-        } else if (parser instanceof MarkdownParser) {
-            if (ruleText.matches("^ *<!-- *@suppress (.*)-->")) {
-                ruleText = line
-                        .replaceAll("^ *<!--", "")
-                        .replaceAll("-->", "")
-                        .trim();
-                addCommentSuppressRule(ruleText);
-            }
-        } else if (parser instanceof ReVIEWParser) {
-            if (ruleText.matches("^#@# *@suppress(.*)")) {
-                ruleText = line
-                        .replaceAll("^#@#", "")
-                        .trim();
-                addCommentSuppressRule(ruleText);
-            }
-        } else if (parser instanceof LaTeXParser) {
-            if (ruleText.matches("^% *@suppress(.*)")) {
-                ruleText = line
-                        .replaceAll("^%", "")
-                        .trim();
-                addCommentSuppressRule(ruleText);
-            }
-        }  else if (parser instanceof ReSTParser) {
-            if (ruleText.matches("[.][.] *@suppress(.*)")) {
-                ruleText = line
-                        .replaceAll("[.][.]", "")
-                        .trim();
-                addCommentSuppressRule(ruleText, 3);
-            }
         }
         return line;
     }
 
-    private void addAsciiDocAttributeSuppressRule(String ruleString) {
-        PreprocessorRule rule = new PreprocessorRule(PreprocessorRule.RuleType.SUPPRESS, lineNumber);
-        if (lastRule != null) { lastRule.setLineNumberLimit(lineNumber); }
-        lastRule = rule;
-        String[] parts = ruleString.split("=");
-        if (parts.length > 1) {
-            String[] parameters = parts[1].replaceAll("[\"'\\]]", "").split(" ");
-            for (String parameter : parameters) {
-                if (!parameter.isEmpty()) {
-                    rule.addParameter(parameter);
-                }
-            }
-        }
-        preprocessorRules.add(rule);
-    }
-
-    private void addCommentSuppressRule(String ruleString) {
-        addCommentSuppressRule(ruleString, 0);
-    }
-
-    private void addCommentSuppressRule(String ruleString, int gap) {
+    private void addSuppressRule(List<String> parameters, int gap) {
         PreprocessorRule rule = new PreprocessorRule(PreprocessorRule.RuleType.SUPPRESS, lineNumber + gap);
         if (lastRule != null) { lastRule.setLineNumberLimit(lineNumber); }
         lastRule = rule;
-        String[] parts = ruleString.split(" ");
-        if (parts.length > 1) {
-            for (int i=1; i < parts.length; i++) {
-                if (!parts[i].isEmpty()) {
-                    rule.addParameter(parts[i]);
-                }
-            }
-        }
+        parameters.forEach(rule::addParameter);
         preprocessorRules.add(rule);
     }
 
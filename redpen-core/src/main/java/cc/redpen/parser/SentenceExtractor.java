@@ -19,6 +19,7 @@ package cc.redpen.parser;
 
 import cc.redpen.config.Configuration;
 import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolType;
 import cc.redpen.util.EndOfSentenceDetector;
 import cc.redpen.util.Pair;
 import org.slf4j.Logger;
@@ -165,6 +166,25 @@ public class SentenceExtractor {
         return (symbolTable != null) && (symbolTable.getLang().equals("ja")) ? "" : " ";
     }
 
+    /**
+     * Return a string identifying the settings of this extractor: the sentence end characters
+     * and the symbols of the symbol table. Extractors with the same fingerprint split and join
+     * sentences in the same way.
+     *
+     * @return fingerprint of the extractor settings
+     */
+    String getFingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(fullStopList).append('|').append(rightQuotationList);
+        if (symbolTable != null) {
+            fingerprint.append('|').append(symbolTable.getLang()).append('.').append(symbolTable.getVariant());
+            for (SymbolType type : symbolTable.getNames()) {
+                fingerprint.append('|').append(symbolTable.getSymbol(type));
+            }
+        }
+        return fingerprint.toString();
+    }
+
     /**
      * Given a set of sentence end characters, construct the
      * regex to detect end sentences.
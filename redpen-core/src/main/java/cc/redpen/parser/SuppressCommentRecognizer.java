@@ -0,0 +1,130 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes the comments carrying suppress instructions (e.g. "&lt;!-- @suppress Spelling --&gt;") in
+ * a markup format. Each DocumentParser supplies the recognizer for its own comment syntax.
+ * <p>
+ * The recognizer first compares the first non-space character of a line with the leading character
+ * of the comment syntax, so the precompiled pattern only runs on candidate lines.
+ */
+public class SuppressCommentRecognizer {
+
+    /**
+     * Recognizer for formats which have no suppress comments
+     */
+    public static final SuppressCommentRecognizer NONE = new SuppressCommentRecognizer();
+
+    private static final Pattern PARAMETER_DELIMITER = Pattern.compile("[\\s\"'\\]]+");
+
+    private final char leadingChar;
+    private final Pattern pattern;
+    private final int lineGap;
+    private final boolean erasingLine;
+
+    private SuppressCommentRecognizer() {
+        this.leadingChar = 0;
+        this.pattern = null;
+        this.lineGap = 0;
+        this.erasingLine = false;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param leadingChar first non-space character of every suppress comment
+     * @param regex       pattern matching the whole comment line, where the first group holds the parameters
+     */
+    public SuppressCommentRecognizer(char leadingChar, String regex) {
+        this(leadingChar, regex, 0, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param leadingChar first non-space character of every suppress comment
+     * @param regex       pattern matching the whole comment line, where the first group holds the parameters
+     * @param lineGap     number of lines between the comment and the block the rule applies to
+     * @param erasingLine true when the comment line should be hidden from the parser
+     */
+    public SuppressCommentRecognizer(char leadingChar, String regex, int lineGap, boolean erasingLine) {
+        this.leadingChar = leadingChar;
+        this.pattern = Pattern.compile(regex);
+        this.lineGap = lineGap;
+        this.erasingLine = erasingLine;
+    }
+
+    /**
+     * Extract the parameters (validator names) of a suppress comment.
+     *
+     * @param line input line
+     * @return parameters of the comment, or empty if the line is not a suppress comment
+     */
+    public Optional<List<String>> recognize(String line) {
+        if (pattern == null) {
+            return Optional.empty();
+        }
+        int start = 0;
+        while (start < line.length() && line.charAt(start) == ' ') {
+            start++;
+        }
+        if (start == line.length() || line.charAt(start) != leadingChar) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = pattern.matcher(line);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        List<String> parameters = new ArrayList<>();
+        String parameterText = matcher.groupCount() > 0 ? matcher.group(1) : null;
+        if (parameterText != null) {
+            for (String parameter : PARAMETER_DELIMITER.split(parameterText)) {
+                if (!parameter.isEmpty()) {
+                    parameters.add(parameter);
+                }
+            }
+        }
+        return Optional.of(parameters);
+    }
+
+    /**
+     * Get the number of lines between the comment and the block the rule applies to.
+     *
+     * @return line gap
+     */
+    public int getLineGap() {
+        return lineGap;
+    }
+
+    /**
+     * Get whether the comment line should be hidden from the parser.
+     *
+     * @return true when the recognized line is replaced by an empty line
+     */
+    public boolean isErasingLine() {
+        return erasingLine;
+    }
+}
@@ -35,37 +35,19 @@ public class AsciiDocLine extends Line {
         super(str, lineno);
         this.lineNo = lineno;
         this.inlineMarkupDelimiters = " _*`#^~.,";
+        mapCharacters(null);
         if (!str.isEmpty()) {
             allSameCharacter = true;
-            char lastCh = 0;
-            for (int i = 0; i < str.length(); i++) {
-                char ch = str.charAt(i);
-
-                if ((i < str.length() - 1) && (ch == '\\')) {
-                    i++;
-                    ch = str.charAt(i);
-                    escaped.add(true);
-                }
-                else {
-                    escaped.add(false);
-                }
-
-                offsets.add(i);
-                characters.add(ch);
-                valid.add(true);
-
-                if ((lastCh != 0) && (lastCh != ch)) {
+            for (int i = 1; i < length(); i++) {
+                if (rawCharAt(i) != rawCharAt(i - 1)) {
                     allSameCharacter = false;
+                    break;
                 }
-                lastCh = ch;
             }
         }
 
         // trim the end
-        while (!characters.isEmpty() &&
-                Character.isWhitespace(characters.get(characters.size() - 1))) {
-            characters.remove(characters.size() - 1);
-        }
+        trimEnd();
     }
 
     @Override
@@ -19,6 +19,7 @@
 package cc.redpen.parser.asciidoc;
 
 import cc.redpen.parser.PreprocessingReader;
+import cc.redpen.parser.SuppressCommentRecognizer;
 import cc.redpen.parser.common.Line;
 import cc.redpen.parser.common.LineParser;
 import cc.redpen.parser.common.Model;
@@ -46,6 +47,9 @@ public class AsciiDocParser extends LineParser {
 
     private static final Logger LOG = LoggerFactory.getLogger(AsciiDocParser.class);
 
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('[', "(?i)^\\[suppress[^=]*(?:=([^=]*).*)?", 0, true);
+
     /**
      * An array of AsciiDoctor macros to erase
      */
@@ -94,6 +98,11 @@ public class AsciiDocParser extends LineParser {
     }
 
 
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
     /**
      * populate the erasable model with the text from the inputstream
      * @param model model to populate
@@ -18,23 +18,29 @@
 
 package cc.redpen.parser.common;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 
+/**
+ * An 'erasing' view of a line of the document. The characters of the line are not copied: each
+ * character is mapped to its position in the text of the line, and erased and escaped characters
+ * are tracked in bitmaps.
+ */
 public class Line {
     // value returned for comparison if a character is escaped
     static final char ESCAPED_CHARACTER_VALUE = 'ø';
 
-    // a list of offsets for each character
-    protected List<Integer> offsets = new ArrayList<>();
-    // the character list for the line
-    protected List<Character> characters = new ArrayList<>();
+    // the position of each character in the text, or null if the positions are the same as the indexes
+    private int[] offsets = null;
+    // the number of characters mapped from the text
+    private int mappedLength = 0;
+    // the number of characters in the line, after trimming the end
+    private int length = 0;
     // the text of the line
     protected String text;
-    // marks erased characters as invalid
-    protected List<Boolean> valid = new ArrayList<>();
+    // marks erased characters
+    private BitSet erasedCharacters = new BitSet();
     // remembers which characters were escaped in the original string
-    protected List<Boolean> escaped = new ArrayList<>();
+    private BitSet escaped = new BitSet();
     // Whole line is erased.
     protected boolean erased = false;
 
@@ -63,6 +69,47 @@ public class Line {
         this.text = str;
     }
 
+    /**
+     * Map the characters of the text to the line. A backslash followed by an escapable character
+     * is dropped, and the following character is marked as escaped
+     *
+     * @param escapable the characters which can be escaped, or null if any character can be escaped
+     */
+    protected void mapCharacters(String escapable) {
+        int[] positions = null;
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if ((i < text.length() - 1) && (text.charAt(i) == '\\') &&
+                    ((escapable == null) || (escapable.indexOf(text.charAt(i + 1)) != -1))) {
+                if (positions == null) {
+                    // positions are no longer the same as the indexes
+                    positions = new int[text.length()];
+                    for (int j = 0; j < count; j++) {
+                        positions[j] = j;
+                    }
+                }
+                i++;
+                escaped.set(count);
+            }
+            if (positions != null) {
+                positions[count] = i;
+            }
+            count++;
+        }
+        offsets = positions;
+        mappedLength = count;
+        length = count;
+    }
+
+    /**
+     * Remove the trailing whitespace from the line
+     */
+    protected void trimEnd() {
+        while ((length > 0) && Character.isWhitespace(rawCharAt(length - 1))) {
+            length--;
+        }
+    }
+
     /**
      * Erase length characters in the line, starting at pos
      *
@@ -70,10 +117,8 @@ public class Line {
      * @param length length to erase
      */
     public void erase(int pos, int length) {
-        if ((pos >= 0) && (pos < valid.size())) {
-            for (int i = pos; (i < valid.size()) && (i < pos + length); i++) {
-                valid.set(i, false);
-            }
+        if ((pos >= 0) && (pos < mappedLength) && (length > 0)) {
+            erasedCharacters.set(pos, Math.min(mappedLength, pos + length));
         }
     }
 
@@ -81,9 +126,7 @@ public class Line {
      * Erase the whole line
      */
     public void erase() {
-        for (int i = 0; i < valid.size(); i++) {
-            valid.set(i, false);
-        }
+        erasedCharacters.set(0, mappedLength);
         erased = true;
     }
 
@@ -93,7 +136,7 @@ public class Line {
      * @param segment segment to be erased
      */
     public void erase(String segment) {
-        for (int i = 0; i < characters.size(); i++) {
+        for (int i = 0; i < length; i++) {
             boolean found = true;
             for (int j = 0; j < segment.length(); j++) {
                 if (charAt(j + i) != segment.charAt(j)) {
@@ -114,7 +157,7 @@ public class Line {
      * @return length of the line
      */
     public int length() {
-        return characters.size();
+        return length;
     }
 
     /**
@@ -136,12 +179,12 @@ public class Line {
      * @return extracted character
      */
     public char charAt(int i, boolean includeInvalid) {
-        if ((i >= 0) && (i < characters.size())) {
+        if ((i >= 0) && (i < length)) {
             if (escaped.get(i)) {
                 return ESCAPED_CHARACTER_VALUE;
             }
-            if (includeInvalid || valid.get(i)) {
-                return characters.get(i);
+            if (includeInvalid || !erasedCharacters.get(i)) {
+                return text.charAt(getOffset(i));
             }
         }
         return 0;
@@ -169,8 +212,8 @@ public class Line {
      * @return raw character at the specified position
      */
     public char rawCharAt(int i) {
-        if ((i >= 0) && (i < characters.size())) {
-            return characters.get(i);
+        if ((i >= 0) && (i < length)) {
+            return text.charAt(getOffset(i));
         }
         return ' ';
     }
@@ -182,8 +225,8 @@ public class Line {
      * @return true if the character at the given position valid
      */
     public boolean isValid(int i) {
-        if ((i >= 0) && (i < characters.size())) {
-            return valid.get(i);
+        if ((i >= 0) && (i < length)) {
+            return !erasedCharacters.get(i);
         }
         return false;
     }
@@ -194,11 +237,10 @@ public class Line {
      * @return true if it's empty
      */
     public boolean isEmpty() {
-        for (int i = 0; i < characters.size(); i++) {
-            if (!Character.isWhitespace(characters.get(i)))
-                if (valid.get(i)) {
-                    return false;
-                }
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(rawCharAt(i)) && isValid(i)) {
+                return false;
+            }
         }
 
         return true;
@@ -212,11 +254,11 @@ public class Line {
      */
     public int getOffset(int i) {
         if (i >= 0) {
-            if (i < offsets.size()) {
-                return offsets.get(i);
+            if (i < mappedLength) {
+                return (offsets == null) ? i : offsets[i];
             }
             else {
-                return offsets.size();
+                return mappedLength;
             }
         }
         return 0;
@@ -315,7 +357,7 @@ public class Line {
         int lastCommaPosition = -1;
         int enclosureStart = 0;
         for (int i = 0; i < length(); i++) {
-            if (!valid.get(i)) {
+            if (!isValid(i)) {
                 continue;
             }
             if (!inEnclosure) {
@@ -439,14 +481,12 @@ public class Line {
      */
     @Override
     public String toString() {
-        String result = "";
-        for (int i = 0; i < characters.size(); i++) {
-            if (valid.get(i)) {
-                result += characters.get(i);
-            }
-            else {
-                result += "·" + characters.get(i);
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (!isValid(i)) {
+                result.append('·');
             }
+            result.append(rawCharAt(i));
         }
         return (erased ? "X" : " ") +
                 (inBlock ? "[" : " ") +
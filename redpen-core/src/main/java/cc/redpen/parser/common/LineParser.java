@@ -61,7 +61,7 @@ public abstract class LineParser extends BaseDocumentParser {
         Document.DocumentBuilder documentBuilder = Document.builder(tokenizer);
         fileName.ifPresent(documentBuilder::setFileName);
 
-        Model model = new Model(sentenceExtractor);
+        Model model = createModel(sentenceExtractor);
 
         // add the lines from the input to the abstract model
         this.populateModel(model, io);
@@ -75,6 +75,17 @@ public abstract class LineParser extends BaseDocumentParser {
         return documentBuilder.build();
     }
 
+    /**
+     * Create the model the parser populates. Parsers can override this to customize the
+     * conversion of lines into sentences
+     *
+     * @param sentenceExtractor sentence extractor
+     * @return an empty model
+     */
+    protected Model createModel(SentenceExtractor sentenceExtractor) {
+        return new Model(sentenceExtractor);
+    }
+
     /**
      * Conver the parser's model to the RedPen document model
      *
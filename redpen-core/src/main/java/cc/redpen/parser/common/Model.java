@@ -145,19 +145,20 @@ public class Model {
     public List<Sentence> convertToSentences(List<Line> lines) {
         List<Sentence> sentences = new ArrayList<>();
 
-        String content = "";
+        StringBuilder content = new StringBuilder();
         List<LineOffset> offsets = new ArrayList<>();
         for (int ln = 0; ln < lines.size(); ln++) {
             Line line = lines.get(ln);
 
             for (int i = 0; i < line.length(); i++) {
                 if (line.isValid(i)) {
-                    content += line.rawCharAt(i);
+                    char ch = line.rawCharAt(i);
+                    content.append(ch);
                     offsets.add(new LineOffset(line.getLineNo(), line.getOffset(i)));
                     // check for end of sentence
-                    if (sentenceExtractor.getSentenceEndPosition("" + line.rawCharAt(i)) != -1) {
-                        sentences.add(new Sentence(content, offsets, Collections.EMPTY_LIST));
-                        content = "";
+                    if (sentenceExtractor.getSentenceEndPosition(String.valueOf(ch)) != -1) {
+                        sentences.add(new Sentence(content.toString(), offsets, Collections.EMPTY_LIST));
+                        content.setLength(0);
                         offsets = new ArrayList<>();
                     }
                 }
@@ -165,14 +166,14 @@ public class Model {
             // join lines
             if ((lines.size() > 1) && (ln != lines.size() - 1)) {
                 for (char c : sentenceExtractor.getBrokenLineSeparator().toCharArray()) {
-                    content += c;
+                    content.append(c);
                     offsets.add(new LineOffset(line.getLineNo(), line.getOffset(line.length())));
                 }
             }
         }
         // add remaining line
-        if (!content.trim().isEmpty()) {
-            sentences.add(new Sentence(content, offsets, Collections.EMPTY_LIST));
+        if (!content.toString().trim().isEmpty()) {
+            sentences.add(new Sentence(content.toString(), offsets, Collections.EMPTY_LIST));
         }
         return sentences;
     }
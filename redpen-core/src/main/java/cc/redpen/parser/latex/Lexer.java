@@ -29,7 +29,7 @@ public class Lexer {
 
     private char[] mTarget;
     private String mMode = "TEXTILE";
-    private List<Character> mRegister = new ArrayList<>();
+    private StringBuilder mRegister = new StringBuilder();
     private Character mDelimiter = null;
     private Position mPos = new Position(1, 0);
     private Position mModeFrom = new Position(1, 0);
@@ -122,7 +122,7 @@ public class Lexer {
             mMode = "FORMULA";
             break;
         default:
-            mRegister.add(c);
+            mRegister.append(c);
         }
     }
 
@@ -155,9 +155,9 @@ public class Lexer {
 
     private void doParseControl(final List<Token> o, final char c) {
         if (SPECIALS.indexOf(c) < 0) {
-            mRegister.add(c);
+            mRegister.append(c);
         } else {
-            final String word = Flusher.on(mRegister).flush();
+            final String word = takeRegister();
             if ("verb".equals(word)) {
                 savePosition();
                 mMode = "VERBATIM";
@@ -177,7 +177,7 @@ public class Lexer {
 
     private void doParseVerbatim(final List<Token> o, final char c) {
         if (c != mDelimiter) {
-            mRegister.add(c);
+            mRegister.append(c);
         } else {
             flush(o);
             savePosition();
@@ -193,7 +193,7 @@ public class Lexer {
             doParse(o, c);
         } else {
             mMode = "TEXTILE";
-            mRegister.add(c);
+            mRegister.append(c);
         }
     }
 
@@ -202,11 +202,17 @@ public class Lexer {
     }
 
     private void flush(final List<Token> l) {
-        if (!mRegister.isEmpty()) {
-            l.add(new Token(mMode, Flusher.on(mRegister).flush(), mModeFrom));
+        if (mRegister.length() > 0) {
+            l.add(new Token(mMode, takeRegister(), mModeFrom));
         }
     }
 
+    private String takeRegister() {
+        final String o = mRegister.toString();
+        mRegister.setLength(0);
+        return o;
+    }
+
     private void savePosition() {
         savePositionWithOffset(0, 0);
     }
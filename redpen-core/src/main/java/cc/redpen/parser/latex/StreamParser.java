@@ -22,10 +22,10 @@ import java.util.Deque;
 import java.util.ArrayList;
 import java.util.ArrayDeque;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
 
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
-import org.apache.commons.lang3.StringUtils;
 
 /**
  * Experimental stream mode LaTeX parser prototype.
@@ -46,23 +46,229 @@ public class StreamParser {
     }
 
     public void parse() {
-        final List<Token> tokens = Lexer.on(mTarget).parse();
-        for (Token t:
-                 (Parsing.unescapeRegion
-                  (Parsing.styleTextileRegion
-                   (Parsing.assembleRegion
-                    (Parsing.pruneRegion
-                     (Parsing.normalizeTextileRegion
-                      (Parsing.maskTabularLikeRegion
-                       (Parsing.markVerbatimRegion
-                        (Parsing.collapse (tokens)))))))))) {
-            mListener.element(t);
-        }
+        // every token goes through all the stages before the next one is collapsed
+        final Parsing.Stage pipeline =
+            new Parsing.VerbatimStage
+            (new Parsing.TabularMaskStage
+             (new Parsing.NormalizeTextileStage
+              (new Parsing.PruneStage
+               (new Parsing.AssembleStage
+                (new Parsing.StyleTextileStage
+                 (new Parsing.UnescapeStage
+                  (new Parsing.Emitter(mListener))))))));
+        Parsing.collapse(new ArrayDeque<>(Lexer.on(mTarget).parse()), pipeline);
+        pipeline.end();
     }
 
     /*package*/ static class Parsing {
         public static final char ESCAPE_CHAR = '\uFFFD';
 
+        private static final String BLANKS = " \t\r\n" + ESCAPE_CHAR;
+        private static final Pattern INTERESTS = Pattern.compile("(?:caption|part|(?:sub)*(chapter|section|paragraph)|item|title)\\*?");
+        private static final Pattern IGNORES = Pattern.compile(".?(?:space|fill)\\*?|phantom|documentclass|usepackage|author|date|label|ref|cite|biblio.*|includegraphics|footnote");
+        private static final Pattern LINEBREAKS = Pattern.compile("(\\r?\\n){2,}");
+        private static final Pattern BLANK_RUN = Pattern.compile(String.format("[ \\t\\r\\n%c]{2,}", ESCAPE_CHAR));
+
+        /**
+         * A step of the pipeline, which receives the tokens one by one and passes its output to the next step.
+         */
+        public static abstract class Stage {
+            private final Stage mNext;
+
+            protected Stage(final Stage next) {
+                mNext = next;
+            }
+
+            public abstract void accept(final Token t);
+
+            public void end() {
+                mNext.end();
+            }
+
+            protected void emit(final Token t) {
+                mNext.accept(t);
+            }
+        }
+
+        public static class Emitter extends Stage {
+            private final Listener mListener;
+
+            public Emitter(final Listener l) {
+                super(null);
+                mListener = l;
+            }
+
+            @Override
+            public void accept(final Token t) {
+                mListener.element(t);
+            }
+
+            @Override
+            public void end() {
+            }
+        }
+
+        public static class VerbatimStage extends Stage {
+            private List<Token> mVerbatim = null;
+
+            public VerbatimStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if (mVerbatim == null) {
+                    if ("ENVIRON_BEGIN".equals(t.t) && containsTextile(t.p, "verbatim")) {
+                        mVerbatim = new ArrayList<>();
+                    } else {
+                        emit(t);
+                    }
+                } else if ("ENVIRON_END".equals(t.t) && containsTextile(t.p, "verbatim")) {
+                    emit(makeVerbatim(mVerbatim));
+                    mVerbatim = null;
+                } else {
+                    mVerbatim.add(t);
+                }
+            }
+        }
+
+        public static class TabularMaskStage extends Stage {
+            private boolean mInTabular = false;
+
+            public TabularMaskStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if (!mInTabular) {
+                    if ("ENVIRON_BEGIN".equals(t.t) && containsTextile(t.p, "tabular")) {
+                        mInTabular = true;
+                    } else {
+                        emit(t);
+                    }
+                } else if ("ENVIRON_END".equals(t.t) && containsTextile(t.p, "tabular")) {
+                    mInTabular = false;
+                }
+            }
+        }
+
+        public static class NormalizeTextileStage extends Stage {
+            public NormalizeTextileStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if ("TEXTILE".equals(t.t)) {
+                    t.v = normalizeQuotes(t.v);
+                }
+                emit(t);
+            }
+        }
+
+        public static class PruneStage extends Stage {
+            public PruneStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if ("TEXTILE".equals(t.t)) {
+                    emit(t);
+                } else if ("CONTROL*".equals(t.t)) {
+                    emit(new Token(t.v.toUpperCase(), joinTextileValues(pruneRegion(t.p)), t.pos));
+                }
+            }
+        }
+
+        public static class AssembleStage extends Stage {
+            private final List<Token> mRegion = new ArrayList<>();
+
+            public AssembleStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if ("TEXTILE".equals(t.t)) {
+                    mRegion.add(t);
+                } else {
+                    flush();
+                    emit(t);
+                }
+            }
+
+            @Override
+            public void end() {
+                flush();
+                super.end();
+            }
+
+            private void flush() {
+                if (!mRegion.isEmpty()) {
+                    final Token first = mRegion.get(0);
+                    emit(new Token(first.t, joinTextileValues(mRegion), first.pos));
+                    mRegion.clear();
+                }
+            }
+        }
+
+        public static class StyleTextileStage extends Stage {
+            // blank lines are held back, since the one at the end of the document is dropped
+            private Token mPendingBlankLine = null;
+
+            public StyleTextileStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                if ("TEXTILE".equals(t.t)) {
+                    if (!isBlank(t.v)) {
+                        final String stripped = stripTextBlock(t.v);
+                        for (String s : LINEBREAKS.split(stripped)) {
+                            final Position p = new Position(_guessRow(t, s), _guessCol(t, s));
+                            emitText(new Token(t.t, maskCharactersInTextBlock(s), p));
+                            mPendingBlankLine = new Token(t.t, Token.BLANK_LINE, p);
+                        }
+                    }
+                } else {
+                    emitText(t);
+                }
+            }
+
+            private void emitText(final Token t) {
+                if (mPendingBlankLine != null) {
+                    emit(mPendingBlankLine);
+                    mPendingBlankLine = null;
+                }
+                emit(t);
+            }
+        }
+
+        public static class UnescapeStage extends Stage {
+            public UnescapeStage(final Stage next) {
+                super(next);
+            }
+
+            @Override
+            public void accept(final Token t) {
+                t.v = t.v.replace(ESCAPE_CHAR, ' ');
+                emit(t);
+            }
+        }
+
+        private static List<Token> run(final List<Token> tokens, final Function<Stage, Stage> stage) {
+            final List<Token> o = new ArrayList<>();
+            final Stage s = stage.apply(new Emitter(t -> o.add(t)));
+            for (Token t : tokens) {
+                s.accept(t);
+            }
+            s.end();
+            return o;
+        }
+
         public static List<Token> takeBlock(final Deque<Token> q) {
             final List<Token> o = new ArrayList<>();
             final Deque<String> reg = new ArrayDeque<>();
@@ -116,51 +322,48 @@ public class StreamParser {
 
         public static Token makeVerbatim(final List<Token> tokens) {
             final Token beginning = tokens.get(0);
-            final List<String> values = new ArrayList<>();
+            final StringBuilder value = new StringBuilder();
             for (Token t : tokens) {
-                values.add(t.asVerbatim());
+                value.append(t.asVerbatim());
                 if (!t.p.isEmpty()) {
-                    values.add(makeVerbatim(t.p).v);
+                    value.append(makeVerbatim(t.p).v);
                 }
             }
-            return new Token("VERBATIM", StringUtils.join(values, ""), beginning.pos);
+            return new Token("VERBATIM", value.toString(), beginning.pos);
         }
 
-
         public static List<Token> collapse(final List<Token> tokens) {
             final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            final Pattern interests = Pattern.compile("(?:caption|part|(?:sub)*(chapter|section|paragraph)|item|title)\\*?");
-            final Pattern ignores = Pattern.compile(".?(?:space|fill)\\*?|phantom|documentclass|usepackage|author|date|label|ref|cite|biblio.*|includegraphics|footnote");
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ("CONTROL".equals(t.t)) {
-                        if ("begin".equals(t.v) || "end".equals(t.v)) {
-                            t.p = takeTrailingBlocks(q);
-                            switch (t.v) {
-                            case "begin":
-                                t.t = "ENVIRON_BEGIN";
-                                break;
-                            case "end":
-                                t.t = "ENVIRON_END";
-                                break;
-                            }
-                            o.add(t);
-                        } else if (interests.matcher(t.v).matches()) {
-                            t.p = takeBlock(q);
-                            t.t = t.t + "*";
-                            o.add(t);
-                        } else if (ignores.matcher(t.v).matches()) {
-                            t.p = takeTrailingBlocks(q);
-                            o.add(t);
+            collapse(new ArrayDeque<>(tokens), new Emitter(t -> o.add(t)));
+            return o;
+        }
+
+        public static void collapse(final Deque<Token> q, final Stage out) {
+            while (!q.isEmpty()) {
+                final Token t = q.removeFirst();
+                if ("CONTROL".equals(t.t)) {
+                    if ("begin".equals(t.v) || "end".equals(t.v)) {
+                        t.p = takeTrailingBlocks(q);
+                        switch (t.v) {
+                        case "begin":
+                            t.t = "ENVIRON_BEGIN";
+                            break;
+                        case "end":
+                            t.t = "ENVIRON_END";
+                            break;
                         }
-                    } else {
-                        o.add(t);
+                        out.accept(t);
+                    } else if (INTERESTS.matcher(t.v).matches()) {
+                        t.p = takeBlock(q);
+                        t.t = t.t + "*";
+                        out.accept(t);
+                    } else if (IGNORES.matcher(t.v).matches()) {
+                        t.p = takeTrailingBlocks(q);
+                        out.accept(t);
                     }
+                } else {
+                    out.accept(t);
                 }
-            } catch (final NoSuchElementException e) {
-                return o;
             }
         }
 
@@ -180,173 +383,103 @@ public class StreamParser {
             return o;
         }
 
-        public static List<Token> markVerbatimRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ( ! ("ENVIRON_BEGIN".equals(t.t) && textileValuesOf(t.p).contains("verbatim")) ) {
-                        o.add(t);
-                    } else {
-                        final List<Token> verbatim = new ArrayList<>();
-                        while (true) {
-                            final Token vt = q.removeFirst();
-                            if ( ! ("ENVIRON_END".equals(vt.t) && textileValuesOf(vt.p).contains("verbatim")) ) {
-                                verbatim.add(vt);
-                            } else {
-                                o.add(makeVerbatim(verbatim));
-                                break;
-                            }
-                        }
-                    }
+        private static boolean containsTextile(final Iterable<Token> tokens, final String value) {
+            for (Token t : tokens) {
+                if (value.equals(t.asTextile())) {
+                    return true;
                 }
-            } catch (final NoSuchElementException e) {
-                return o;
             }
+            return false;
         }
 
-        public static List<Token> maskTabularLikeRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ( ! ("ENVIRON_BEGIN".equals(t.t) && textileValuesOf(t.p).contains("tabular")) ) {
-                        o.add(t);
-                    } else {
-                        while (true) {
-                            final Token tt = q.removeFirst();
-                            if ("ENVIRON_END".equals(tt.t) && textileValuesOf(tt.p).contains("tabular")) {
-                                break;
-                            }
-                        }
-                    }
-                }
-            } catch (final NoSuchElementException e) {
-                return o;
+        private static String joinTextileValues(final Iterable<Token> tokens) {
+            final StringBuilder o = new StringBuilder();
+            for (Token t : tokens) {
+                o.append(t.asTextile());
             }
+            return o.toString();
+        }
+
+        public static List<Token> markVerbatimRegion(final List<Token> tokens) {
+            return run(tokens, VerbatimStage::new);
+        }
+
+        public static List<Token> maskTabularLikeRegion(final List<Token> tokens) {
+            return run(tokens, TabularMaskStage::new);
         }
 
         public static List<Token> normalizeTextileRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ( ! ("TEXTILE".equals(t.t)) ) {
-                        o.add(t);
-                    } else {
-                        t.v = Pattern.compile("``|’’|''").matcher(t.v).replaceAll("\"");
-                        t.v = Pattern.compile("`|’").matcher(t.v).replaceAll("'");
-                        o.add(t);
-                    }
-                }
-            } catch (final NoSuchElementException e) {
-                return o;
-            }
+            return run(tokens, NormalizeTextileStage::new);
         }
 
         public static List<Token> pruneRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ("TEXTILE".equals(t.t)) {
-                        o.add(t);
-                    } else if ("CONTROL*".equals(t.t)) {
-                        o.add(new Token(t.v.toUpperCase(), StringUtils.join(textileValuesOf(pruneRegion(t.p)), ""), t.pos));
-                    }
-                }
-            } catch (final NoSuchElementException e) {
-                return o;
-            }
+            return run(tokens, PruneStage::new);
         }
 
         public static List<Token> assembleRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            final List<Token> reg = new ArrayList<>();
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ("TEXTILE".equals(t.t)) {
-                        reg.add(t);
-                    } else {
-                        if (!reg.isEmpty()) {
-                            final Token first = reg.get(0);
-                            o.add(new Token(first.t, StringUtils.join(textileValuesOf(reg), ""), first.pos));
-                            reg.clear();
-                        }
-                        o.add(t);
+            return run(tokens, AssembleStage::new);
+        }
+
+        public static List<Token> styleTextileRegion(final List<Token> tokens) {
+            return run(tokens, StyleTextileStage::new);
+        }
+
+        public static List<Token> unescapeRegion(final List<Token> tokens) {
+            return run(tokens, UnescapeStage::new);
+        }
+
+        /**
+         * Replace the double quotes (``, ’’ and '') with " and the single quotes (` and ’) with ', in a single scan.
+         */
+        public static String normalizeQuotes(final String b) {
+            StringBuilder o = null;
+            for (int i = 0; i < b.length(); ++i) {
+                final char c = b.charAt(i);
+                if (c != '`' && c != '’' && c != '\'') {
+                    if (o != null) {
+                        o.append(c);
                     }
+                    continue;
                 }
-            } catch (final NoSuchElementException e) {
-                if (!reg.isEmpty()) {
-                    final Token first = reg.get(0);
-                    o.add(new Token(first.t, StringUtils.join(textileValuesOf(reg), ""), first.pos));
-                    reg.clear();
+                if (o == null) {
+                    o = new StringBuilder(b.length());
+                    o.append(b, 0, i);
+                }
+                if (i + 1 < b.length() && b.charAt(i + 1) == c) {
+                    o.append('"');
+                    ++i;
+                } else {
+                    o.append('\'');
                 }
-                return o;
             }
+            return (o == null) ? b : o.toString();
         }
 
-        public static List<Token> styleTextileRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            final Deque<Token> q = new ArrayDeque<>(tokens);
-            final Pattern EMPTY = Pattern.compile(String.format("^[ \\t\\r\\n%c]*$", ESCAPE_CHAR));
-            final Pattern LINEBREAK = Pattern.compile("(\\r?\\n){2,}");
-            try {
-                while (true) {
-                    final Token t = q.removeFirst();
-                    if ("TEXTILE".equals(t.t)) {
-                        if (!EMPTY.matcher(t.v).matches()) {
-                            final String stripped = stripTextBlock(t.v);
-                            for (String s : LINEBREAK.split(stripped)) {
-                                final Position p = new Position(_guessRow(t, s), _guessCol(t, s));
-                                o.add(new Token(t.t, maskCharactersInTextBlock(s), p));
-                                o.add(new Token(t.t, Token.BLANK_LINE, p));
-                            }
-                        }
-                    } else {
-                        o.add(t);
-                    }
-                }
-            } catch (final NoSuchElementException e) {
-                try {
-                    final Token last = o.get(o.size() - 1);
-                    if (last.isBlankLine()) {
-                        o.remove(last);
-                    }
-                    return o;
-                } catch (final ArrayIndexOutOfBoundsException ignore) {
-                    return o;
+        private static boolean isBlank(final String b) {
+            for (int i = 0; i < b.length(); ++i) {
+                if (BLANKS.indexOf(b.charAt(i)) < 0) {
+                    return false;
                 }
             }
+            return true;
         }
 
         public static String stripTextBlock(final String b) {
-            return Pattern.compile(String.format("^[ \\t\\r\\n%c]+", ESCAPE_CHAR)).matcher(b).replaceAll("");
+            int i = 0;
+            while (i < b.length() && BLANKS.indexOf(b.charAt(i)) >= 0) {
+                ++i;
+            }
+            return b.substring(i);
         }
 
         public static String compactTextBlock(final String b) {
-            return Pattern.compile(String.format("[ \\t\\r\\n%c]{2,}", ESCAPE_CHAR)).matcher(b).replaceAll(" ");
+            return BLANK_RUN.matcher(b).replaceAll(" ");
         }
 
         public static String maskCharactersInTextBlock(final String b) {
             return b.replace('~', ' ');
         }
 
-        public static List<Token> unescapeRegion(final List<Token> tokens) {
-            final List<Token> o = new ArrayList<>();
-            for (Token t : tokens) {
-                t.v = t.v.replace(ESCAPE_CHAR, ' ');
-                o.add(t);
-            }
-            return o;
-        }
-
         public static int countMatches(final Pattern p, final String s) {
             int ret = 0;
             for (Matcher m = p.matcher(s); m.find(); ++ret);
@@ -356,7 +489,12 @@ public class StreamParser {
         public static int _guessRow(final Token t, final String needle) {
             final int lead = t.v.indexOf(needle);
             if (lead >= 0) {
-                return t.pos.row + countMatches(Pattern.compile("\\r?\\n"), t.v.substring(0, lead));
+                // each \r?\n contains exactly one \n
+                int rows = 0;
+                for (int i = t.v.indexOf('\n'); i >= 0 && i < lead; i = t.v.indexOf('\n', i + 1)) {
+                    ++rows;
+                }
+                return t.pos.row + rows;
             } else {
                 return t.pos.row;
             }
@@ -365,7 +503,7 @@ public class StreamParser {
         public static int _guessCol(final Token t, final String needle) {
             final int lead = t.v.indexOf(needle);
             if (lead >= 0) {
-                final int lastLinebreak = t.v.substring(0, lead).lastIndexOf("\n");
+                final int lastLinebreak = (lead > 0) ? t.v.lastIndexOf('\n', lead - 1) : -1;
                 if (lastLinebreak >= 0) {
                     return 0 + (lead - (lastLinebreak + 1));
                 } else {
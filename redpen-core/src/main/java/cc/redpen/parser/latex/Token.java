@@ -28,6 +28,8 @@ import java.util.regex.Pattern;
 public class Token {
     public static final String BLANK_LINE = "";
 
+    private static final Pattern EMPTY_TEXTILE = Pattern.compile("^[ \\r\\n\\t]*$");
+
     public String t;
     public String v;
     public List<Token> p = new ArrayList<>();
@@ -67,7 +69,7 @@ public class Token {
     }
 
     public boolean isEmptyAsTextile() {
-        return Pattern.compile("^[ \\r\\n\\t]*$").matcher(asTextile()).matches();
+        return EMPTY_TEXTILE.matcher(asTextile()).matches();
     }
 
     public boolean isBlankLine() {
@@ -0,0 +1,81 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.parser.common.Line;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An 'erasing' line of a Markdown document, which also remembers the links found in the line
+ */
+public class CommonMarkLine extends Line {
+    // characters which can be escaped with a backslash
+    private static final String ESCAPABLE_CHARACTERS = "\\`*_{}[]()#+-.!<>|~\"'";
+
+    // link urls keyed by the position of the first character of the link text
+    private Map<Integer, String> links = new HashMap<>();
+    // is this line the first item of a new list?
+    private boolean newList = false;
+
+    /**
+     * Construct a line using the supplied string
+     *
+     * @param str    the text of the line
+     * @param lineno the original line number
+     */
+    public CommonMarkLine(String str, int lineno) {
+        super(str, lineno);
+        this.inlineMarkupDelimiters = "";
+        mapCharacters(ESCAPABLE_CHARACTERS);
+    }
+
+    /**
+     * Register a link whose text starts at the given position
+     *
+     * @param pos position of the first character of the link text
+     * @param url url of the link
+     */
+    public void addLink(int pos, String url) {
+        links.put(pos, url);
+    }
+
+    /**
+     * Return the url of the link whose text starts at the given position
+     *
+     * @param pos position
+     * @return url, or null if no link starts at the position
+     */
+    public String getLink(int pos) {
+        return links.get(pos);
+    }
+
+    /**
+     * Is this line the first item of a new list?
+     *
+     * @return true if the line starts a new list
+     */
+    public boolean isNewList() {
+        return newList;
+    }
+
+    public void setNewList(boolean newList) {
+        this.newList = newList;
+    }
+}
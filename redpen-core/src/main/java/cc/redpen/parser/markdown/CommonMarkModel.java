@@ -0,0 +1,96 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.SentenceExtractor;
+import cc.redpen.parser.common.Line;
+import cc.redpen.parser.common.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A model of a Markdown document. Lines are converted into sentences in the same way
+ * as ToFileContentSerializer does for the pegdown parser, so that both Markdown parsers
+ * generate the same sentences, offsets and links.
+ */
+public class CommonMarkModel extends Model {
+    private SentenceExtractor sentenceExtractor;
+
+    public CommonMarkModel(SentenceExtractor sentenceExtractor) {
+        super(sentenceExtractor);
+        this.sentenceExtractor = sentenceExtractor;
+    }
+
+    /**
+     * Convert a list of Lines into sentences. Each run of consecutive valid characters
+     * becomes a candidate sentence, and the candidates are merged and split at the sentence ends
+     *
+     * @param lines lines to be converted
+     * @return list of converted sentence
+     */
+    @Override
+    public List<Sentence> convertToSentences(List<Line> lines) {
+        List<CandidateSentence> candidateSentences = new ArrayList<>();
+        for (int ln = 0; ln < lines.size(); ln++) {
+            Line line = lines.get(ln);
+            if (ln > 0) {
+                // NOTE: offset of the line break is always 0 of the next line
+                candidateSentences.add(new CandidateSentence(line.getLineNo(),
+                        sentenceExtractor.getBrokenLineSeparator(), null, 0));
+            }
+            addCandidateSentences(line, ln == lines.size() - 1, candidateSentences);
+        }
+        return MergedCandidateSentence.merge(candidateSentences)
+                .map(merged -> merged.extractSentences(sentenceExtractor))
+                .orElseGet(ArrayList::new);
+    }
+
+    private void addCandidateSentences(Line line, boolean lastLine, List<CandidateSentence> candidateSentences) {
+        int end = line.length();
+        if (lastLine) {
+            while ((end > 0) && Character.isWhitespace(line.rawCharAt(end - 1))) {
+                end--;
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        int startOffset = 0;
+        String link = null;
+        for (int i = 0; i < end; i++) {
+            if (!line.isValid(i)) {
+                continue;
+            }
+            String linkAtPosition = (line instanceof CommonMarkLine) ? ((CommonMarkLine) line).getLink(i) : null;
+            if ((text.length() > 0) &&
+                    ((line.getOffset(i) != startOffset + text.length()) || (linkAtPosition != null))) {
+                candidateSentences.add(new CandidateSentence(line.getLineNo(), text.toString(), link, startOffset));
+                text.setLength(0);
+            }
+            if (text.length() == 0) {
+                startOffset = line.getOffset(i);
+                link = linkAtPosition;
+            }
+            text.append(line.rawCharAt(i));
+        }
+        if (text.length() > 0) {
+            candidateSentences.add(new CandidateSentence(line.getLineNo(), text.toString(), link, startOffset));
+        }
+    }
+}
@@ -0,0 +1,807 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.model.Document;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.PreprocessingReader;
+import cc.redpen.parser.SentenceExtractor;
+import cc.redpen.parser.SuppressCommentRecognizer;
+import cc.redpen.parser.common.Line;
+import cc.redpen.parser.common.LineParser;
+import cc.redpen.parser.common.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static cc.redpen.parser.ParserUtils.addChild;
+
+/**
+ * Erasing parser for the Markdown format, built on the same line model as the AsciiDoc and Re:VIEW parsers.
+ * <p>
+ * Unlike the pegdown based MarkdownParser, this parser processes a CommonMark subset (headers, paragraphs,
+ * lists, block quotes, code blocks, html blocks, tables, emphasis, code spans, links and images) in time
+ * linear to the size of the input, so it never times out on large or malformed documents. The markup is
+ * erased from the model, and the remaining text is converted to the same Document as MarkdownParser generates.
+ */
+public class CommonMarkParser extends LineParser {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommonMarkParser.class);
+
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('<', "^ *<!-- *@suppress (.*)-->");
+
+    private static final Pattern HORIZONTAL_RULE_PATTERN = Pattern.compile("^ {0,3}([-*_])( *\\1){2,} *$");
+    private static final Pattern SETEXT_UNDERLINE_PATTERN = Pattern.compile("^ {0,3}(=+|-+) *$");
+    private static final Pattern TABLE_SEPARATOR_PATTERN =
+            Pattern.compile("^ *\\|? *:?-+:? *(\\| *:?-+:? *)*\\|? *$");
+    private static final Pattern REFERENCE_DEFINITION_PATTERN = Pattern.compile("^ {0,3}\\[[^\\]]+\\]:.*");
+
+    private static final String[] AUTOLINK_SCHEMES = {
+            "http://",
+            "https://",
+            "ftp://",
+    };
+
+    /**
+     * Html tags which start an html block
+     */
+    private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList(
+            "address", "blockquote", "center", "dd", "details", "dir", "div", "dl", "dt", "fieldset", "figure",
+            "footer", "form", "frameset", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "iframe", "li",
+            "menu", "noframes", "noscript", "ol", "p", "pre", "script", "section", "style", "table", "tbody",
+            "td", "tfoot", "th", "thead", "tr", "ul"));
+
+    /**
+     * An open list item
+     */
+    private static class ListItem {
+        // column of the list marker
+        public int markerIndent;
+        // column of the item text
+        public int contentIndent;
+        // bullet character, or the delimiter of an ordered list marker
+        public char markerType;
+
+        public ListItem(int markerIndent, int contentIndent, char markerType) {
+            this.markerIndent = markerIndent;
+            this.contentIndent = contentIndent;
+            this.markerType = markerType;
+        }
+    }
+
+    /**
+     * The label of an inline link
+     */
+    private static class LinkLabel {
+        public int start;
+        public int end;
+        public String url;
+
+        public LinkLabel(int start, int end, String url) {
+            this.start = start;
+            this.end = end;
+            this.url = url;
+        }
+    }
+
+    /**
+     * current parser state
+     */
+    private class State {
+        // are we in a fenced code block?
+        public boolean inFence = false;
+        // the character and length of the fence
+        public char fenceMarker = 0;
+        public int fenceLength = 0;
+        // are we in an html block or a multi-line html comment?
+        public boolean inHtmlBlock = false;
+        public boolean inComment = false;
+        // are we in a block quote or a table?
+        public boolean inBlockQuote = false;
+        public boolean inTable = false;
+        // was the previous line a blank line?
+        public boolean afterBlank = true;
+        // the last line of the current paragraph, or null if we are not in a paragraph
+        public Line paragraphLine = null;
+        // the open list items
+        public Deque<ListItem> listItems = new ArrayDeque<>();
+    }
+
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
+    @Override
+    protected Model createModel(SentenceExtractor sentenceExtractor) {
+        return new CommonMarkModel(sentenceExtractor);
+    }
+
+    @Override
+    protected void populateModel(Model model, InputStream io) {
+        PreprocessingReader reader = createReader(io);
+
+        int lineno = 0;
+        try {
+            // add the lines to the model
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                lineno++;
+                model.add(new CommonMarkLine(line, lineno));
+            }
+            reader.close();
+
+            model.setPreprocessorRules(reader.getPreprocessorRules());
+
+            // process each line of the model
+            State state = new State();
+            for (model.rewind(); model.isMore(); model.getNextLine()) {
+                processLine((CommonMarkLine) model.getCurrentLine(), model, state);
+            }
+        } catch (Exception e) {
+            LOG.error("Exception when parsing Markdown file", e);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Markdown parser model (X=erased line,[=block,section-listlevel-lineno,*=list item):\n" + model.toString());
+        }
+    }
+
+    /**
+     * Convert the model to the RedPen document model. Every list gets its own list block, and
+     * sections are nested under the preceding sections of lower levels.
+     *
+     * @param model   model to convert
+     * @param builder doc builder
+     */
+    @Override
+    protected void convertModel(Model model, Document.DocumentBuilder builder) {
+        model.rewind();
+        while (model.isMore()) {
+            CommonMarkLine line = (CommonMarkLine) model.getCurrentLine();
+            if (isBlockBoundary(line)) {
+                model.getNextLine();
+            }
+            // check for new sections
+            else if (line.getSectionLevel() > 0) {
+                List<Sentence> headerContents = model.convertToSentences(line);
+                if (!headerContents.isEmpty()) {
+                    headerContents.get(0).setIsFirstSentence(true);
+                }
+                Section currentSection = builder.getLastSection();
+                builder.appendSection(new Section(line.getSectionLevel(), headerContents));
+                addChild(currentSection, builder.getLastSection());
+                model.getNextLine();
+            }
+            // check for a list item
+            else if (line.isListStart()) {
+                if (builder.getLastSection() == null) {
+                    List<Sentence> headers = new ArrayList<>();
+                    headers.add(new Sentence("", 0));
+                    builder.appendSection(new Section(0, headers));
+                }
+                if (line.isNewList()) {
+                    builder.addListBlock();
+                }
+                List<Line> listElementLines = new ArrayList<>();
+                int listLevel = line.getListLevel();
+                listElementLines.add(line);
+                model.getNextLine();
+                while (model.isMore() &&
+                        !isBlockBoundary(model.getCurrentLine()) &&
+                        !model.getCurrentLine().isListStart() &&
+                        (model.getCurrentLine().getSectionLevel() == 0) &&
+                        (model.getCurrentLine().getListLevel() == listLevel)) {
+                    listElementLines.add(model.getCurrentLine());
+                    model.getNextLine();
+                }
+                List<Sentence> sentences = model.convertToSentences(listElementLines);
+                if (!sentences.isEmpty()) {
+                    builder.addListElement(listLevel, sentences);
+                }
+            }
+            // process a paragraph
+            else {
+                List<Line> paragraphLines = new ArrayList<>();
+                while (model.isMore() &&
+                        !isBlockBoundary(model.getCurrentLine()) &&
+                        !model.getCurrentLine().isListStart() &&
+                        (model.getCurrentLine().getSectionLevel() == 0)) {
+                    paragraphLines.add(model.getCurrentLine());
+                    model.getNextLine();
+                }
+                builder.addParagraph();
+                model.convertToSentences(paragraphLines).forEach(builder::addSentence);
+            }
+        }
+    }
+
+    /**
+     * Is the line a blank line or a line erased as a whole (ie: a line which separates blocks)?
+     */
+    private boolean isBlockBoundary(Line line) {
+        return line.isErased() || line.getText().trim().isEmpty();
+    }
+
+    /**
+     * Process the current line, erasing the markdown markup and setting the current state
+     *
+     * @param line  line to process
+     * @param model the model
+     * @param state the current state
+     */
+    private void processLine(CommonMarkLine line, Model model, State state) {
+        String text = line.getText();
+        int indentLength = 0;
+        int indent = 0;
+        while ((indentLength < text.length()) && ((text.charAt(indentLength) == ' ') || (text.charAt(indentLength) == '\t'))) {
+            indent = (text.charAt(indentLength) == '\t') ? (indent / 4 + 1) * 4 : indent + 1;
+            indentLength++;
+        }
+        char firstChar = (indentLength < text.length()) ? text.charAt(indentLength) : 0;
+
+        // fenced code blocks and multi-line html comments
+        if (state.inFence) {
+            line.erase();
+            if ((firstChar == state.fenceMarker) && (countRepeat(text, indentLength, firstChar) >= state.fenceLength) &&
+                    text.substring(indentLength).trim().length() == countRepeat(text, indentLength, firstChar)) {
+                state.inFence = false;
+            }
+            return;
+        }
+        if (state.inComment) {
+            line.erase();
+            if (text.contains("-->")) {
+                state.inComment = false;
+            }
+            return;
+        }
+
+        // a blank line ends most blocks
+        if (firstChar == 0) {
+            state.inHtmlBlock = false;
+            state.inBlockQuote = false;
+            state.inTable = false;
+            state.paragraphLine = null;
+            state.afterBlank = true;
+            return;
+        }
+        boolean afterBlank = state.afterBlank;
+        state.afterBlank = false;
+        Line paragraphLine = state.paragraphLine;
+        state.paragraphLine = null;
+
+        if (state.inHtmlBlock || state.inBlockQuote) {
+            // html blocks and lazy block quote lines continue up to a blank line
+            line.erase();
+            return;
+        }
+
+        // a line after a blank line which is not indented to the list item's text closes the list
+        if (afterBlank && !state.listItems.isEmpty() && (indent < state.listItems.peek().contentIndent) &&
+                !isListItem(text, indentLength)) {
+            state.listItems.clear();
+        }
+        int blockIndent = state.listItems.isEmpty() ? 0 : state.listItems.peek().contentIndent;
+
+        // fenced code block start
+        if (((firstChar == '`') || (firstChar == '~')) && (indent <= blockIndent + 3) &&
+                (countRepeat(text, indentLength, firstChar) >= 3)) {
+            state.inFence = true;
+            state.fenceMarker = firstChar;
+            state.fenceLength = countRepeat(text, indentLength, firstChar);
+            line.setInBlock(true);
+            line.erase();
+            return;
+        }
+
+        // indented code block
+        if ((indent >= blockIndent + 4) && (paragraphLine == null) &&
+                (state.listItems.isEmpty() || afterBlank)) {
+            line.setInBlock(true);
+            line.erase();
+            return;
+        }
+
+        // block quote
+        if ((firstChar == '>') && (indent <= blockIndent + 3)) {
+            state.inBlockQuote = true;
+            line.erase();
+            return;
+        }
+
+        // html blocks and comments
+        if ((firstChar == '<') && (indent <= 3) && isHtmlBlockStart(text, indentLength)) {
+            line.erase();
+            if (text.startsWith("<!--", indentLength)) {
+                state.inComment = !text.contains("-->");
+            } else {
+                state.inHtmlBlock = true;
+            }
+            return;
+        }
+
+        // setext heading: underline of the previous paragraph line
+        if ((paragraphLine != null) && SETEXT_UNDERLINE_PATTERN.matcher(text).matches()) {
+            paragraphLine.setSectionLevel(firstChar == '=' ? 1 : 2);
+            line.erase();
+            return;
+        }
+
+        // horizontal rule
+        if (HORIZONTAL_RULE_PATTERN.matcher(text).matches()) {
+            state.listItems.clear();
+            line.erase();
+            return;
+        }
+
+        // ATX heading
+        if ((firstChar == '#') && (indent <= 3)) {
+            processHeading(line, indentLength);
+            state.listItems.clear();
+            return;
+        }
+
+        // tables
+        if (text.indexOf('|') != -1) {
+            if (!state.inTable && (paragraphLine == null) &&
+                    (TABLE_SEPARATOR_PATTERN.matcher(text).matches() ||
+                            isTableSeparator(model.getLine(line.getLineNo() + 1).getText()))) {
+                state.inTable = true;
+            }
+            if (state.inTable) {
+                line.erase();
+                return;
+            }
+        }
+
+        // reference definitions
+        if ((paragraphLine == null) && REFERENCE_DEFINITION_PATTERN.matcher(text).matches()) {
+            line.erase();
+            return;
+        }
+
+        // list items (a list can not interrupt a paragraph)
+        if (((paragraphLine == null) || !state.listItems.isEmpty()) && isListItem(text, indentLength)) {
+            processListItem(line, indent, indentLength, state);
+            eraseInlineMarkup(line);
+            return;
+        }
+
+        // paragraph text
+        line.erase(0, indentLength);
+        if (!state.listItems.isEmpty() && !afterBlank) {
+            // continuation of the list item text
+            line.setListLevel(state.listItems.size());
+        } else {
+            state.paragraphLine = line;
+        }
+        eraseInlineMarkup(line);
+    }
+
+    private int countRepeat(String text, int start, char ch) {
+        int count = 0;
+        while ((start + count < text.length()) && (text.charAt(start + count) == ch)) {
+            count++;
+        }
+        return count;
+    }
+
+    private boolean isTableSeparator(String text) {
+        return (text.indexOf('|') != -1) && TABLE_SEPARATOR_PATTERN.matcher(text).matches();
+    }
+
+    private boolean isHtmlBlockStart(String text, int start) {
+        if (text.startsWith("<!--", start)) {
+            return true;
+        }
+        int pos = start + 1;
+        if ((pos < text.length()) && (text.charAt(pos) == '/')) {
+            pos++;
+        }
+        int nameStart = pos;
+        while ((pos < text.length()) && Character.isLetterOrDigit(text.charAt(pos))) {
+            pos++;
+        }
+        if ((pos == text.length()) || (" \t>/".indexOf(text.charAt(pos)) == -1)) {
+            return false;
+        }
+        return BLOCK_TAGS.contains(text.substring(nameStart, pos).toLowerCase());
+    }
+
+    /**
+     * Return the length of the list marker at the given position, or zero if there is no list marker
+     */
+    private int listMarkerLength(String text, int start) {
+        if (start >= text.length()) {
+            return 0;
+        }
+        int pos = start;
+        char ch = text.charAt(pos);
+        if ((ch == '*') || (ch == '-') || (ch == '+')) {
+            pos++;
+        } else {
+            while ((pos < text.length()) && (pos - start < 9) && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if ((pos == start) || (pos == text.length()) || ((text.charAt(pos) != '.') && (text.charAt(pos) != ')'))) {
+                return 0;
+            }
+            pos++;
+        }
+        if ((pos < text.length()) && (text.charAt(pos) != ' ') && (text.charAt(pos) != '\t')) {
+            return 0;
+        }
+        return pos - start;
+    }
+
+    private boolean isListItem(String text, int start) {
+        return listMarkerLength(text, start) > 0;
+    }
+
+    /**
+     * Set the list level of a list item, erasing its marker
+     */
+    private void processListItem(CommonMarkLine line, int indent, int indentLength, State state) {
+        String text = line.getText();
+        int markerEnd = indentLength + listMarkerLength(text, indentLength);
+        int contentStart = markerEnd;
+        while ((contentStart < text.length()) && Character.isWhitespace(text.charAt(contentStart))) {
+            contentStart++;
+        }
+        int contentIndent = indent + (markerEnd - indentLength) + Math.max(1, Math.min(contentStart - markerEnd, 4));
+
+        char markerType = text.charAt(markerEnd - 1);
+        boolean newList = state.listItems.isEmpty();
+        // close the items which are not parents of this item
+        while (!state.listItems.isEmpty() && (indent < state.listItems.peek().contentIndent)) {
+            ListItem item = state.listItems.pop();
+            if (indent >= item.markerIndent) {
+                // a sibling with a different type of marker starts a new list
+                newList = state.listItems.isEmpty() && (item.markerType != markerType);
+                break;
+            }
+        }
+        line.setNewList(newList);
+        state.listItems.push(new ListItem(indent, contentIndent, markerType));
+
+        line.setListStart(true);
+        line.setListLevel(state.listItems.size());
+        line.erase(0, contentStart);
+    }
+
+    /**
+     * Erase the markup of an ATX heading and set its section level
+     */
+    private void processHeading(Line line, int indentLength) {
+        String text = lineCharacters(line);
+        int level = countRepeat(text, indentLength, '#');
+        if (level > 6) {
+            line.erase(0, indentLength);
+            eraseInlineMarkup((CommonMarkLine) line);
+            return;
+        }
+        int contentStart = indentLength + level;
+        while ((contentStart < text.length()) && Character.isWhitespace(text.charAt(contentStart))) {
+            contentStart++;
+        }
+        // trailing spaces and closing sequence
+        int contentEnd = text.length();
+        while ((contentEnd > contentStart) && Character.isWhitespace(text.charAt(contentEnd - 1))) {
+            contentEnd--;
+        }
+        int closingStart = contentEnd;
+        while ((closingStart > contentStart) && (text.charAt(closingStart - 1) == '#')) {
+            closingStart--;
+        }
+        if ((closingStart == contentStart) || Character.isWhitespace(text.charAt(closingStart - 1))) {
+            contentEnd = closingStart;
+            while ((contentEnd > contentStart) && Character.isWhitespace(text.charAt(contentEnd - 1))) {
+                contentEnd--;
+            }
+        }
+        line.erase(0, contentStart);
+        line.erase(contentEnd, text.length() - contentEnd);
+        line.setSectionLevel(level);
+        eraseInlineMarkup((CommonMarkLine) line);
+    }
+
+    /**
+     * Erase the inline markup (code spans, links, images, html tags and emphasis) of a line.
+     * Each pass scans the line once, so the cost is linear to the length of the line.
+     *
+     * @param line line to process
+     */
+    private void eraseInlineMarkup(CommonMarkLine line) {
+        boolean[] inCode = eraseCodeSpans(line);
+        List<LinkLabel> labels = eraseLinks(line, inCode);
+        eraseEmphasis(line, inCode);
+        // the links start at the first character of their labels left after erasing the emphasis
+        for (LinkLabel label : labels) {
+            int labelStart = firstValidPosition(line, label.start, label.end);
+            if (labelStart != -1) {
+                line.addLink(labelStart, label.url);
+            }
+        }
+    }
+
+    /**
+     * Erase the backtick strings of code spans
+     *
+     * @return flags of the characters inside code spans
+     */
+    private boolean[] eraseCodeSpans(CommonMarkLine line) {
+        boolean[] inCode = new boolean[line.length()];
+
+        // queue the positions of the backtick strings by their length
+        List<int[]> runs = new ArrayList<>();
+        Map<Integer, Deque<Integer>> runsByLength = new HashMap<>();
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '`') {
+                int start = i;
+                while (line.charAt(i + 1) == '`') {
+                    i++;
+                }
+                int length = i - start + 1;
+                runsByLength.computeIfAbsent(length, k -> new ArrayDeque<>()).add(runs.size());
+                runs.add(new int[]{start, length});
+            }
+        }
+
+        // a code span ends with the next backtick string of the same length
+        for (int r = 0; r < runs.size(); r++) {
+            int[] open = runs.get(r);
+            Deque<Integer> candidates = runsByLength.get(open[1]);
+            while (!candidates.isEmpty() && (candidates.peek() <= r)) {
+                candidates.poll();
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            int closeIndex = candidates.poll();
+            int[] close = runs.get(closeIndex);
+            line.erase(open[0], open[1]);
+            line.erase(close[0], close[1]);
+            Arrays.fill(inCode, open[0], close[0] + close[1], true);
+            r = closeIndex;
+        }
+        return inCode;
+    }
+
+    /**
+     * Erase the markup of links, images, autolinks and inline html, remembering the link urls
+     *
+     * @return the labels of the inline links
+     */
+    private List<LinkLabel> eraseLinks(CommonMarkLine line, boolean[] inCode) {
+        List<LinkLabel> labels = new ArrayList<>();
+        int length = line.length();
+        // positions of the next closing characters, to avoid rescanning the line
+        int[] nextParenthesis = nextPositions(line, inCode, ')');
+        int[] nextBracket = nextPositions(line, inCode, ']');
+        int[] nextAngle = nextPositions(line, inCode, '>');
+
+        Deque<Integer> openers = new ArrayDeque<>();
+        Deque<Boolean> imageOpeners = new ArrayDeque<>();
+        for (int i = 0; i < length; i++) {
+            if (inCode[i]) {
+                continue;
+            }
+            char ch = line.charAt(i);
+            if ((ch == '!') && (line.charAt(i + 1) == '[') && !inCode[i + 1]) {
+                openers.push(i);
+                imageOpeners.push(true);
+                i++;
+            } else if (ch == '[') {
+                openers.push(i);
+                imageOpeners.push(false);
+            } else if ((ch == ']') && !openers.isEmpty()) {
+                int open = openers.pop();
+                boolean image = imageOpeners.pop();
+                int end = i;
+                String url = null;
+                if ((line.charAt(i + 1) == '(') && (nextParenthesis[i + 1] != -1)) {
+                    end = nextParenthesis[i + 1];
+                    url = destination(line, i + 2, end);
+                } else if ((line.charAt(i + 1) == '[') && (nextBracket[i + 1] != -1)) {
+                    // reference link, the references are not resolved as in MarkdownParser
+                    end = nextBracket[i + 1];
+                }
+                if (image) {
+                    line.erase(open, end + 1 - open);
+                } else {
+                    if ((url != null) && !url.isEmpty()) {
+                        labels.add(new LinkLabel(open + 1, i, url));
+                    }
+                    line.erase(open, 1);
+                    line.erase(i, end + 1 - i);
+                }
+                i = end;
+            } else if ((ch == '<') && (nextAngle[i] != -1)) {
+                int end = nextAngle[i];
+                String url = rawText(line, i + 1, end);
+                if (isAutolink(url)) {
+                    line.addLink(i + 1, url);
+                    line.erase(i, 1);
+                    line.erase(end, 1);
+                    i = end;
+                } else if (isInlineTag(line.charAt(i + 1))) {
+                    line.erase(i, end + 1 - i);
+                    i = end;
+                }
+            } else if (isAutolinkStart(line, i)) {
+                int end = i;
+                while ((end < length) && line.isValid(end) && !Character.isWhitespace(line.rawCharAt(end)) &&
+                        (line.rawCharAt(end) != '<')) {
+                    end++;
+                }
+                while ((end > i) && (".,:;!?)\"'".indexOf(line.rawCharAt(end - 1)) != -1)) {
+                    end--;
+                }
+                line.addLink(i, rawText(line, i, end));
+                i = end - 1;
+            }
+        }
+        return labels;
+    }
+
+    private int[] nextPositions(Line line, boolean[] inCode, char ch) {
+        int[] next = new int[line.length() + 1];
+        next[line.length()] = -1;
+        for (int i = line.length() - 1; i >= 0; i--) {
+            next[i] = (!inCode[i] && (line.charAt(i) == ch)) ? i : next[i + 1];
+        }
+        return next;
+    }
+
+    private int firstValidPosition(Line line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.isValid(i) && !Character.isWhitespace(line.rawCharAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the characters of the line with the escaped characters masked, so that positions
+     * in the returned string are positions in the line
+     */
+    private String lineCharacters(Line line) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            sb.append(line.charAt(i, true));
+        }
+        return sb.toString();
+    }
+
+    private String rawText(Line line, int start, int end) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            sb.append(line.rawCharAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Extract the url of a link destination, dropping the optional title
+     */
+    private String destination(Line line, int start, int end) {
+        String destination = rawText(line, start, end).trim();
+        int titleStart = 0;
+        while ((titleStart < destination.length()) && !Character.isWhitespace(destination.charAt(titleStart))) {
+            titleStart++;
+        }
+        destination = destination.substring(0, titleStart);
+        if (destination.startsWith("<") && destination.endsWith(">")) {
+            destination = destination.substring(1, destination.length() - 1);
+        }
+        return destination;
+    }
+
+    private boolean isAutolink(String text) {
+        if (text.isEmpty() || (text.indexOf(' ') != -1)) {
+            return false;
+        }
+        for (String scheme : AUTOLINK_SCHEMES) {
+            if (text.startsWith(scheme)) {
+                return true;
+            }
+        }
+        return text.startsWith("mailto:");
+    }
+
+    private boolean isInlineTag(char ch) {
+        return Character.isLetter(ch) || (ch == '/') || (ch == '!') || (ch == '?');
+    }
+
+    private boolean isAutolinkStart(Line line, int pos) {
+        char ch = line.charAt(pos);
+        if ((ch != 'h') && (ch != 'f')) {
+            return false;
+        }
+        if ((pos > 0) && Character.isLetterOrDigit(line.charAt(pos - 1))) {
+            return false;
+        }
+        for (String scheme : AUTOLINK_SCHEMES) {
+            if (scheme.equals(rawText(line, pos, pos + scheme.length()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Erase the delimiters of emphasis and strong emphasis. A delimiter string closes the
+     * nearest open delimiter string of the same character and length.
+     */
+    private void eraseEmphasis(CommonMarkLine line, boolean[] inCode) {
+        // open delimiters by character ('*' or '_') and length (1 to 3)
+        List<Deque<Integer>> openers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            openers.add(new ArrayDeque<>());
+        }
+
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (inCode[i] || ((ch != '*') && (ch != '_'))) {
+                continue;
+            }
+            int start = i;
+            while ((line.charAt(i + 1) == ch) && !inCode[i + 1]) {
+                i++;
+            }
+            int length = i - start + 1;
+            if (length > 3) {
+                continue;
+            }
+            char before = (start > 0) ? line.charAt(start - 1) : 0;
+            char after = line.charAt(i + 1);
+            boolean canOpen = (after != 0) && !Character.isWhitespace(after);
+            boolean canClose = (before != 0) && !Character.isWhitespace(before);
+            if (ch == '_') {
+                // no intraword emphasis with underscores
+                canOpen = canOpen && !Character.isLetterOrDigit(before);
+                canClose = canClose && !Character.isLetterOrDigit(after);
+            }
+
+            Deque<Integer> delimiters = openers.get((ch == '*' ? 0 : 3) + length - 1);
+            if (canClose && !delimiters.isEmpty()) {
+                line.erase(delimiters.pop(), length);
+                line.erase(start, length);
+            } else if (canOpen) {
+                delimiters.push(start);
+            }
+        }
+    }
+}
@@ -17,7 +17,10 @@
  */
 package cc.redpen.parser.markdown;
 
+import cc.redpen.model.Sentence;
 import cc.redpen.parser.LineOffset;
+import cc.redpen.parser.SentenceExtractor;
+import cc.redpen.util.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +71,30 @@ public class MergedCandidateSentence {
         return Optional.of(new MergedCandidateSentence(lineNum, contents.toString(), links, offsetMap));
     }
 
+    /**
+     * Split the merged contents into sentences.
+     *
+     * @param sentenceExtractor utility object to extract a sentence list
+     * @return extracted sentences
+     */
+    public List<Sentence> extractSentences(SentenceExtractor sentenceExtractor) {
+        List<Sentence> outputSentences = new ArrayList<>();
+        List<Pair<Integer, Integer>> sentencePositions = new ArrayList<>();
+        int lastPosition = sentenceExtractor.extract(contents, sentencePositions);
+
+        for (Pair<Integer, Integer> sentencePosition : sentencePositions) {
+            List<LineOffset> sentenceOffsets = offsetMap.subList(sentencePosition.first, sentencePosition.second);
+            outputSentences.add(new Sentence(contents.substring(sentencePosition.first, sentencePosition.second),
+                    sentenceOffsets, getRangedLinks(sentencePosition.first, sentencePosition.second - 1)));
+        }
+        if (lastPosition < contents.length()) {
+            List<LineOffset> sentenceOffsets = offsetMap.subList(lastPosition, contents.length());
+            outputSentences.add(new Sentence(contents.substring(lastPosition, contents.length()),
+                    sentenceOffsets, getRangedLinks(lastPosition, contents.length())));
+        }
+        return outputSentences;
+    }
+
     public List<String> getRangedLinks(int startPosition, int endPosition) {
         if (startPosition >= offsetMap.size() || endPosition >= offsetMap.size()) {
             return new ArrayList<>();
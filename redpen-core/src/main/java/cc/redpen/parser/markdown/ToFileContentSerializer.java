@@ -21,9 +21,7 @@ import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
 import cc.redpen.model.Section;
 import cc.redpen.model.Sentence;
-import cc.redpen.parser.LineOffset;
 import cc.redpen.parser.SentenceExtractor;
-import cc.redpen.util.Pair;
 import org.parboiled.common.StringUtils;
 import org.pegdown.Printer;
 import org.pegdown.ast.*;
@@ -49,7 +47,8 @@ public class ToFileContentSerializer implements Visitor {
     private Document.DocumentBuilder builder = null;
     private SentenceExtractor sentenceExtractor;
     private int itemDepth = 0;
-    private List<Integer> lineList = null;
+    // cumulative character counts at the end of each line, in ascending order
+    private int[] lineEnds = null;
     // TODO multi period character not supported
     private List<CandidateSentence> candidateSentences = new ArrayList<>();
     private Printer printer = new Printer();
@@ -57,15 +56,15 @@ public class ToFileContentSerializer implements Visitor {
     /**
      * Constructor.
      *
-     * @param docBuilder       DocumentBuilder
-     * @param listOfLineNumber the list of line number
-     * @param extractor        utility object to extract a sentence list
+     * @param docBuilder DocumentBuilder
+     * @param lineEnds   the cumulative character count at the end of each line
+     * @param extractor  utility object to extract a sentence list
      */
     public ToFileContentSerializer(Document.DocumentBuilder docBuilder,
-                                   List<Integer> listOfLineNumber,
+                                   int[] lineEnds,
                                    SentenceExtractor extractor) {
         this.builder = docBuilder;
-        this.lineList = listOfLineNumber;
+        this.lineEnds = lineEnds;
         this.sentenceExtractor = extractor;
     }
 
@@ -113,22 +112,17 @@ public class ToFileContentSerializer implements Visitor {
     }
 
     private int getLineNumberFromStartIndex(int startIndex) {
-        int lineNum = 1;
-        // TODO test
-        for (int end : lineList) {
-            if (startIndex < end) {
-                break;
-            }
-            lineNum++;
-        }
-        return lineNum;
+        // the line number is one more than the number of lines ending at or before the index
+        int pos = Arrays.binarySearch(lineEnds, startIndex);
+        int endedLines = pos >= 0 ? pos + 1 : -pos - 1;
+        return endedLines + 1;
     }
 
     private int getLineStartIndex(int lineNumber) {
         if (lineNumber == 1) {
             return 0;
         } else {
-            return lineList.get(lineNumber-2);
+            return lineEnds[lineNumber - 2];
         }
     }
 
@@ -147,38 +141,12 @@ public class ToFileContentSerializer implements Visitor {
         Optional<MergedCandidateSentence> mergedCandidateSentence =
                 MergedCandidateSentence.merge(candidateSentences);
         mergedCandidateSentence.ifPresent(m ->
-            extractSentences(m, outputSentences)
+            outputSentences.addAll(m.extractSentences(sentenceExtractor))
         );
         candidateSentences.clear();
         return outputSentences;
     }
 
-    private List<Sentence> extractSentences(MergedCandidateSentence mergedCandidateSentence,
-            List<Sentence> outputSentences) {
-        List<Pair<Integer, Integer>> sentencePositions = new ArrayList<>();
-        final String line = mergedCandidateSentence.getContents();
-        int lastPosition = sentenceExtractor.extract(line , sentencePositions);
-
-        for (Pair<Integer, Integer> sentencePosition : sentencePositions) {
-            List<LineOffset> offsetMap =
-                    mergedCandidateSentence.getOffsetMap().subList(sentencePosition.first,
-                    sentencePosition.second);
-            outputSentences.add(new Sentence(line.substring(
-                    sentencePosition.first, sentencePosition.second), offsetMap,
-                    mergedCandidateSentence.getRangedLinks(sentencePosition.first, sentencePosition.second - 1)));
-        }
-        if (lastPosition < mergedCandidateSentence.getContents().length()) {
-            List<LineOffset> offsetMap = mergedCandidateSentence.getOffsetMap().subList(lastPosition,
-                    mergedCandidateSentence.getContents().length());
-            outputSentences.add(new Sentence(line.substring(
-                    lastPosition, mergedCandidateSentence.getContents().length()),
-                    offsetMap,
-                    mergedCandidateSentence.getRangedLinks(lastPosition,
-                            mergedCandidateSentence.getContents().length())));
-        }
-        return outputSentences;
-    }
-
     private void appendSection(HeaderNode headerNode) {
         // 1. remain sentence flush to current section
         fixSentence();
@@ -18,6 +18,7 @@
 package cc.redpen.parser.rest;
 
 import cc.redpen.parser.PreprocessingReader;
+import cc.redpen.parser.SuppressCommentRecognizer;
 import cc.redpen.parser.common.Line;
 import cc.redpen.parser.common.LineParser;
 import cc.redpen.parser.common.Model;
@@ -33,6 +34,9 @@ import static cc.redpen.parser.rest.MultiLineProcessUtils.processMultiLineMatch;
 public class ReSTParser extends LineParser {
     private static final Logger LOG = LoggerFactory.getLogger(ReSTParser.class);
 
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('.', "^[.][.] *@suppress\\S*(.*)", 3, false);
+
     static Pattern DIGIT_PATTERN = Pattern.compile("^\\s*[0-9#]+\\.");
     static Pattern NORMAL_TABLE_PATTERN = Pattern.compile("^[+][-+]+[+]$");
     static Pattern CSV_TABLE_PATTERN = Pattern.compile("^=+[= ]+=$");
@@ -56,6 +60,11 @@ public class ReSTParser extends LineParser {
         public String type;
     }
 
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
     @Override
     protected void populateModel(Model model, InputStream io) {
         State state = new State();
@@ -29,27 +29,9 @@ public class ReVIEWLine extends Line {
     public ReVIEWLine(String str, int lineno) {
         super(str, lineno);
         this.inlineMarkupDelimiters = "";
-        if (!str.isEmpty()) {
-            for (int i = 0; i < str.length(); i++) {
-                char ch = str.charAt(i);
-                if ((i < str.length() - 1) && (ch == '\\')) {
-                    i++;
-                    ch = str.charAt(i);
-                    escaped.add(true);
-                }
-                else {
-                    escaped.add(false);
-                }
-                offsets.add(i);
-                characters.add(ch);
-                valid.add(true);
-            }
-        }
+        mapCharacters(null);
 
         // trim the end
-        while (!characters.isEmpty() &&
-                Character.isWhitespace(characters.get(characters.size() - 1))) {
-            characters.remove(characters.size() - 1);
-        }
+        trimEnd();
     }
 }
@@ -18,6 +18,7 @@
 package cc.redpen.parser.review;
 
 import cc.redpen.parser.PreprocessingReader;
+import cc.redpen.parser.SuppressCommentRecognizer;
 import cc.redpen.parser.common.Line;
 import cc.redpen.parser.common.LineParser;
 import cc.redpen.parser.common.Model;
@@ -34,6 +35,9 @@ import java.util.regex.Pattern;
 public class ReVIEWParser extends LineParser {
     private static final Logger LOG = LoggerFactory.getLogger(ReVIEWParser.class);
 
+    private static final SuppressCommentRecognizer SUPPRESS_COMMENT =
+            new SuppressCommentRecognizer('#', "^#@# *@suppress\\S*(.*)");
+
     /**
      * current parser state
      */
@@ -56,6 +60,11 @@ public class ReVIEWParser extends LineParser {
 
     static Pattern DIGIT_PATTERN = Pattern.compile("^\\s+[0-9]+\\.");
 
+    @Override
+    public SuppressCommentRecognizer getSuppressCommentRecognizer() {
+        return SUPPRESS_COMMENT;
+    }
+
     protected void populateModel(Model model, InputStream io) {
         State state = new State();
         PreprocessingReader reader = createReader(io);
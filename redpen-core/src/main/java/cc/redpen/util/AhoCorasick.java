@@ -0,0 +1,205 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton finding all the occurrences of a set of patterns in a single pass over the text.
+ * <p>
+ * The automaton is immutable once compiled and can be shared by the validators in every thread.
+ */
+public final class AhoCorasick {
+    private static final CompiledDictionaryCache<AhoCorasick> SHARED = new CompiledDictionaryCache<>(64);
+
+    private final String[] patterns;
+    // transitions of node n are arcs first[n] to first[n + 1] - 1, sorted by label
+    private final int[] first;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] failure;
+    // index of the pattern ending at the node, or -1
+    private final int[] output;
+    // nearest node on the failure chain where a pattern ends, or 0
+    private final int[] nextOutput;
+
+    /**
+     * Receives the matches of the patterns.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param start   start position of the match in the text
+         * @param end     end position (exclusive) of the match in the text
+         * @param pattern matched pattern
+         */
+        void match(int start, int end, String pattern);
+    }
+
+    /**
+     * Compile the automaton of the given patterns. Empty patterns are ignored.
+     *
+     * @param patterns patterns to find
+     * @return compiled automaton
+     */
+    public static AhoCorasick compile(Collection<String> patterns) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(patterns));
+        distinct.remove("");
+
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(-1);
+        for (int i = 0; i < distinct.size(); i++) {
+            String pattern = distinct.get(i);
+            int node = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer child = children.get(node).get(pattern.charAt(j));
+                if (child == null) {
+                    child = children.size();
+                    children.get(node).put(pattern.charAt(j), child);
+                    children.add(new TreeMap<>());
+                    ends.add(-1);
+                }
+                node = child;
+            }
+            ends.set(node, i);
+        }
+        return new AhoCorasick(distinct.toArray(new String[0]), children, ends);
+    }
+
+    /**
+     * Get the automaton of the patterns in the given dictionaries and extra patterns. The automaton is compiled
+     * once and shared while the same dictionaries are requested, which makes it cheap to get when validators are
+     * initialized.
+     *
+     * @param dictionaries read-only dictionaries shared in the process, compared by identity
+     * @param patterns     additional patterns, compared by value
+     * @return compiled automaton
+     */
+    public static AhoCorasick shared(List<? extends Collection<String>> dictionaries, Collection<String> patterns) {
+        return SHARED.get(dictionaries, patterns, AhoCorasick::compile);
+    }
+
+    private AhoCorasick(String[] patterns, List<TreeMap<Character, Integer>> children, List<Integer> ends) {
+        int nodes = children.size();
+        this.patterns = patterns;
+        this.first = new int[nodes + 1];
+        this.labels = new char[nodes - 1];
+        this.targets = new int[nodes - 1];
+        this.failure = new int[nodes];
+        this.output = new int[nodes];
+        this.nextOutput = new int[nodes];
+
+        int arc = 0;
+        for (int node = 0; node < nodes; node++) {
+            first[node] = arc;
+            output[node] = ends.get(node);
+            for (Map.Entry<Character, Integer> child : children.get(node).entrySet()) {
+                labels[arc] = child.getKey();
+                targets[arc] = child.getValue();
+                arc++;
+            }
+        }
+        first[nodes] = arc;
+
+        // failure links in breadth first order, so the links of shallower nodes are known
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int i = first[0]; i < first[1]; i++) {
+            queue.add(targets[i]);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            for (int i = first[node]; i < first[node + 1]; i++) {
+                int child = targets[i];
+                int state = failure[node];
+                int next;
+                while ((next = transition(state, labels[i])) < 0 && state != 0) {
+                    state = failure[state];
+                }
+                failure[child] = Math.max(next, 0);
+                nextOutput[child] = output[failure[child]] >= 0 ? failure[child] : nextOutput[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int transition(int node, char c) {
+        int low = first[node];
+        int high = first[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return targets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find all the occurrences of the patterns in the text, including overlapping ones. Matches are reported in
+     * the order of their end positions, longer ones first.
+     *
+     * @param text     text to search
+     * @param listener receives the matches
+     */
+    public void forEachMatch(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+            for (int node = output[state] >= 0 ? state : nextOutput[state]; node != 0; node = nextOutput[node]) {
+                String pattern = patterns[output[node]];
+                listener.match(i + 1 - pattern.length(), i + 1, pattern);
+            }
+        }
+    }
+
+    /**
+     * @param text text to search
+     * @return true when the text contains any of the patterns
+     */
+    public boolean containsAny(CharSequence text) {
+        boolean[] found = new boolean[1];
+        forEachMatch(text, (start, end, pattern) -> found[0] = true);
+        return found[0];
+    }
+
+    /**
+     * @return number of distinct patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+}
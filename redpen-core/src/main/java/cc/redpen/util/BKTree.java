@@ -0,0 +1,124 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * BK-tree, a metric index finding the elements within a distance of a query without comparing it with every
+ * element.
+ * <p>
+ * Each child of a node is keyed by its distance to the node, and by the triangle inequality only the children
+ * whose key is within the query bound of the distance to the node can hold results. The distance should be a
+ * metric, such as the {@link LevenshteinDistance} with the default costs.
+ *
+ * @param <E> type of the elements
+ */
+public class BKTree<E> {
+    private final ToIntBiFunction<E, E> distance;
+    private Node<E> root;
+    private int size;
+
+    /**
+     * @param distance metric between the elements
+     */
+    public BKTree(ToIntBiFunction<E, E> distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * Add an element to the tree. Elements at distance 0 from an existing one are not added.
+     *
+     * @param element element to add
+     * @return true when the element was added
+     */
+    public boolean add(E element) {
+        if (root == null) {
+            root = new Node<>(element, size++);
+            return true;
+        }
+        Node<E> node = root;
+        while (true) {
+            int d = distance.applyAsInt(node.element, element);
+            if (d == 0) {
+                return false;
+            }
+            Node<E> child = node.children.get(d);
+            if (child == null) {
+                node.children.put(d, new Node<>(element, size++));
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Find the elements within the given distance of the query.
+     *
+     * @param query       element to search
+     * @param maxDistance maximum distance of the results, inclusive
+     * @return matched elements in the order they were added
+     */
+    public List<E> search(E query, int maxDistance) {
+        List<Node<E>> found = new ArrayList<>();
+        if (root != null) {
+            List<Node<E>> stack = new ArrayList<>();
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                Node<E> node = stack.remove(stack.size() - 1);
+                int d = distance.applyAsInt(node.element, query);
+                if (d <= maxDistance) {
+                    found.add(node);
+                }
+                for (Map.Entry<Integer, Node<E>> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - d) <= maxDistance) {
+                        stack.add(child.getValue());
+                    }
+                }
+            }
+        }
+        found.sort((a, b) -> Integer.compare(a.order, b.order));
+        List<E> result = new ArrayList<>(found.size());
+        for (Node<E> node : found) {
+            result.add(node.element);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of elements in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    private static final class Node<E> {
+        private final E element;
+        private final int order;
+        private final Map<Integer, Node<E>> children = new HashMap<>(4);
+
+        Node(E element, int order) {
+            this.element = element;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of words queried in place on a precompiled binary dictionary.
+ * <p>
+ * The binary form holds the UTF-8 encoded words sorted by their bytes, preceded by a table of their offsets,
+ * so a lookup is a binary search over the buffer and the buffer can be memory mapped from the file:
+ * <pre>
+ * int magic, int version, int flags, int count, int[count + 1] offsets, byte[] words
+ * </pre>
+ */
+public final class BinaryWordSet extends AbstractSet<String> {
+    static final int MAGIC = 0x5250574c; // "RPWL"
+    static final int VERSION = 1;
+    /**
+     * Flag set when all the words are in lower case.
+     */
+    static final int LOWER_CASE = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int flags;
+    private final int count;
+    private final int wordsStart;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer buffer holding the binary dictionary
+     * @throws IOException when the buffer does not hold a binary dictionary
+     */
+    public BinaryWordSet(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a binary dictionary");
+        }
+        this.buffer = buffer;
+        this.flags = buffer.getInt(8);
+        this.count = buffer.getInt(12);
+        this.wordsStart = HEADER_SIZE + (count + 1) * 4;
+        if (count < 0 || wordsStart > buffer.limit() || wordsStart + offset(count) > buffer.limit()) {
+            throw new IOException("Broken binary dictionary");
+        }
+    }
+
+    /**
+     * @return true if all the words are in lower case
+     */
+    public boolean isLowerCase() {
+        return (flags & LOWER_CASE) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String && indexOf(((String) o).getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public String next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    private String get(int index) {
+        int start = offset(index);
+        byte[] bytes = new byte[offset(index + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(wordsStart + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int offset(int index) {
+        return buffer.getInt(HEADER_SIZE + index * 4);
+    }
+
+    private int indexOf(byte[] word) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, word);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(int index, byte[] word) {
+        int start = wordsStart + offset(index);
+        int length = wordsStart + offset(index + 1) - start;
+        int shorter = Math.min(length, word.length);
+        for (int i = 0; i < shorter; i++) {
+            int difference = (buffer.get(start + i) & 0xff) - (word[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - word.length;
+    }
+
+    /**
+     * Write the given words in the binary form.
+     *
+     * @param words words to write
+     * @param os    output stream
+     * @throws IOException when failed to write
+     */
+    public static void write(Collection<String> words, OutputStream os) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(words.size());
+        boolean lowerCase = true;
+        for (String word : words) {
+            encoded.add(word.getBytes(StandardCharsets.UTF_8));
+            lowerCase &= word.equals(word.toLowerCase(Locale.ROOT));
+        }
+        encoded.sort(BinaryWordSet::compare);
+        List<byte[]> unique = new ArrayList<>(encoded.size());
+        for (byte[] word : encoded) {
+            if (unique.isEmpty() || compare(unique.get(unique.size() - 1), word) != 0) {
+                unique.add(word);
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(lowerCase ? LOWER_CASE : 0);
+        out.writeInt(unique.size());
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] word : unique) {
+            offset += word.length;
+            out.writeInt(offset);
+        }
+        for (byte[] word : unique) {
+            out.write(word);
+        }
+        out.flush();
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int shorter = Math.min(a.length, b.length);
+        for (int i = 0; i < shorter; i++) {
+            int difference = (a[i] & 0xff) - (b[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of structures compiled from dictionaries shared in the process, such as {@link AhoCorasick}
+ * automata.
+ * <p>
+ * The dictionaries are compared by identity, so a reloaded dictionary gets a newly compiled structure, and the
+ * additional words given in the validator configuration are compared by value. The dictionaries are only weakly
+ * referenced, so a dictionary evicted from the {@link DictionaryRegistry} is not kept alive by its compiled
+ * structures, which are dropped once it is collected.
+ *
+ * @param <V> type of the compiled structure
+ */
+final class CompiledDictionaryCache<V> {
+    private final Map<Key, V> entries;
+
+    @SuppressWarnings("serial")
+    CompiledDictionaryCache(int capacity) {
+        this.entries = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the structure compiled from the given dictionaries and words, compiling it when not cached.
+     *
+     * @param dictionaries read-only dictionaries shared in the process
+     * @param words        additional words
+     * @param compiler     compiles all the words of the dictionaries and the additional words
+     * @return compiled structure
+     */
+    V get(List<? extends Collection<String>> dictionaries, Collection<String> words,
+          Function<List<String>, V> compiler) {
+        Key key = new Key(dictionaries, words);
+        V compiled;
+        synchronized (entries) {
+            entries.keySet().removeIf(Key::isCleared);
+            compiled = entries.get(key);
+        }
+        if (compiled == null) {
+            List<String> all = new ArrayList<>(words);
+            dictionaries.forEach(all::addAll);
+            compiled = compiler.apply(all);
+            synchronized (entries) {
+                entries.put(key, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    private static final class Key {
+        private final List<WeakReference<Object>> dictionaries;
+        private final Set<String> words;
+        private final int hash;
+
+        Key(List<? extends Collection<String>> dictionaries, Collection<String> words) {
+            this.dictionaries = new ArrayList<>(dictionaries.size());
+            this.words = new HashSet<>(words);
+            int hash = this.words.hashCode();
+            for (Object dictionary : dictionaries) {
+                this.dictionaries.add(new WeakReference<>(dictionary));
+                hash = 31 * hash + System.identityHashCode(dictionary);
+            }
+            this.hash = hash;
+        }
+
+        boolean isCleared() {
+            for (WeakReference<Object> dictionary : dictionaries) {
+                if (dictionary.get() == null) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            if (hash != key.hash || dictionaries.size() != key.dictionaries.size()) return false;
+            for (int i = 0; i < dictionaries.size(); i++) {
+                Object dictionary = dictionaries.get(i).get();
+                // a collected dictionary matches nothing, not even another collected one
+                if (dictionary == null || dictionary != key.dictionaries.get(i).get()) return false;
+            }
+            return words.equals(key.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles word list dictionaries into the binary form read by {@link WordListLoader}.
+ * <p>
+ * Run at build time with the resource directory followed by the dictionaries to compile, relative to it.
+ * Each dictionary gets a sibling holding its words, or its lower cased words for the dictionaries following
+ * the {@code --lower-case} option, as a {@link WordAutomaton} or a {@link BinaryWordSet}, whichever is smaller.
+ */
+public final class DictionaryCompiler {
+    private DictionaryCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DictionaryCompiler <resource directory> [<dictionary>...] [--lower-case <dictionary>...]");
+            System.exit(1);
+        }
+        File directory = new File(args[0]);
+        boolean lowerCase = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--lower-case")) {
+                lowerCase = true;
+            } else {
+                compile(new File(directory, args[i]), lowerCase);
+            }
+        }
+    }
+
+    /**
+     * Compile the given word list dictionary.
+     *
+     * @param dictionary text dictionary
+     * @param lowerCase  true to compile the lower cased words
+     * @throws IOException when failed to read the dictionary or to write the binary form
+     */
+    public static void compile(File dictionary, boolean lowerCase) throws IOException {
+        List<String> words = Files.readAllLines(dictionary.toPath(), StandardCharsets.UTF_8);
+        if (lowerCase) {
+            words = words.stream().map(String::toLowerCase).collect(Collectors.toList());
+        }
+        write(words, new File(dictionary.getPath() + (lowerCase ? WordListLoader.LOWER_CASE_SUFFIX : WordListLoader.WORDS_SUFFIX)));
+    }
+
+    private static void write(List<String> words, File file) throws IOException {
+        ByteArrayOutputStream automaton = new ByteArrayOutputStream();
+        WordAutomaton.write(words, automaton);
+        ByteArrayOutputStream sorted = new ByteArrayOutputStream();
+        BinaryWordSet.write(words, sorted);
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+            (automaton.size() < sorted.size() ? automaton : sorted).writeTo(os);
+        }
+    }
+}
@@ -23,23 +23,35 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * load dictionary data from input source
+ * <p>
+ * The cached dictionaries are kept in the {@link DictionaryRegistry} shared in the process.
  */
 public class DictionaryLoader<E> {
     private static final Logger LOG = LoggerFactory.getLogger(DictionaryLoader.class);
 
     private final Supplier<E> supplier;
     private final BiConsumer<E, String> loader;
+    private final UnaryOperator<E> freezer;
 
     public DictionaryLoader(Supplier<E> supplier, BiConsumer<E, String> loader) {
+        this(supplier, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * @param supplier creates an empty dictionary
+     * @param loader   adds a line to the dictionary
+     * @param freezer  returns a read-only view of the loaded dictionary, which is shared by the validators
+     */
+    public DictionaryLoader(Supplier<E> supplier, BiConsumer<E, String> loader, UnaryOperator<E> freezer) {
         this.supplier = supplier;
         this.loader = loader;
+        this.freezer = freezer;
     }
 
     /**
@@ -50,13 +62,32 @@ public class DictionaryLoader<E> {
      */
     E load(InputStream inputStream) throws IOException {
         E e = supplier.get();
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream,
+        long lines = 0;
+        CountingInputStream counter = new CountingInputStream(inputStream);
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(counter,
                 StandardCharsets.UTF_8))) {
-            bufferedReader.lines().forEach(line -> loader.accept(e, line));
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                loader.accept(e, line);
+                lines++;
+            }
         }
+        DictionaryRegistry.getInstance().recordLoad(counter.count, lines);
         return e;
     }
 
+    /**
+     * Load a given input file combined with jar package, and return its read-only form shared by the validators.
+     * Subclasses may load a precompiled form of the resource instead.
+     *
+     * @param resourcePath resource path
+     * @return loaded dictionary
+     * @throws IOException when resource is not found
+     */
+    protected E loadSharedResource(String resourcePath) throws IOException {
+        return freezer.apply(loadFromResource(resourcePath));
+    }
+
     /**
      * Load a given input file combined with jar package.
      *
@@ -82,8 +113,6 @@ public class DictionaryLoader<E> {
         return load(new FileInputStream(file));
     }
 
-    private final Map<String, E> resourceCache = new HashMap<>();
-
     /**
      * returns word list loaded from resource
      *
@@ -92,24 +121,24 @@ public class DictionaryLoader<E> {
      * @return word collection or empty if resource is missing
      */
     public E loadCachedFromResource(String path, String dictionaryName) {
-        return resourceCache.computeIfAbsent(path, e -> {
-            try {
-                E result = loadFromResource(path);
-                LOG.info("Succeeded to load " + dictionaryName + ".");
-                return result;
-            } catch (IOException ioe) {
-                LOG.error("Failed to load " + dictionaryName + ":" + path + ": " + ioe.getMessage());
-                return supplier.get();
-            }
-        });
+        try {
+            return DictionaryRegistry.getInstance().get(this, "resource:" + path, 0, () -> {
+                try {
+                    E result = loadSharedResource(path);
+                    LOG.info("Succeeded to load " + dictionaryName + ".");
+                    return result;
+                } catch (IOException ioe) {
+                    LOG.error("Failed to load " + dictionaryName + ":" + path + ": " + ioe.getMessage());
+                    return freezer.apply(supplier.get());
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-
-    private final Map<String, E> fileCache = new HashMap<>();
-    private final Map<String, Long> fileNameTimestampMap = new HashMap<>();
-
     /**
-     * returns word list loaded from file
+     * returns word list loaded from file. The file is read once and reloaded in the background when it changes.
      *
      * @param file           file to load
      * @param dictionaryName name of the file
@@ -117,36 +146,41 @@ public class DictionaryLoader<E> {
      * @throws RedPenException when the file is not found
      */
     public E loadCachedFromFile(File file, String dictionaryName) throws RedPenException {
-        String path = file.getAbsolutePath();
-        if (!file.exists()) {
+        try {
+            E loaded = DictionaryRegistry.getInstance().get(this, file, () -> freezer.apply(loadFromFile(file)));
+            LOG.info("Succeeded to load " + dictionaryName + ".");
+            return loaded;
+        } catch (FileNotFoundException e) {
             throw new RedPenException("File not found: " + file);
+        } catch (IOException ioe) {
+            LOG.error(ioe.getMessage());
+            throw new RedPenException("Failed to load " + dictionaryName + ":" + file.getAbsolutePath());
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
         }
-        long currentModified = file.lastModified();
-        fileNameTimestampMap.computeIfPresent(path, (key, lastModified) -> {
-            if (lastModified != currentModified) {
-                // the file has been modified since last load
-                // clear the cache and load the file in the latter block
-                fileCache.remove(key);
-                return null;
-            } else {
-                return lastModified;
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
             }
-        });
-
-        E loaded = fileCache.computeIfAbsent(path, e -> {
-            try {
-                E newlyLoaded = loadFromFile(file);
-                fileNameTimestampMap.put(path, file.lastModified());
-                return newlyLoaded;
-            } catch (IOException ioe) {
-                LOG.error(ioe.getMessage());
-                return null;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
             }
-        });
-        if (loaded == null) {
-            throw new RedPenException("Failed to load " + dictionaryName + ":" + path);
+            return n;
         }
-        LOG.info("Succeeded to load " + dictionaryName + ".");
-        return loaded;
     }
 }
@@ -0,0 +1,264 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Process wide registry of loaded dictionaries, shared by all the {@link DictionaryLoader}s and so by all
+ * the RedPen instances.
+ * <p>
+ * A dictionary is loaded at most once at a time even when requested by several threads, and the loaded
+ * (immutable) copy is handed to every caller. Dictionaries are held through soft references so the ones
+ * no longer used by any validator can be reclaimed under memory pressure and are loaded again when needed.
+ * <p>
+ * Dictionaries loaded from files are watched with the {@link FileWatcher}: a changed file is reloaded in the
+ * background and its new copy replaces the old one, so requesting a loaded dictionary does not access the
+ * file system.
+ */
+public final class DictionaryRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(DictionaryRegistry.class);
+    private static final DictionaryRegistry INSTANCE = new DictionaryRegistry();
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loadedBytes = new AtomicLong();
+    private final AtomicLong loadedEntries = new AtomicLong();
+
+    private DictionaryRegistry() {
+    }
+
+    /**
+     * @return the registry shared in the process
+     */
+    public static DictionaryRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loading procedure of a dictionary.
+     *
+     * @param <E> type of the dictionary
+     */
+    @FunctionalInterface
+    interface Source<E> {
+        E load() throws IOException;
+    }
+
+    /**
+     * Get the dictionary loaded by the given loader from the given path, loading it when it is not registered
+     * yet or when the registered one has another version.
+     *
+     * @param loader  loader reading the dictionary
+     * @param path    path of the dictionary
+     * @param version version of the dictionary, such as the timestamp of the file
+     * @param source  procedure loading the dictionary
+     * @param <E>     type of the dictionary
+     * @return loaded dictionary
+     * @throws IOException when failed to load the dictionary
+     */
+    @SuppressWarnings("unchecked")
+    <E> E get(DictionaryLoader<E> loader, String path, long version, Source<E> source) throws IOException {
+        Entry entry = entries.compute(new Key(loader, path),
+                (key, existing) -> existing != null && existing.version == version ? existing : new Entry(version));
+        return load(entry, source);
+    }
+
+    /**
+     * Get the dictionary loaded by the given loader from the given file, loading it when it is not registered
+     * yet. The file is watched and reloaded in the background when it changes; when the file system does not
+     * support watching, the timestamp of the file is checked on every request instead.
+     *
+     * @param loader loader reading the dictionary
+     * @param file   file of the dictionary
+     * @param source procedure loading the dictionary
+     * @param <E>    type of the dictionary
+     * @return loaded dictionary
+     * @throws FileNotFoundException when the file does not exist
+     * @throws IOException           when failed to load the dictionary
+     */
+    @SuppressWarnings("unchecked")
+    <E> E get(DictionaryLoader<E> loader, File file, Source<E> source) throws IOException {
+        Key key = new Key(loader, "file:" + file.getAbsolutePath());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.listener != null) {
+            Object value = entry.value.get();
+            if (value != null) {
+                hits.incrementAndGet();
+                return (E) value;
+            }
+        }
+        if (!file.exists()) {
+            throw new FileNotFoundException("File not found: " + file);
+        }
+        long version = file.lastModified();
+        entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && (existing.listener != null || existing.version == version)) {
+                return existing;
+            }
+            Entry created = new Entry(version);
+            Path path = file.toPath().toAbsolutePath();
+            Consumer<Path> listener = changed -> reload(k, created, changed, source);
+            if (FileWatcher.getInstance().watch(path, listener)) {
+                created.path = path;
+                created.listener = listener;
+            }
+            return created;
+        });
+        return load(entry, source);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> E load(Entry entry, Source<E> source) throws IOException {
+        synchronized (entry) {
+            Object value = entry.value.get();
+            if (value != null) {
+                hits.incrementAndGet();
+                return (E) value;
+            }
+            E loaded = source.load();
+            loads.incrementAndGet();
+            entry.value = new SoftReference<>(loaded);
+            return loaded;
+        }
+    }
+
+    private <E> void reload(Key key, Entry entry, Path path, Source<E> source) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        if (!Files.exists(path)) {
+            remove(key, entry);
+            return;
+        }
+        synchronized (entry) {
+            try {
+                E loaded = source.load();
+                loads.incrementAndGet();
+                entry.value = new SoftReference<>(loaded);
+                LOG.info("Reloaded " + path);
+            } catch (IOException e) {
+                // dropped, so the next request loads the file again and reports the error
+                LOG.error("Failed to reload " + path + ": " + e.getMessage());
+                remove(key, entry);
+            }
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        if (entries.remove(key, entry) && entry.listener != null) {
+            FileWatcher.getInstance().unwatch(entry.path, entry.listener);
+        }
+    }
+
+    void recordLoad(long bytes, long lines) {
+        loadedBytes.addAndGet(bytes);
+        loadedEntries.addAndGet(lines);
+    }
+
+    /**
+     * Remove all the registered dictionaries, so they are loaded again on the next request.
+     */
+    public void clear() {
+        entries.forEach(this::remove);
+    }
+
+    /**
+     * @return number of dictionaries currently registered
+     */
+    public int size() {
+        return (int) entries.values().stream().filter(entry -> entry.value.get() != null).count();
+    }
+
+    /**
+     * @return number of times a dictionary was loaded
+     */
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * @return number of requests answered with an already loaded dictionary
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return total number of bytes read while loading dictionaries
+     */
+    public long getLoadedBytes() {
+        return loadedBytes.get();
+    }
+
+    /**
+     * @return total number of lines read while loading dictionaries
+     */
+    public long getLoadedEntries() {
+        return loadedEntries.get();
+    }
+
+    private static final class Key {
+        private final DictionaryLoader<?> loader;
+        private final String path;
+
+        Key(DictionaryLoader<?> loader, String path) {
+            this.loader = loader;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return loader == key.loader && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(loader), path);
+        }
+    }
+
+    private static final class Entry {
+        private final long version;
+        private volatile SoftReference<Object> value = new SoftReference<>(null);
+        // set when the file of the dictionary is watched
+        private Path path;
+        private Consumer<Path> listener;
+
+        Entry(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Process wide watcher of the files loaded by RedPen, such as user dictionaries and JavaScript validators.
+ * <p>
+ * Listeners are called from a background daemon thread when a watched file is created, modified or deleted,
+ * so the loaded contents can be replaced without checking the files on every validation. When the file
+ * system does not support watching, {@link #watch(Path, Consumer)} returns false and callers should check
+ * the files themselves.
+ */
+public final class FileWatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(FileWatcher.class);
+    private static final FileWatcher INSTANCE = new FileWatcher();
+
+    private final WatchService service;
+    private final ConcurrentMap<Path, WatchKey> directories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Set<Consumer<Path>>> listeners = new ConcurrentHashMap<>();
+
+    private FileWatcher() {
+        this.service = newWatchService();
+        if (service != null) {
+            Thread thread = new Thread(this::run, "redpen-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("File watching is not available, files are checked on every load: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return the watcher shared in the process
+     */
+    public static FileWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Call the given listener when the file is created, modified or deleted. Registering the same listener
+     * twice for a file has no effect.
+     *
+     * @param file     file to watch
+     * @param listener called with the absolute path of the file from the watcher thread
+     * @return true when the file is watched, false when the file system does not support watching
+     */
+    public synchronized boolean watch(Path file, Consumer<Path> listener) {
+        if (service == null) {
+            return false;
+        }
+        Path path = file.toAbsolutePath().normalize();
+        Path directory = path.getParent();
+        if (directory == null) {
+            return false;
+        }
+        try {
+            directories.computeIfAbsent(directory, this::register);
+        } catch (IllegalStateException e) {
+            LOG.warn("Failed to watch {}: {}", directory, e.getCause().toString());
+            return false;
+        }
+        listeners.computeIfAbsent(path, key -> ConcurrentHashMap.newKeySet()).add(listener);
+        return true;
+    }
+
+    /**
+     * Stop calling the given listener for the file. The directory stops being watched when none of its files
+     * has listeners.
+     *
+     * @param file     watched file
+     * @param listener listener registered with {@link #watch(Path, Consumer)}
+     */
+    public synchronized void unwatch(Path file, Consumer<Path> listener) {
+        Path path = file.toAbsolutePath().normalize();
+        Set<Consumer<Path>> fileListeners = listeners.get(path);
+        if (fileListeners == null || !fileListeners.remove(listener) || !fileListeners.isEmpty()) {
+            return;
+        }
+        listeners.remove(path);
+        Path directory = path.getParent();
+        if (listeners.keySet().stream().noneMatch(watched -> directory.equals(watched.getParent()))) {
+            WatchKey key = directories.remove(directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    /**
+     * @param directory a directory
+     * @return true when the directory is watched for changes of its files
+     */
+    boolean isWatching(Path directory) {
+        return directories.containsKey(directory.toAbsolutePath().normalize());
+    }
+
+    private WatchKey register(Path directory) {
+        try {
+            return directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                Set<Path> changed = new LinkedHashSet<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        // events were lost, notify every file of the directory
+                        listeners.keySet().stream()
+                                .filter(path -> directory.equals(path.getParent()))
+                                .forEach(changed::add);
+                    } else {
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(directory, key);
+                }
+                changed.forEach(this::notifyListeners);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            LOG.info("File watcher stopped");
+        }
+    }
+
+    private void notifyListeners(Path path) {
+        Set<Consumer<Path>> fileListeners = listeners.get(path);
+        if (fileListeners == null) {
+            return;
+        }
+        for (Consumer<Path> listener : fileListeners) {
+            try {
+                listener.accept(path);
+            } catch (RuntimeException e) {
+                LOG.error("Failed to reload " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only union of sets, answering from the layers themselves without copying them.
+ * <p>
+ * Used to compose the default dictionary, the user dictionary file and the words given in the configuration
+ * of a validator. Iteration returns each element once, from the first layer containing it.
+ *
+ * @param <E> type of the elements
+ */
+public final class LayeredSet<E> extends AbstractSet<E> {
+    private final List<Set<E>> layers;
+
+    private LayeredSet(List<Set<E>> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Create the union of the given sets. Null and empty sets are skipped, and a single remaining set is
+     * returned as a read-only view.
+     *
+     * @param layers sets to compose
+     * @param <E>    type of the elements
+     * @return read-only union of the sets
+     */
+    @SafeVarargs
+    public static <E> Set<E> of(Set<E>... layers) {
+        List<Set<E>> nonEmpty = new ArrayList<>(layers.length);
+        for (Set<E> layer : layers) {
+            if (layer != null && !layer.isEmpty()) {
+                nonEmpty.add(layer);
+            }
+        }
+        switch (nonEmpty.size()) {
+            case 0:
+                return Collections.emptySet();
+            case 1:
+                return Collections.unmodifiableSet(nonEmpty.get(0));
+            default:
+                return new LayeredSet<>(nonEmpty);
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (Set<E> layer : layers) {
+            if (layer.contains(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Set<E> layer : layers) {
+            if (!layer.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (E ignored : this) {
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int layer = 0;
+            private Iterator<E> current = layers.get(0).iterator();
+            private E next = advance();
+
+            private E advance() {
+                while (true) {
+                    while (current.hasNext()) {
+                        E element = current.next();
+                        if (!inPreviousLayers(element)) {
+                            return element;
+                        }
+                    }
+                    if (++layer == layers.size()) {
+                        layer = -1;
+                        return null;
+                    }
+                    current = layers.get(layer).iterator();
+                }
+            }
+
+            private boolean inPreviousLayers(E element) {
+                for (int i = 0; i < layer; i++) {
+                    if (layers.get(i).contains(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return layer >= 0;
+            }
+
+            @Override
+            public E next() {
+                if (layer < 0) {
+                    throw new NoSuchElementException();
+                }
+                E element = next;
+                next = advance();
+                return element;
+            }
+        };
+    }
+}
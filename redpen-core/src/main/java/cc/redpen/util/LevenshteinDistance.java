@@ -17,15 +17,25 @@
  */
 package cc.redpen.util;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Levenshtein Distance(a.k.a. Edit Distance)
  * <p>
  * For given two strings, provide the minimum number
  * of single-character edits (i.e. insertions, deletions
  * or substitutions). The default cost for each edit
- * is 1, and each value is configurable.
+ * is 1, and each value is configurable by creating an
+ * instance with other costs. Instances are immutable and
+ * can be used concurrently.
+ * <p>
+ * With the unit costs, the distance is computed with the
+ * bit-parallel algorithm of Myers and Hyyrö, 64 characters
+ * at a time.
  */
-public class LevenshteinDistance {
+public final class LevenshteinDistance {
     /**
      * A constant holding the default insertion cost.
      */
@@ -41,38 +51,39 @@ public class LevenshteinDistance {
      */
     public static final int DEFAULT_SUBSTITUTION_COST = 1;
 
-    private static int INSERTION_COST;
-    private static int DELETION_COST;
-    private static int SUBSTITUTION_COST;
-
-    static {
-        INSERTION_COST = DEFAULT_INSERTION_COST;
-        DELETION_COST = DEFAULT_DELETION_COST;
-        SUBSTITUTION_COST = DEFAULT_SUBSTITUTION_COST;
-    }
-
     /**
-     * Default Constructor.
+     * Distance with the default costs.
      */
-    private LevenshteinDistance() {
-    }
+    public static final LevenshteinDistance DEFAULT = new LevenshteinDistance(
+            DEFAULT_INSERTION_COST, DEFAULT_DELETION_COST, DEFAULT_SUBSTITUTION_COST);
+
+    private final int insertionCost;
+    private final int deletionCost;
+    private final int substitutionCost;
 
     /**
-     * Get the cost for "insertion".
+     * Constructor.
      *
-     * @return the cost for "insertion"
+     * @param insertionCost    cost of inserting a character
+     * @param deletionCost     cost of deleting a character
+     * @param substitutionCost cost of substituting a character
      */
-    public static int getInsertionCost() {
-        return INSERTION_COST;
+    public LevenshteinDistance(int insertionCost, int deletionCost, int substitutionCost) {
+        if (insertionCost < 0 || deletionCost < 0 || substitutionCost < 0) {
+            throw new IllegalArgumentException("Costs should not be negative");
+        }
+        this.insertionCost = insertionCost;
+        this.deletionCost = deletionCost;
+        this.substitutionCost = substitutionCost;
     }
 
     /**
-     * Set the cost for "insertion".
+     * Get the cost for "insertion".
      *
-     * @param cost a cost for "insertion"
+     * @return the cost for "insertion"
      */
-    public static synchronized void setInsertionCost(int cost) {
-        INSERTION_COST = cost;
+    public int getInsertionCost() {
+        return insertionCost;
     }
 
     /**
@@ -80,17 +91,8 @@ public class LevenshteinDistance {
      *
      * @return the cost for "deletion"
      */
-    public static int getDeletionCost() {
-        return DELETION_COST;
-    }
-
-    /**
-     * Set the cost for "deletion".
-     *
-     * @param cost a cost for "deletio"
-     */
-    public static synchronized void setDeletionCost(int cost) {
-        DELETION_COST = cost;
+    public int getDeletionCost() {
+        return deletionCost;
     }
 
     /**
@@ -98,17 +100,20 @@ public class LevenshteinDistance {
      *
      * @return the cost for "substitution"
      */
-    public static int getSubstitutionCost() {
-        return SUBSTITUTION_COST;
+    public int getSubstitutionCost() {
+        return substitutionCost;
     }
 
     /**
-     * Set the cost for "substitution".
+     * Get the Levenshtein distance for given two strings with the default costs.
      *
-     * @param cost a cost for "substitution"
+     * @param a a string.
+     * @param b one another string.
+     * @return Levenshtein distance.
+     * @see <a href="http://en.wikipedia.org/wiki/Levenshtein_distance">http://en.wikipedia.org/wiki/Levenshtein_distance</a>
      */
-    public static synchronized void setSubstitutionCost(int cost) {
-        SUBSTITUTION_COST = cost;
+    public static int getDistance(CharSequence a, CharSequence b) {
+        return DEFAULT.distance(a, b);
     }
 
     /**
@@ -117,44 +122,140 @@ public class LevenshteinDistance {
      * @param a a string.
      * @param b one another string.
      * @return Levenshtein distance.
-     * @see <a href="http://en.wikipedia.org/wiki/Levenshtein_distance">http://en.wikipedia.org/wiki/Levenshtein_distance</a>
      */
-    public static int getDistance(CharSequence a, CharSequence b) {
-        if (a == null && b == null) {
-            return 0;
+    public int distance(CharSequence a, CharSequence b) {
+        return distance(a, b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the Levenshtein distance for given two strings, giving up as soon as it exceeds the given bound.
+     *
+     * @param a           a string.
+     * @param b           one another string.
+     * @param maxDistance bound of the distance
+     * @return Levenshtein distance, or a value greater than maxDistance when the distance exceeds it
+     */
+    public int distance(CharSequence a, CharSequence b, int maxDistance) {
+        if (a == null) {
+            a = "";
+        }
+        if (b == null) {
+            b = "";
         }
-        if (a == null && b != null) {
-            return b.length() * INSERTION_COST;
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (lengthA == 0 || lengthB == 0) {
+            return lengthB * insertionCost + lengthA * deletionCost;
         }
-        if (a != null && b == null) {
-            return a.length() * INSERTION_COST;
+        if (isUnitCost()) {
+            // the distance is at least the difference of the lengths
+            if (Math.abs(lengthA - lengthB) > maxDistance) {
+                return maxDistance + 1;
+            }
+            return bitParallelDistance(a, b, maxDistance);
         }
+        return dynamicProgrammingDistance(a, b, maxDistance);
+    }
 
-        final int lengthA = a.length();
-        final int lengthB = b.length();
-        int[][] distance = new int[lengthA + 1][lengthB + 1];
+    /**
+     * @param a           a string.
+     * @param b           one another string.
+     * @param maxDistance bound of the distance, inclusive
+     * @return true when the distance of the strings is not greater than maxDistance
+     */
+    public boolean isWithin(CharSequence a, CharSequence b, int maxDistance) {
+        return distance(a, b, maxDistance) <= maxDistance;
+    }
 
-        // Initialization
-        for (int i = 0; i < lengthA + 1; i++) {
-            distance[i][0] = i * DELETION_COST;
+    private boolean isUnitCost() {
+        return insertionCost == 1 && deletionCost == 1 && substitutionCost == 1;
+    }
+
+    /**
+     * Myers' algorithm in the block-based form of Hyyrö, keeping the vertical deltas of a column of the
+     * distance matrix as bit vectors.
+     */
+    private static int bitParallelDistance(CharSequence a, CharSequence b, int maxDistance) {
+        int m = a.length();
+        int n = b.length();
+        int blocks = (m + 63) >>> 6;
+        Map<Character, long[]> peq = new HashMap<>();
+        for (int i = 0; i < m; i++) {
+            peq.computeIfAbsent(a.charAt(i), c -> new long[blocks])[i >>> 6] |= 1L << (i & 63);
         }
-        for (int j = 0; j < lengthB + 1; j++) {
-            distance[0][j] = j * INSERTION_COST;
+        long[] positive = new long[blocks];
+        long[] negative = new long[blocks];
+        Arrays.fill(positive, -1L);
+        long last = 1L << ((m - 1) & 63);
+        long[] none = new long[blocks];
+        int score = m;
+        for (int j = 0; j < n; j++) {
+            long[] eq = peq.getOrDefault(b.charAt(j), none);
+            // the first row of the matrix increases by one at each column
+            int carry = 1;
+            for (int k = 0; k < blocks; k++) {
+                long pv = positive[k];
+                long mv = negative[k];
+                long e = eq[k];
+                long xv = e | mv;
+                if (carry < 0) {
+                    e |= 1L;
+                }
+                long xh = (((e & pv) + pv) ^ pv) | e;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                long high = k == blocks - 1 ? last : 1L << 63;
+                int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+                ph <<= 1;
+                mh <<= 1;
+                if (carry < 0) {
+                    mh |= 1L;
+                } else if (carry > 0) {
+                    ph |= 1L;
+                }
+                positive[k] = mh | ~(xv | ph);
+                negative[k] = ph & xv;
+                carry = out;
+            }
+            score += carry;
+            // each remaining column decreases the distance by one at most
+            if (score - (n - 1 - j) > maxDistance) {
+                return maxDistance + 1;
+            }
         }
+        return score;
+    }
 
-        for (int i = 1; i < lengthA + 1; i++) {
-            for (int j = 1; j < lengthB + 1; j++) {
+    private int dynamicProgrammingDistance(CharSequence a, CharSequence b, int maxDistance) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        int[] previous = new int[lengthB + 1];
+        int[] current = new int[lengthB + 1];
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = j * insertionCost;
+        }
+        for (int i = 1; i <= lengthA; i++) {
+            current[0] = i * deletionCost;
+            int rowMin = current[0];
+            for (int j = 1; j <= lengthB; j++) {
                 if (a.charAt(i - 1) == b.charAt(j - 1)) {
-                    distance[i][j] = distance[i - 1][j - 1];
+                    current[j] = previous[j - 1];
                 } else {
-                    distance[i][j] = Math.min(Math.min(
-                                    distance[i - 1][j] + DELETION_COST,
-                                    distance[i][j - 1] + INSERTION_COST),
-                            distance[i - 1][j - 1] + SUBSTITUTION_COST);
+                    current[j] = Math.min(Math.min(
+                                    previous[j] + deletionCost,
+                                    current[j - 1] + insertionCost),
+                            previous[j - 1] + substitutionCost);
                 }
+                rowMin = Math.min(rowMin, current[j]);
             }
+            // the minimum of the rows never decreases
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
-
-        return distance[lengthA][lengthB];
+        return previous[lengthB];
     }
 }
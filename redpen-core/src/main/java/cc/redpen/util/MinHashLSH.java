@@ -0,0 +1,136 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Locality sensitive hashing of sparse vectors by MinHash signatures, finding the candidate pairs of similar
+ * vectors without comparing every pair.
+ * <p>
+ * The signature holds the minimum of several hash functions over the ids of a vector, and is cut in bands of
+ * rows. Vectors sharing all the rows of a band are candidates, so pairs with a Jaccard similarity {@code s} of
+ * their ids become candidates with probability {@code 1 - (1 - s^rows)^bands}. Candidates are approximate and
+ * their similarity has to be checked.
+ */
+public final class MinHashLSH {
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    // keys of the bands of each vector, null for empty vectors
+    private final List<long[]> bandKeys = new ArrayList<>();
+    private final List<Map<Long, List<Integer>>> buckets = new ArrayList<>();
+
+    /**
+     * @param bands number of bands of the signatures
+     * @param rows  number of rows of each band
+     */
+    public MinHashLSH(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands and rows must be positive: " + bands + ", " + rows);
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        Random random = new Random(SEED);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Add a vector.
+     *
+     * @param vector vector
+     * @return index of the vector, in the order of addition
+     */
+    public int add(SparseVector vector) {
+        int index = bandKeys.size();
+        if (vector.size() == 0) {
+            bandKeys.add(null);
+            return index;
+        }
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = 0;
+            for (int row = 0; row < rows; row++) {
+                key = key * 0x100000001B3L + minHash(vector.getIds(), seeds[band * rows + row]);
+            }
+            keys[band] = key;
+            buckets.get(band).computeIfAbsent(key, k -> new ArrayList<>()).add(index);
+        }
+        bandKeys.add(keys);
+        return index;
+    }
+
+    private static long minHash(int[] ids, long seed) {
+        long min = Long.MAX_VALUE;
+        for (int id : ids) {
+            min = Math.min(min, mix(id * 0x9E3779B97F4A7C15L + seed));
+        }
+        return min;
+    }
+
+    // finalizer of MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Get the vectors sharing a band with the given one.
+     *
+     * @param index index of an added vector
+     * @return indices of the candidates, without the given one
+     */
+    public BitSet getCandidates(int index) {
+        BitSet candidates = new BitSet(bandKeys.size());
+        long[] keys = bandKeys.get(index);
+        if (keys == null) {
+            return candidates;
+        }
+        for (int band = 0; band < bands; band++) {
+            for (int candidate : buckets.get(band).get(keys[band])) {
+                candidates.set(candidate);
+            }
+        }
+        candidates.clear(index);
+        return candidates;
+    }
+
+    /**
+     * @return number of added vectors
+     */
+    public int size() {
+        return bandKeys.size();
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.tokenizer.TokenElement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index of multi-word phrases, matching the phrases starting at each token of a sentence.
+ * <p>
+ * Phrases are keyed by a rolling hash of their lower-cased words, which is extended token by token, so each
+ * n-gram of the sentence is looked up in constant expected time without building strings. The hashes of all
+ * the prefixes of the phrases are registered too, so the extension stops as soon as no phrase starts with the
+ * tokens. A hit is confirmed by comparing the words of the phrase with the tokens.
+ */
+public final class PhraseIndex {
+    private static final Map<String, CompiledDictionaryCache<PhraseIndex>> SHARED = new ConcurrentHashMap<>();
+    private static final long MULTIPLIER = 1_000_003L;
+
+    // lower-cased words of the phrases
+    private final String[][] phrases;
+    private final int maxWords;
+    // open addressing table of the hashes of the phrases and their prefixes
+    private final long[] keys;
+    private final boolean[] used;
+    // first phrase with the hash of the slot, or -1 when the hash is only a prefix of phrases
+    private final int[] heads;
+    // next phrase with the same hash, or -1
+    private final int[] next;
+
+    /**
+     * Receives the matched phrases.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param start index of the first token of the phrase
+         * @param end   index after the last token of the phrase
+         */
+        void match(int start, int end);
+    }
+
+    /**
+     * Build the index of the given phrases.
+     *
+     * @param phrases   phrases, whose words are separated by the separator
+     * @param separator separator of the words of a phrase
+     */
+    public PhraseIndex(Collection<String> phrases, String separator) {
+        Pattern split = Pattern.compile(Pattern.quote(separator));
+        List<String[]> words = new ArrayList<>();
+        for (String phrase : new LinkedHashSet<>(phrases)) {
+            if (!phrase.isEmpty()) {
+                words.add(split.split(phrase.toLowerCase(), -1));
+            }
+        }
+        this.phrases = words.toArray(new String[0][]);
+
+        int prefixes = 0;
+        int longest = 0;
+        for (String[] phrase : this.phrases) {
+            prefixes += phrase.length;
+            longest = Math.max(longest, phrase.length);
+        }
+        this.maxWords = longest;
+        int capacity = Integer.highestOneBit(Math.max(prefixes, 1) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.used = new boolean[capacity];
+        this.heads = new int[capacity];
+        this.next = new int[this.phrases.length];
+
+        for (int id = 0; id < this.phrases.length; id++) {
+            long hash = 0;
+            String[] phrase = this.phrases[id];
+            int slot = -1;
+            for (String word : phrase) {
+                hash = hash * MULTIPLIER + hash(word);
+                slot = insert(hash);
+            }
+            next[id] = heads[slot];
+            heads[slot] = id;
+        }
+    }
+
+    /**
+     * Get the index of the phrases in the given dictionaries and extra phrases. The index is built once and
+     * shared while the same dictionaries are requested.
+     *
+     * @param dictionaries read-only dictionaries shared in the process, compared by identity
+     * @param phrases      additional phrases, compared by value
+     * @param separator    separator of the words of a phrase
+     * @return index of the phrases with two words or more when the separator is not a space, of all the phrases
+     * otherwise
+     */
+    public static PhraseIndex shared(List<? extends Collection<String>> dictionaries, Collection<String> phrases,
+                                     String separator) {
+        return SHARED.computeIfAbsent(separator, s -> new CompiledDictionaryCache<>(16))
+                .get(dictionaries, phrases, all -> {
+                    if (!separator.equals(" ")) {
+                        // dictionaries such as the spelling one hold the phrases among many single words
+                        all.removeIf(phrase -> !phrase.contains(separator));
+                    }
+                    return new PhraseIndex(all, separator);
+                });
+    }
+
+    private static long hash(CharSequence word) {
+        long hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(word.charAt(i));
+        }
+        return hash;
+    }
+
+    private int insert(long hash) {
+        int slot = find(hash);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = hash;
+            heads[slot] = -1;
+        }
+        return slot;
+    }
+
+    // slot of the hash, or the free slot where it should be inserted
+    private int find(long hash) {
+        int mask = keys.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used[slot] && keys[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Find the phrases matching the tokens, ignoring case. Matches are reported by start token, shorter ones
+     * first.
+     *
+     * @param tokens   tokens of a sentence
+     * @param listener receives the matches
+     */
+    public void forEachMatch(List<TokenElement> tokens, MatchListener listener) {
+        for (int start = 0; start < tokens.size(); start++) {
+            long hash = 0;
+            int limit = Math.min(tokens.size(), start + maxWords);
+            for (int end = start + 1; end <= limit; end++) {
+                hash = hash * MULTIPLIER + hash(tokens.get(end - 1).getSurface());
+                int slot = find(hash);
+                if (!used[slot]) {
+                    // no phrase starts with these tokens
+                    break;
+                }
+                for (int id = heads[slot]; id >= 0; id = next[id]) {
+                    if (matches(phrases[id], tokens, start, end)) {
+                        listener.match(start, end);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean matches(String[] phrase, List<TokenElement> tokens, int start, int end) {
+        if (phrase.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < phrase.length; i++) {
+            String surface = tokens.get(start + i).getSurface();
+            String word = phrase[i];
+            if (surface.length() != word.length()) {
+                return false;
+            }
+            for (int j = 0; j < word.length(); j++) {
+                if (Character.toLowerCase(surface.charAt(j)) != word.charAt(j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of indexed phrases
+     */
+    public int size() {
+        return phrases.length;
+    }
+
+    /**
+     * @return number of words of the longest phrase
+     */
+    public int getMaxWords() {
+        return maxWords;
+    }
+}
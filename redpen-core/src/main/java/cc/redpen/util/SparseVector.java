@@ -0,0 +1,144 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse vector of counts, stored as ids in ascending order with their counts and the precomputed
+ * norm.
+ */
+public final class SparseVector {
+    private final int[] ids;
+    private final int[] counts;
+    private final double norm;
+
+    private SparseVector(int[] ids, int[] counts) {
+        this.ids = ids;
+        this.counts = counts;
+        long sum = 0;
+        for (int count : counts) {
+            sum += (long) count * count;
+        }
+        this.norm = Math.sqrt(sum);
+    }
+
+    /**
+     * Count the occurrences of the given ids.
+     *
+     * @param ids    ids, in any order and repeated for each occurrence
+     * @param length number of ids to read from the array
+     * @return vector of the counts of the ids
+     */
+    public static SparseVector of(int[] ids, int length) {
+        int[] sorted = Arrays.copyOf(ids, length);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] vectorIds = new int[distinct];
+        int[] counts = new int[distinct];
+        int n = -1;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                vectorIds[++n] = sorted[i];
+            }
+            counts[n]++;
+        }
+        return new SparseVector(vectorIds, counts);
+    }
+
+    /**
+     * @return number of distinct ids
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return euclidean norm of the vector
+     */
+    public double getNorm() {
+        return norm;
+    }
+
+    /**
+     * Get the count of an id.
+     *
+     * @param id id
+     * @return count of the id, 0 when absent
+     */
+    public int get(int id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? counts[i] : 0;
+    }
+
+    /**
+     * Calculate the inner product with another vector, merging the ids of both.
+     *
+     * @param other another vector
+     * @return inner product
+     */
+    public long dot(SparseVector other) {
+        long product = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < other.ids.length) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                product += (long) counts[i++] * other.counts[j++];
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Calculate the cosine similarity with another vector.
+     *
+     * @param other another vector
+     * @return cosine similarity, 0 when either vector is empty
+     */
+    public double cosine(SparseVector other) {
+        if (norm == 0 || other.norm == 0) {
+            return 0.0;
+        }
+        return dot(other) / (norm * other.norm);
+    }
+
+    int[] getIds() {
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(ids[i]).append('=').append(counts[i]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Spelling suggestions from a dictionary, using an inverted index of the character bigrams of the words.
+ * <p>
+ * Words within an edit distance k of a query share all but at most 2k of its distinct bigrams, so only the
+ * words sharing enough bigrams are compared with the query. The index is built once per dictionary and is
+ * immutable, so it can be shared by the validators in every thread.
+ * <p>
+ * The words are packed into a single char array and identified by their number, and the posting lists of
+ * the bigrams are slices of a single int array, so the index holds no object per word or per bigram. Its
+ * resident size is about 2 bytes per character of the words, 4 bytes per word and 4 bytes per distinct bigram
+ * of each word, plus 8 bytes per distinct bigram of the dictionary: around 8 MB for the 137,000 words of the
+ * default English dictionary.
+ */
+public final class SpellingSuggester {
+    private static final CompiledDictionaryCache<SpellingSuggester> SHARED = new CompiledDictionaryCache<>(16);
+    // marks the start and the end of a word, so the first and the last characters have their own bigrams
+    private static final char BOUNDARY = '\u0000';
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[0]);
+
+    // characters of the words, the word i being chars[wordStarts[i]] to chars[wordStarts[i + 1]]
+    private final char[] chars;
+    private final int[] wordStarts;
+    // distinct bigrams in ascending order, the posting list of grams[g] being postings[gramStarts[g]] to
+    // postings[gramStarts[g + 1]], in ascending word order
+    private final int[] grams;
+    private final int[] gramStarts;
+    private final int[] postings;
+
+    /**
+     * Build the index of the given words.
+     *
+     * @param words dictionary words
+     */
+    public SpellingSuggester(Collection<String> words) {
+        Collection<String> distinct = new LinkedHashSet<>(words);
+        this.wordStarts = new int[distinct.size() + 1];
+        int length = 0;
+        int id = 0;
+        for (String word : distinct) {
+            length += word.length();
+            wordStarts[++id] = length;
+        }
+        this.chars = new char[length];
+        // the pairs of bigram and word are sorted, which groups the posting lists in ascending word order
+        long[] pairs = new long[Math.max(length + distinct.size(), 16)];
+        int pairCount = 0;
+        id = 0;
+        for (String word : distinct) {
+            word.getChars(0, word.length(), chars, wordStarts[id]);
+            for (int gram : bigrams(word)) {
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, pairCount * 2);
+                }
+                pairs[pairCount++] = (long) gram << 32 | id;
+            }
+            id++;
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        int gramCount = 0;
+        for (int i = 0; i < pairCount; i++) {
+            if (i == 0 || (int) (pairs[i] >>> 32) != (int) (pairs[i - 1] >>> 32)) {
+                gramCount++;
+            }
+        }
+        this.grams = new int[gramCount];
+        this.gramStarts = new int[gramCount + 1];
+        this.postings = new int[pairCount];
+        int g = -1;
+        for (int i = 0; i < pairCount; i++) {
+            int gram = (int) (pairs[i] >>> 32);
+            if (g < 0 || grams[g] != gram) {
+                grams[++g] = gram;
+                gramStarts[g] = i;
+            }
+            postings[i] = (int) pairs[i];
+        }
+        gramStarts[gramCount] = pairCount;
+    }
+
+    /**
+     * Get the index of the words in the given dictionaries and extra words. The index is built once and shared
+     * while the same dictionaries are requested.
+     *
+     * @param dictionaries read-only dictionaries shared in the process, compared by identity
+     * @param words        additional words, compared by value
+     * @return index of the words
+     */
+    public static SpellingSuggester shared(List<? extends Collection<String>> dictionaries, Collection<String> words) {
+        return SHARED.get(dictionaries, words, SpellingSuggester::new);
+    }
+
+    // distinct bigrams of the word, in ascending order; the bigrams are non-negative as chars are unsigned
+    private static int[] bigrams(CharSequence word) {
+        int[] grams = new int[word.length() + 1];
+        char previous = BOUNDARY;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            grams[i] = (previous << 16 | c) & Integer.MAX_VALUE;
+            previous = c;
+        }
+        grams[word.length()] = (previous << 16 | BOUNDARY) & Integer.MAX_VALUE;
+        Arrays.sort(grams);
+        int count = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[count++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, count);
+    }
+
+    /**
+     * Suggest dictionary words close to the given word, the closest first. At most the given number of the
+     * words sharing the most bigrams with the word are compared with it, so the cost of a search is bounded
+     * and its result depends only on the word and the dictionary.
+     *
+     * @param word          misspelled word, normalized as the dictionary words
+     * @param maxDistance   maximum edit distance of the suggestions
+     * @param limit         maximum number of suggestions
+     * @param maxCandidates maximum number of words compared with the given word
+     * @return suggestions ranked by edit distance, then by the number of shared bigrams
+     */
+    public List<String> suggest(String word, int maxDistance, int limit, int maxCandidates) {
+        int[] queryGrams = bigrams(word);
+        int threshold = Math.max(1, queryGrams.length - 2 * maxDistance);
+        int wordCount = wordStarts.length - 1;
+
+        int[] counts = COUNTS.get();
+        if (counts.length < wordCount) {
+            counts = new int[wordCount];
+            COUNTS.set(counts);
+        }
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        for (int gram : queryGrams) {
+            int g = Arrays.binarySearch(grams, gram);
+            if (g < 0) {
+                continue;
+            }
+            for (int i = gramStarts[g]; i < gramStarts[g + 1]; i++) {
+                int id = postings[i];
+                if (counts[id]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+
+        List<long[]> candidates = new ArrayList<>();
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            if (counts[id] >= threshold && Math.abs(length(id) - word.length()) <= maxDistance) {
+                candidates.add(new long[]{id, counts[id]});
+            }
+            counts[id] = 0;
+        }
+        // the words sharing more bigrams are more likely to be close, so they are compared first
+        candidates.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+
+        List<long[]> found = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < maxCandidates; i++) {
+            int id = (int) candidates.get(i)[0];
+            CharSequence candidate = CharBuffer.wrap(chars, wordStarts[id], length(id));
+            if (length(id) == word.length() && word.contentEquals(candidate)) {
+                continue;
+            }
+            int distance = LevenshteinDistance.DEFAULT.distance(word, candidate, maxDistance);
+            if (distance <= maxDistance) {
+                found.add(new long[]{distance, i, id});
+            }
+        }
+        found.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        List<String> suggestions = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            int id = (int) found.get(i)[2];
+            suggestions.add(new String(chars, wordStarts[id], length(id)));
+        }
+        return suggestions;
+    }
+
+    private int length(int id) {
+        return wordStarts[id + 1] - wordStarts[id];
+    }
+
+    /**
+     * @return number of indexed words
+     */
+    public int size() {
+        return wordStarts.length - 1;
+    }
+}
@@ -0,0 +1,444 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of words stored as a minimal acyclic automaton over their UTF-8 bytes.
+ * <p>
+ * Words sharing prefixes and suffixes share the arcs of the automaton, so a large word list takes a fraction
+ * of the memory of a hash set and the binary form is queried in place. Besides membership, the automaton
+ * answers prefix queries. The binary form is
+ * <pre>
+ * int magic, int version, int flags, int count, int root, int arcCount, arc[arcCount]
+ * </pre>
+ * where an arc is a label byte followed by an int holding the index of the first arc of its target state
+ * (0 when the target has no arcs), a flag telling the target is final, and a flag marking the last arc of
+ * its state.
+ */
+public final class WordAutomaton extends AbstractSet<String> {
+    static final int MAGIC = 0x52504641; // "RPFA"
+    static final int VERSION = 1;
+
+    private static final int LOWER_CASE = 1;
+    private static final int ACCEPTS_EMPTY = 2;
+    private static final int HEADER_SIZE = 24;
+    private static final int ARC_SIZE = 5;
+    private static final int LAST_ARC = 1 << 31;
+    private static final int FINAL = 1 << 30;
+    private static final int TARGET = FINAL - 1;
+
+    private final ByteBuffer buffer;
+    private final int flags;
+    private final int count;
+    private final int root;
+    private final int arcCount;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer buffer holding the binary form
+     * @throws IOException when the buffer does not hold a word automaton
+     */
+    public WordAutomaton(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a word automaton");
+        }
+        this.buffer = buffer;
+        this.flags = buffer.getInt(8);
+        this.count = buffer.getInt(12);
+        this.root = buffer.getInt(16);
+        this.arcCount = buffer.getInt(20);
+        if (arcCount < 1 || root < 0 || root >= arcCount || HEADER_SIZE + (long) arcCount * ARC_SIZE > buffer.limit()) {
+            throw new IOException("Broken word automaton");
+        }
+    }
+
+    /**
+     * @return true if all the words are in lower case
+     */
+    public boolean isLowerCase() {
+        return (flags & LOWER_CASE) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        byte[] word = ((String) o).getBytes(StandardCharsets.UTF_8);
+        if (word.length == 0) {
+            return (flags & ACCEPTS_EMPTY) != 0;
+        }
+        int arc = walk(word, word.length - 1);
+        return arc > 0 && (target(arc) & FINAL) != 0;
+    }
+
+    /**
+     * Check whether some words start with the given prefix.
+     *
+     * @param prefix prefix
+     * @return true if a word starts with the prefix
+     */
+    public boolean hasPrefix(String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return bytes.length == 0 ? count > 0 : walk(bytes, bytes.length - 1) > 0;
+    }
+
+    /**
+     * Get the words starting with the given prefix, in the order of their UTF-8 bytes.
+     *
+     * @param prefix prefix
+     * @param limit  maximum number of words returned
+     * @return words starting with the prefix
+     */
+    public List<String> getWordsWithPrefix(String prefix, int limit) {
+        List<String> words = new ArrayList<>();
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        WordIterator iterator;
+        if (bytes.length == 0) {
+            iterator = new WordIterator(bytes, root, (flags & ACCEPTS_EMPTY) != 0);
+        } else {
+            int arc = walk(bytes, bytes.length - 1);
+            if (arc <= 0) {
+                return words;
+            }
+            iterator = new WordIterator(bytes, target(arc) & TARGET, (target(arc) & FINAL) != 0);
+        }
+        while (words.size() < limit && iterator.hasNext()) {
+            words.add(iterator.next());
+        }
+        return words;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new WordIterator(new byte[0], root, (flags & ACCEPTS_EMPTY) != 0);
+    }
+
+    /**
+     * Depth first traversal of the words reachable from a state.
+     */
+    private final class WordIterator implements Iterator<String> {
+        private final byte[] prefix;
+        private int[] arcs = new int[16];
+        private int depth = 0;
+        private boolean visited = false;
+        private String next;
+
+        WordIterator(byte[] prefix, int state, boolean acceptsPrefix) {
+            this.prefix = prefix;
+            if (state != 0) {
+                arcs[depth++] = state;
+            }
+            next = acceptsPrefix ? new String(prefix, StandardCharsets.UTF_8) : advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String word = next;
+            next = advance();
+            return word;
+        }
+
+        private String advance() {
+            while (depth > 0) {
+                int arc = arcs[depth - 1];
+                int target = target(arc);
+                if (!visited) {
+                    visited = true;
+                    if ((target & FINAL) != 0) {
+                        return word();
+                    }
+                }
+                visited = false;
+                if ((target & TARGET) != 0) {
+                    if (depth == arcs.length) {
+                        arcs = Arrays.copyOf(arcs, depth * 2);
+                    }
+                    arcs[depth++] = target & TARGET;
+                    continue;
+                }
+                while (depth > 0 && (target(arcs[depth - 1]) & LAST_ARC) != 0) {
+                    depth--;
+                }
+                if (depth > 0) {
+                    arcs[depth - 1]++;
+                }
+            }
+            return null;
+        }
+
+        private String word() {
+            byte[] bytes = Arrays.copyOf(prefix, prefix.length + depth);
+            for (int i = 0; i < depth; i++) {
+                bytes[prefix.length + i] = label(arcs[i]);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Follow the bytes up to the given index from the initial state.
+     *
+     * @return the arc labeled with the last byte, or -1 if there is no such path
+     */
+    private int walk(byte[] bytes, int last) {
+        int state = root;
+        for (int i = 0; ; i++) {
+            int arc = findArc(state, bytes[i]);
+            if (arc < 0 || i == last) {
+                return arc;
+            }
+            state = target(arc) & TARGET;
+        }
+    }
+
+    private int findArc(int state, byte label) {
+        if (state == 0) {
+            return -1;
+        }
+        for (int arc = state; ; arc++) {
+            if (label(arc) == label) {
+                return arc;
+            }
+            if ((target(arc) & LAST_ARC) != 0) {
+                return -1;
+            }
+        }
+    }
+
+    private byte label(int arc) {
+        return buffer.get(HEADER_SIZE + arc * ARC_SIZE);
+    }
+
+    private int target(int arc) {
+        return buffer.getInt(HEADER_SIZE + arc * ARC_SIZE + 1);
+    }
+
+    /**
+     * Write the minimal automaton accepting the given words.
+     *
+     * @param words words to write
+     * @param os    output stream
+     * @throws IOException when failed to write
+     */
+    public static void write(Collection<String> words, OutputStream os) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(words.size());
+        boolean lowerCase = true;
+        for (String word : words) {
+            encoded.add(word.getBytes(StandardCharsets.UTF_8));
+            lowerCase &= word.equals(word.toLowerCase(Locale.ROOT));
+        }
+        encoded.sort(WordAutomaton::compare);
+
+        Builder builder = new Builder();
+        for (byte[] word : encoded) {
+            builder.add(word);
+        }
+        State start = builder.finish();
+
+        // number the arcs so the targets are written before the states leading to them
+        List<State> states = new ArrayList<>();
+        Map<State, Integer> firstArcs = new IdentityHashMap<>();
+        int[] arcCount = {1};
+        number(start, firstArcs, states, arcCount);
+
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt((lowerCase ? LOWER_CASE : 0) | (start.isFinal ? ACCEPTS_EMPTY : 0));
+        out.writeInt(builder.count);
+        out.writeInt(firstArcs.get(start));
+        out.writeInt(arcCount[0]);
+        // arc 0 is unused so that 0 can stand for a state without arcs
+        out.writeByte(0);
+        out.writeInt(LAST_ARC);
+        for (State state : states) {
+            for (int i = 0; i < state.labels.length; i++) {
+                State target = state.targets[i];
+                int value = firstArcs.get(target);
+                if (target.isFinal) {
+                    value |= FINAL;
+                }
+                if (i == state.labels.length - 1) {
+                    value |= LAST_ARC;
+                }
+                out.writeByte(state.labels[i]);
+                out.writeInt(value);
+            }
+        }
+        out.flush();
+    }
+
+    private static void number(State state, Map<State, Integer> firstArcs, List<State> states, int[] arcCount) {
+        if (firstArcs.containsKey(state)) {
+            return;
+        }
+        for (State target : state.targets) {
+            number(target, firstArcs, states, arcCount);
+        }
+        if (state.labels.length == 0) {
+            firstArcs.put(state, 0);
+        } else {
+            firstArcs.put(state, arcCount[0]);
+            arcCount[0] += state.labels.length;
+            states.add(state);
+        }
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int shorter = Math.min(a.length, b.length);
+        for (int i = 0; i < shorter; i++) {
+            int difference = (a[i] & 0xff) - (b[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * State of the automaton under construction.
+     */
+    private static final class State {
+        private byte[] labels = new byte[0];
+        private State[] targets = new State[0];
+        private boolean isFinal;
+
+        State child(byte label) {
+            return labels.length > 0 && labels[labels.length - 1] == label ? targets[targets.length - 1] : null;
+        }
+
+        void addChild(byte label, State target) {
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            targets = Arrays.copyOf(targets, targets.length + 1);
+            labels[labels.length - 1] = label;
+            targets[targets.length - 1] = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State state = (State) o;
+            if (isFinal != state.isFinal || !Arrays.equals(labels, state.labels)) {
+                return false;
+            }
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != state.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = isFinal ? 1 : 0;
+            for (int i = 0; i < labels.length; i++) {
+                hash = 31 * (31 * hash + labels[i]) + System.identityHashCode(targets[i]);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Incremental construction of the minimal automaton from sorted words.
+     */
+    private static final class Builder {
+        private final State start = new State();
+        private final Map<State, State> register = new HashMap<>();
+        private byte[] previous;
+        private int count;
+
+        void add(byte[] word) {
+            if (previous != null && compare(previous, word) == 0) {
+                return;
+            }
+            int common = 0;
+            State state = start;
+            while (common < word.length && state.child(word[common]) != null) {
+                state = state.child(word[common]);
+                common++;
+            }
+            replaceOrRegister(state);
+            for (int i = common; i < word.length; i++) {
+                State next = new State();
+                state.addChild(word[i], next);
+                state = next;
+            }
+            state.isFinal = true;
+            previous = word;
+            count++;
+        }
+
+        State finish() {
+            replaceOrRegister(start);
+            return start;
+        }
+
+        /**
+         * Merge the states on the path of the last added word after the given state with their equivalents.
+         */
+        private void replaceOrRegister(State state) {
+            int last = state.targets.length - 1;
+            if (last < 0) {
+                return;
+            }
+            State child = state.targets[last];
+            replaceOrRegister(child);
+            State equivalent = register.get(child);
+            if (equivalent != null) {
+                state.targets[last] = equivalent;
+            } else {
+                register.put(child, child);
+            }
+        }
+    }
+}
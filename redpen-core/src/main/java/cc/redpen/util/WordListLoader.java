@@ -0,0 +1,101 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loader of word lists, which uses the precompiled binary form of the default resources when it is available
+ * (see {@link DictionaryCompiler}), either a {@link BinaryWordSet} or a {@link WordAutomaton}.
+ * User dictionary files are always read from their text form.
+ */
+public class WordListLoader extends DictionaryLoader<Set<String>> {
+    /**
+     * Suffix of the binary form holding the words as written.
+     */
+    public static final String WORDS_SUFFIX = ".words.bin";
+    /**
+     * Suffix of the binary form holding the lower cased words.
+     */
+    public static final String LOWER_CASE_SUFFIX = ".lowercase.bin";
+
+    private final boolean lowerCase;
+
+    /**
+     * Constructor.
+     *
+     * @param lowerCase true to lower case the words
+     */
+    public WordListLoader(boolean lowerCase) {
+        super(HashSet::new, lowerCase ? (set, line) -> set.add(line.toLowerCase()) : Set::add, Collections::unmodifiableSet);
+        this.lowerCase = lowerCase;
+    }
+
+    @Override
+    protected Set<String> loadSharedResource(String resourcePath) throws IOException {
+        Set<String> words = loadBinary(resourcePath + (lowerCase ? LOWER_CASE_SUFFIX : WORDS_SUFFIX));
+        return words != null ? words : super.loadSharedResource(resourcePath);
+    }
+
+    private Set<String> loadBinary(String resourcePath) throws IOException {
+        URL url = getClass().getClassLoader().getResource(resourcePath);
+        if (url == null) {
+            return null;
+        }
+        ByteBuffer buffer;
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        } else {
+            try (InputStream inputStream = url.openStream()) {
+                buffer = ByteBuffer.wrap(readFully(inputStream));
+            }
+        }
+        DictionaryRegistry.getInstance().recordLoad(buffer.limit(), 0);
+        return buffer.limit() >= 4 && buffer.getInt(0) == WordAutomaton.MAGIC
+                ? new WordAutomaton(buffer) : new BinaryWordSet(buffer);
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        byte[] bytes = new byte[8192];
+        int length = 0;
+        int n;
+        while ((n = inputStream.read(bytes, length, bytes.length - length)) > 0) {
+            length += n;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+}
@@ -1,14 +1,20 @@
 package cc.redpen.validator;
 
 import cc.redpen.RedPenException;
+import cc.redpen.util.AhoCorasick;
 import cc.redpen.util.DictionaryLoader;
+import cc.redpen.util.LayeredSet;
+import cc.redpen.util.PhraseIndex;
+import cc.redpen.util.SpellingSuggester;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
-import static java.util.stream.Stream.concat;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
@@ -18,6 +24,11 @@ public abstract class DictionaryValidator extends Validator {
   protected DictionaryLoader<Set<String>> loader = WORD_LIST;
   private String dictionaryPrefix;
   private Set<String> dictionary = emptySet();
+  private boolean dictionaryExists = false;
+  private List<Set<String>> sharedDictionaries = emptyList();
+  private AhoCorasick matcher;
+  private SpellingSuggester suggester;
+  private PhraseIndex phrases;
 
   public DictionaryValidator() {
     super("list", new HashSet<>(), "dict", "");
@@ -40,27 +51,83 @@ public abstract class DictionaryValidator extends Validator {
 
   @Override
   protected void init() throws RedPenException {
+    Set<String> defaultDictionary = emptySet();
     if (dictionaryPrefix != null) {
       String defaultDictionaryFile = "default-resources/" + dictionaryPrefix + "-" + getSymbolTable().getLang() + ".dat";
-      dictionary = loader.loadCachedFromResource(defaultDictionaryFile, getClass().getSimpleName() + " default dictionary");
+      defaultDictionary = loader.loadCachedFromResource(defaultDictionaryFile, getClass().getSimpleName() + " default dictionary");
     }
+    Set<String> userDictionary = emptySet();
     String confFile = getString("dict");
     if (isNotEmpty(confFile)) {
-      getSet("list").addAll(loader.loadCachedFromFile(findFile(confFile), getClass().getSimpleName() + " user dictionary"));
+      userDictionary = loader.loadCachedFromFile(findFile(confFile), getClass().getSimpleName() + " user dictionary");
     }
+    // the shared dictionaries are looked up in place rather than copied into the "list" property
+    sharedDictionaries = asList(defaultDictionary, userDictionary);
+    dictionary = LayeredSet.of(defaultDictionary, userDictionary, getSet("list"));
+    dictionaryExists = !dictionary.isEmpty();
   }
 
   protected boolean inDictionary(String word) {
-    Set<String> customDictionary = getSet("list");
-    return dictionary.contains(word) || customDictionary != null && customDictionary.contains(word);
+    return dictionary.contains(word);
   }
 
   protected boolean dictionaryExists() {
-    Set<String> customDictionary = getSet("list");
-    return !dictionary.isEmpty() || customDictionary != null && !customDictionary.isEmpty();
+    return dictionaryExists;
   }
 
   protected Stream<String> streamDictionary() {
-    return concat(dictionary.stream(), getSet("list").stream());
+    return dictionary.stream();
+  }
+
+  /**
+   * Find all the occurrences of the dictionary words in the given text in a single pass.
+   *
+   * @param text     text to search
+   * @param listener receives the matched words with their positions
+   */
+  protected void forEachDictionaryMatch(String text, AhoCorasick.MatchListener listener) {
+    if (matcher == null) {
+      matcher = AhoCorasick.shared(sharedDictionaries, getSet("list"));
+    }
+    matcher.forEachMatch(text, listener);
+  }
+
+  /**
+   * Get the index of the dictionary entries made of several words joined by the given separator, such as
+   * hyphenated words.
+   *
+   * @param separator separator of the words in the dictionary entries
+   * @return index of the entries, built once for the dictionary
+   */
+  protected PhraseIndex getDictionaryPhrases(String separator) {
+    if (phrases == null) {
+      phrases = PhraseIndex.shared(sharedDictionaries, getSet("list"), separator);
+    }
+    return phrases;
+  }
+
+  /**
+   * Get the index suggesting dictionary words close to misspelled words.
+   *
+   * @return index of the dictionary words, built once for the dictionary
+   */
+  protected SpellingSuggester getDictionarySuggester() {
+    if (suggester == null) {
+      suggester = SpellingSuggester.shared(sharedDictionaries, getSet("list"));
+    }
+    return suggester;
+  }
+
+  /**
+   * Suggest dictionary words close to the given word, using an index built once for the dictionary.
+   *
+   * @param word          word not in the dictionary, normalized as the dictionary words
+   * @param maxDistance   maximum edit distance of the suggestions
+   * @param limit         maximum number of suggestions
+   * @param maxCandidates maximum number of dictionary words compared with the word
+   * @return suggestions, the closest first
+   */
+  protected List<String> suggestDictionaryWords(String word, int maxDistance, int limit, int maxCandidates) {
+    return getDictionarySuggester().suggest(word, maxDistance, limit, maxCandidates);
   }
 }
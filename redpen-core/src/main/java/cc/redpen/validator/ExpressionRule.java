@@ -20,6 +20,7 @@ package cc.redpen.validator;
 import cc.redpen.tokenizer.TokenElement;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ExpressionRule {
@@ -57,6 +58,10 @@ public class ExpressionRule {
         return elements != null ? elements.hashCode() : 0;
     }
 
+    public List<TokenElement> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+
     public boolean match(List<TokenElement> tokens) {
         if (tokens.size() == 0) {
             return false;
@@ -64,11 +69,9 @@ public class ExpressionRule {
         for (int i = 0; i < tokens.size(); i++) {
             boolean result = true;
             for (int j = 0; j < elements.size(); j++) {
-                if (tokens.size() <= i+j) {
+                if (tokens.size() <= i+j || !matchElement(elements.get(j), tokens.get(i+j))) {
                     result = false;
                     break;
-                } else if (!tokens.get(i+j).getSurface().equals(elements.get(j).getSurface())) {
-                    result = false;
                 }
             }
             if (result) {
@@ -77,4 +80,26 @@ public class ExpressionRule {
         }
         return false;
     }
+
+    /**
+     * Match a token with an element of a rule: the surfaces should be the same, and the tags given in the
+     * element should be the ones of the token at the same positions. Empty tags of the element match any tag.
+     *
+     * @param element element of a rule
+     * @param token   token of the sentence
+     * @return true when the token matches the element
+     */
+    static boolean matchElement(TokenElement element, TokenElement token) {
+        return token.getSurface().equals(element.getSurface()) && matchTags(element.getTags(), token.getTags());
+    }
+
+    static boolean matchTags(List<String> elementTags, List<String> tokenTags) {
+        for (int i = 0; i < elementTags.size(); i++) {
+            String tag = elementTags.get(i);
+            if (!tag.isEmpty() && (tokenTags.size() <= i || !tag.equals(tokenTags.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,182 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.tokenizer.TokenElement;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only set of {@link ExpressionRule}s compiled into a trie of token surfaces, which matches all the rules
+ * in a single left-to-right pass over the tokens of a sentence.
+ * <p>
+ * Edges of the trie are keyed by the surface of the rule elements, and hold the tags of the elements as
+ * additional constraints checked against the tokens.
+ */
+public final class ExpressionRuleSet extends AbstractSet<ExpressionRule> {
+    private final Set<ExpressionRule> rules;
+    private final Node root = new Node();
+
+    /**
+     * Receives the matches of the rules.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param start index of the first matched token
+         * @param end   index after the last matched token
+         * @param rule  matched rule
+         */
+        void match(int start, int end, ExpressionRule rule);
+    }
+
+    private static final class Node {
+        // several edges share a surface when the rules constrain it with different tags
+        private final Map<String, List<Edge>> edges = new HashMap<>();
+        private final List<ExpressionRule> rules = new ArrayList<>();
+    }
+
+    private static final class Edge {
+        private final List<String> tags;
+        private final Node target = new Node();
+
+        Edge(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    /**
+     * Compile the given rules, or return them as they are when already compiled.
+     *
+     * @param rules rules to compile
+     * @return compiled rules
+     */
+    public static ExpressionRuleSet of(Set<ExpressionRule> rules) {
+        return rules instanceof ExpressionRuleSet ? (ExpressionRuleSet) rules : new ExpressionRuleSet(rules);
+    }
+
+    /**
+     * @param rules rules to compile
+     */
+    public ExpressionRuleSet(Set<ExpressionRule> rules) {
+        this.rules = Collections.unmodifiableSet(new LinkedHashSet<>(rules));
+        for (ExpressionRule rule : this.rules) {
+            Node node = root;
+            for (TokenElement element : rule.getElements()) {
+                node = child(node, element);
+            }
+            node.rules.add(rule);
+        }
+    }
+
+    private static Node child(Node node, TokenElement element) {
+        List<Edge> edges = node.edges.computeIfAbsent(element.getSurface(), surface -> new ArrayList<>(1));
+        for (Edge edge : edges) {
+            if (edge.tags.equals(element.getTags())) {
+                return edge.target;
+            }
+        }
+        Edge edge = new Edge(element.getTags());
+        edges.add(edge);
+        return edge.target;
+    }
+
+    /**
+     * Find all the occurrences of the rules in the tokens. Matches are reported in the order of their end
+     * positions.
+     *
+     * @param tokens   tokens of a sentence
+     * @param listener receives the matches
+     */
+    public void forEachMatch(List<TokenElement> tokens, MatchListener listener) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        for (ExpressionRule rule : root.rules) {
+            listener.match(0, 0, rule);
+        }
+        // partially matched rules, as trie nodes and the token index where they started
+        List<Node> active = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Node> nextActive = new ArrayList<>();
+        List<Integer> nextStarts = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            TokenElement token = tokens.get(i);
+            active.add(root);
+            starts.add(i);
+            for (int j = 0; j < active.size(); j++) {
+                List<Edge> edges = active.get(j).edges.get(token.getSurface());
+                if (edges == null) {
+                    continue;
+                }
+                for (Edge edge : edges) {
+                    if (ExpressionRule.matchTags(edge.tags, token.getTags())) {
+                        for (ExpressionRule rule : edge.target.rules) {
+                            listener.match(starts.get(j), i + 1, rule);
+                        }
+                        if (!edge.target.edges.isEmpty()) {
+                            nextActive.add(edge.target);
+                            nextStarts.add(starts.get(j));
+                        }
+                    }
+                }
+            }
+            List<Node> swapNodes = active;
+            active = nextActive;
+            nextActive = swapNodes;
+            nextActive.clear();
+            List<Integer> swapStarts = starts;
+            starts = nextStarts;
+            nextStarts = swapStarts;
+            nextStarts.clear();
+        }
+    }
+
+    /**
+     * @param tokens tokens of a sentence
+     * @return the rules matching the tokens, in the order of their first match
+     */
+    public Set<ExpressionRule> findMatchingRules(List<TokenElement> tokens) {
+        Set<ExpressionRule> matched = new LinkedHashSet<>();
+        forEachMatch(tokens, (start, end, rule) -> matched.add(rule));
+        return matched;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return rules.contains(o);
+    }
+
+    @Override
+    public Iterator<ExpressionRule> iterator() {
+        return rules.iterator();
+    }
+
+    @Override
+    public int size() {
+        return rules.size();
+    }
+}
@@ -20,7 +20,7 @@ public class JavaScriptLoader extends Validator {
     private static final Logger LOG = LoggerFactory.getLogger(JavaScriptLoader.class);
     private final String name;
     private final Invocable invocable;
-    private final String message;
+    private final MessageTemplate messageTemplate;
     private static final ScriptEngineManager manager = new ScriptEngineManager();
 
     private static final String[] methodsToBeExposedToJS = {"getInt", "getFloat", "getString", "getBoolean", "getSet",
@@ -52,7 +52,8 @@ public class JavaScriptLoader extends Validator {
 
             CompiledScript compiledScript = ((Compilable) engine).compile(script);
             compiledScript.eval();
-            this.message = (String) engine.get("message");
+            String message = (String) engine.get("message");
+            this.messageTemplate = message != null ? new MessageTemplate(new MessageFormat(message)) : null;
             this.invocable = (Invocable) engine;
         } catch (ScriptException e) {
             throw new RedPenException(e);
@@ -180,11 +181,11 @@ public class JavaScriptLoader extends Validator {
     }
 
     @Override
-    protected String getLocalizedErrorMessage(String key, Object... args) {
-        if (message != null) {
-            return MessageFormat.format(message, args);
+    protected MessageTemplate getMessageTemplate(String key) {
+        if (messageTemplate != null) {
+            return messageTemplate;
         } else {
-            return super.getLocalizedErrorMessage(key, args);
+            return super.getMessageTemplate(key);
         }
     }
 }
@@ -23,6 +23,7 @@ import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.model.Document;
 import cc.redpen.model.Section;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.FileWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,8 +31,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 /**
  * <p>A Validator implementation load JavaScript dynamically.</p>
@@ -94,11 +98,12 @@ public class JavaScriptValidator extends Validator {
         }
     }
 
-    private static final Map<File, String> fileCache = new HashMap<>();
-    private static final Map<File, Long> loadTime = new HashMap<>();
+    private static final ConcurrentMap<Path, Script> scriptCache = new ConcurrentHashMap<>();
+    private static final Consumer<Path> RELOAD_SCRIPT = JavaScriptValidator::reloadScript;
 
     /**
-     * Load file content. Returns cached content if the last modified date is same as previous.
+     * Load file content. Returns cached content, which is replaced in the background when the file changes.
+     * When the file system can not be watched, the content is loaded again if the last modified date changed.
      *
      * @param file file to be loaded
      * @return file content
@@ -106,15 +111,51 @@ public class JavaScriptValidator extends Validator {
      */
     static String loadCached(File file) throws IOException {
         Objects.requireNonNull(file);
-        Long storedTimestamp = loadTime.get(file);
-        if (storedTimestamp != null && storedTimestamp == file.lastModified()) {
-            return fileCache.get(file);
+        Path path = file.toPath().toAbsolutePath().normalize();
+        Script cached = scriptCache.get(path);
+        if (cached != null && (cached.watched || cached.lastModified == file.lastModified())) {
+            return cached.content;
+        }
+        // file has never been loaded, or has been updated on a file system which can not be watched
+        boolean watched = FileWatcher.getInstance().watch(path, RELOAD_SCRIPT);
+        Script read = readScript(path, watched);
+        // keep the content reloaded by the watcher in the meantime, it can only be newer
+        return scriptCache.compute(path, (key, existing) -> existing != null && existing.watched ? existing : read).content;
+    }
+
+    private static void reloadScript(Path path) {
+        if (!scriptCache.containsKey(path)) {
+            return;
+        }
+        try {
+            if (Files.exists(path)) {
+                scriptCache.put(path, readScript(path, true));
+                LOG.info("Reloaded JavaScript validator {}", path);
+                return;
+            }
+        } catch (IOException e) {
+            LOG.error("Exception while reading js file", e);
+        }
+        scriptCache.remove(path);
+        FileWatcher.getInstance().unwatch(path, RELOAD_SCRIPT);
+    }
+
+    private static Script readScript(Path path, boolean watched) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String content = new String(Files.readAllBytes(path), Charset.forName("UTF-8"));
+        return new Script(content, lastModified, watched);
+    }
+
+    private static final class Script {
+        private final String content;
+        private final long lastModified;
+        private final boolean watched;
+
+        Script(String content, long lastModified, boolean watched) {
+            this.content = content;
+            this.lastModified = lastModified;
+            this.watched = watched;
         }
-        // file has been updated or has never been loaded
-        String read = new String(Files.readAllBytes(Paths.get(file.getAbsolutePath())), Charset.forName("UTF-8"));
-        fileCache.put(file, read);
-        loadTime.put(file, file.lastModified());
-        return read;
     }
 
     List<ValidationError> errors;
@@ -0,0 +1,133 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.ResourceBundle.Control.FORMAT_DEFAULT;
+
+/**
+ * Error message template of a validator, parsed once per validator class, message key and locale and shared by
+ * all the validator instances. The errors keep the template and their arguments, and render the message when
+ * it is first read.
+ * <p>
+ * Validators reporting messages other than those of their message resources return their own templates from
+ * {@link Validator#getMessageTemplate(String)}.
+ */
+public final class MessageTemplate {
+    private static final ResourceBundle.Control FALLBACK_CONTROL =
+            ResourceBundle.Control.getNoFallbackControl(FORMAT_DEFAULT);
+    private static final Map<List<Object>, Optional<ResourceBundle>> BUNDLES = new ConcurrentHashMap<>();
+    private static final Map<List<Object>, MessageTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    // MessageFormat is not thread safe, formatting is synchronized on it
+    private final MessageFormat format;
+
+    /**
+     * Constructor.
+     *
+     * @param format message format, rendered with the arguments of the errors
+     */
+    public MessageTemplate(MessageFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Get the message bundle of a validator class, looking for a bundle named after the class and then for the
+     * error-messages bundle of its package.
+     *
+     * @param validatorClass validator class
+     * @param locale         locale of the messages
+     * @return message bundle, empty when the validator has no message resource
+     */
+    static Optional<ResourceBundle> getBundle(Class<?> validatorClass, Locale locale) {
+        return BUNDLES.computeIfAbsent(Arrays.asList(validatorClass, locale), k -> {
+            // getPackage() would return null for default package
+            String packageName = validatorClass.getPackage() != null ? validatorClass.getPackage().getName() : "";
+            try {
+                return Optional.of(ResourceBundle.getBundle(
+                        packageName + "." + validatorClass.getSimpleName(), locale, FALLBACK_CONTROL));
+            } catch (MissingResourceException ignore) {
+                try {
+                    return Optional.of(ResourceBundle.getBundle(
+                            packageName + ".error-messages", locale, FALLBACK_CONTROL));
+                } catch (MissingResourceException ignoreAgain) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the template of an error message of a validator class.
+     *
+     * @param validatorClass validator class
+     * @param key            message key, null for the default message
+     * @param locale         locale of the message
+     * @return message template
+     * @throws MissingResourceException when the message is not defined
+     */
+    static MessageTemplate of(Class<?> validatorClass, String key, Locale locale) {
+        return TEMPLATES.computeIfAbsent(Arrays.asList(validatorClass, key, locale), k -> {
+            ResourceBundle bundle = getBundle(validatorClass, locale)
+                    .orElseThrow(() -> new AssertionError("message resource not found."));
+            String suffix = key != null ? "." + key : "";
+            return new MessageTemplate(
+                    new MessageFormat(bundle.getString(validatorClass.getSimpleName() + suffix), locale));
+        });
+    }
+
+    /**
+     * Render the message.
+     *
+     * @param args objects to format
+     * @return message
+     */
+    public String format(Object[] args) {
+        synchronized (format) {
+            return format.format(args);
+        }
+    }
+
+    /**
+     * Copy the arguments of a message to render later, converting the objects other than numbers and dates to
+     * strings as the rendering would, so that later changes of the objects do not change the message.
+     *
+     * @param args objects to format
+     * @return arguments to render the message with
+     */
+    static Object[] freeze(Object[] args) {
+        Object[] frozen = args.clone();
+        for (int i = 0; i < frozen.length; i++) {
+            if (frozen[i] != null && !(frozen[i] instanceof String || frozen[i] instanceof Number
+                    || frozen[i] instanceof Date)) {
+                frozen[i] = frozen[i].toString();
+            }
+        }
+        return frozen;
+    }
+}
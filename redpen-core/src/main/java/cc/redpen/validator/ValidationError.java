@@ -20,20 +20,68 @@ package cc.redpen.validator;
 import cc.redpen.model.Sentence;
 import cc.redpen.parser.LineOffset;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
 /**
  * Error to report invalid point from Validators.
+ * <p>
+ * An error keeps the content and the positions of its sentence, and refers to the sentence itself only weakly,
+ * so errors retained in caches do not keep whole parsed documents alive. Once the document is no longer in use,
+ * {@link #getSentence()} returns a sentence rebuilt from the kept content and positions, with the same line,
+ * column and character offsets but without tokens and links.
  */
 public class ValidationError implements Serializable {
 
-    private static final long serialVersionUID = -7759439419047004667L;
-    private final String message;
+    private static final long serialVersionUID = 2318815620932165283L;
+    // rendered lazily from the template and its arguments
+    private volatile String message;
+    private transient MessageTemplate template;
+    private transient Object[] args;
     private final String validatorName;
-    private final Sentence sentence;
-    private final LineOffset startPosition;
-    private final LineOffset endPosition;
+    private transient volatile Reference<Sentence> sentence;
+    private final String sentenceContent;
+    private final int lineNumber;
+    private final int startColumn;
+    // offset map of the sentence, as runs of consecutive columns on a line
+    private final int[] offsetRuns;
+    // position of the error in the document, lines are -1 when the error does not specify the position
+    private final int startLine;
+    private final int startOffset;
+    private final int endLine;
+    private final int endOffset;
+    private final int startIndex;
+    private final int endIndex;
+    private final List<String> suggestions;
+
+    private ValidationError(String validatorName, String errorMessage, Sentence sentenceWithError,
+                            LineOffset startPosition, LineOffset endPosition, int startIndex, int endIndex,
+                            List<String> suggestions) {
+        this.message = errorMessage;
+        this.validatorName = validatorName;
+        this.sentence = sentenceWithError != null ? new WeakReference<>(sentenceWithError) : null;
+        this.sentenceContent = sentenceWithError != null ? sentenceWithError.getContent() : null;
+        this.lineNumber = sentenceWithError != null ? sentenceWithError.getLineNumber() : 0;
+        this.startColumn = sentenceWithError != null ? sentenceWithError.getStartPositionOffset() : 0;
+        this.offsetRuns = sentenceWithError != null ? toRuns(sentenceWithError.getOffsetMap()) : null;
+        this.startLine = startPosition != null ? startPosition.lineNum : -1;
+        this.startOffset = startPosition != null ? startPosition.offset : -1;
+        this.endLine = endPosition != null ? endPosition.lineNum : -1;
+        this.endOffset = endPosition != null ? endPosition.offset : -1;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.suggestions = suggestions;
+    }
 
     /**
      * Constructor.
@@ -45,11 +93,7 @@ public class ValidationError implements Serializable {
     public ValidationError(String validatorName,
                            String errorMessage,
                            Sentence sentenceWithError) {
-        this.message = errorMessage;
-        this.validatorName = validatorName;;
-        this.sentence = sentenceWithError;
-        this.startPosition = null;
-        this.endPosition = null;
+        this(validatorName, errorMessage, sentenceWithError, null, null, -1, -1, emptyList());
     }
 
     /**
@@ -63,11 +107,56 @@ public class ValidationError implements Serializable {
      */
     ValidationError(String validatorName, String errorMessage, Sentence sentenceWithError,
             int startPosition, int endPosition) {
-        this.message = errorMessage;
-        this.validatorName = validatorName;
-        this.sentence = sentenceWithError;
-        this.startPosition = sentenceWithError.getOffset(startPosition).get();
-        this.endPosition = sentenceWithError.getOffset(endPosition).get();
+        this(validatorName, errorMessage, sentenceWithError, startPosition, endPosition, emptyList());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param validatorName    validator name
+     * @param errorMessage      error message
+     * @param sentenceWithError sentence containing validation error
+     * @param startPosition     position where error starts
+     * @param endPosition       position where error ends
+     * @param suggestions       suggested replacements of the text in error, the best first
+     */
+    ValidationError(String validatorName, String errorMessage, Sentence sentenceWithError,
+            int startPosition, int endPosition, List<String> suggestions) {
+        this(validatorName, errorMessage, sentenceWithError,
+                sentenceWithError.getOffset(startPosition).get(), sentenceWithError.getOffset(endPosition).get(),
+                startPosition, endPosition, suggestions.isEmpty() ? emptyList() : unmodifiableList(new ArrayList<>(suggestions)));
+    }
+
+    /**
+     * Constructor of an error whose message is rendered when it is first requested.
+     *
+     * @param validatorName     validator name
+     * @param template          template of the error message
+     * @param args              objects to format, which do not change after the error is created
+     * @param sentenceWithError sentence containing validation error
+     */
+    ValidationError(String validatorName, MessageTemplate template, Object[] args, Sentence sentenceWithError) {
+        this(validatorName, (String) null, sentenceWithError);
+        this.template = template;
+        this.args = args;
+    }
+
+    /**
+     * Constructor of an error whose message is rendered when it is first requested.
+     *
+     * @param validatorName     validator name
+     * @param template          template of the error message
+     * @param args              objects to format, which do not change after the error is created
+     * @param sentenceWithError sentence containing validation error
+     * @param startPosition     position where error starts
+     * @param endPosition       position where error ends
+     * @param suggestions       suggested replacements of the text in error, the best first
+     */
+    ValidationError(String validatorName, MessageTemplate template, Object[] args, Sentence sentenceWithError,
+            int startPosition, int endPosition, List<String> suggestions) {
+        this(validatorName, (String) null, sentenceWithError, startPosition, endPosition, suggestions);
+        this.template = template;
+        this.args = args;
     }
 
     /**
@@ -81,11 +170,8 @@ public class ValidationError implements Serializable {
      */
     ValidationError(Class validatorClass, String errorMessage, Sentence sentenceWithError,
                     LineOffset startPosition, LineOffset endPosition) {
-        this.message = errorMessage;
-        this.validatorName = validatorClass.getSimpleName();
-        this.sentence = sentenceWithError;
-        this.startPosition = startPosition;
-        this.endPosition = endPosition;
+        this(validatorClass.getSimpleName(), errorMessage, sentenceWithError, startPosition, endPosition, -1, -1,
+                emptyList());
     }
 
     /**
@@ -94,7 +180,7 @@ public class ValidationError implements Serializable {
      * @return the number of line
      */
     public int getLineNumber() {
-        return sentence.getLineNumber();
+        return lineNumber;
     }
 
     /**
@@ -103,7 +189,12 @@ public class ValidationError implements Serializable {
      * @return error message
      */
     public String getMessage() {
-        return message;
+        String rendered = message;
+        if (rendered == null && template != null) {
+            rendered = template.format(args);
+            message = rendered;
+        }
+        return rendered;
     }
 
     /**
@@ -112,16 +203,57 @@ public class ValidationError implements Serializable {
      * @return column (character) position which sentence starts
      */
     public int getStartColumnNumber() {
-        return sentence.getStartPositionOffset();
+        return startColumn;
     }
 
     /**
      * Get sentence containing the error.
      *
-     * @return sentence
+     * @return sentence, rebuilt from the content and positions of the sentence when it is no longer in memory,
+     * null when the error is not reported on a sentence
      */
     public Sentence getSentence() {
-        return sentence;
+        Reference<Sentence> reference = sentence;
+        Sentence resolved = reference != null ? reference.get() : null;
+        if (resolved == null && sentenceContent != null) {
+            resolved = rebuildSentence();
+            sentence = new WeakReference<>(resolved);
+        }
+        return resolved;
+    }
+
+    // the size of the offset map, then the index in the map, the line and the column where each run starts
+    private static int[] toRuns(List<LineOffset> offsetMap) {
+        int[] runs = new int[1 + 3 * Math.min(offsetMap.size(), 4)];
+        int count = 1;
+        LineOffset previous = null;
+        for (int i = 0; i < offsetMap.size(); i++) {
+            LineOffset offset = offsetMap.get(i);
+            if (previous == null || offset.lineNum != previous.lineNum || offset.offset != previous.offset + 1) {
+                if (count == runs.length) {
+                    runs = Arrays.copyOf(runs, runs.length * 2 + 1);
+                }
+                runs[count++] = i;
+                runs[count++] = offset.lineNum;
+                runs[count++] = offset.offset;
+            }
+            previous = offset;
+        }
+        runs[0] = offsetMap.size();
+        return count == runs.length ? runs : Arrays.copyOf(runs, count);
+    }
+
+    private Sentence rebuildSentence() {
+        Sentence rebuilt = new Sentence(sentenceContent, lineNumber, startColumn);
+        List<LineOffset> offsets = new ArrayList<>(offsetRuns[0]);
+        for (int run = 1; run < offsetRuns.length; run += 3) {
+            int end = run + 3 < offsetRuns.length ? offsetRuns[run + 3] : offsetRuns[0];
+            for (int i = offsetRuns[run]; i < end; i++) {
+                offsets.add(new LineOffset(offsetRuns[run + 1], offsetRuns[run + 2] + i - offsetRuns[run]));
+            }
+        }
+        rebuilt.setOffsetMap(offsets);
+        return rebuilt;
     }
 
     /**
@@ -144,7 +276,7 @@ public class ValidationError implements Serializable {
      * @return error start position (Note: some validation error does not specify the error position)
      */
     public Optional<LineOffset> getStartPosition() {
-        return Optional.ofNullable(startPosition);
+        return startLine < 0 ? Optional.empty() : Optional.of(new LineOffset(startLine, startOffset));
     }
 
     /**
@@ -153,17 +285,64 @@ public class ValidationError implements Serializable {
      * @return error end position (Note: some validation error does not specify the error position)
      */
     public Optional<LineOffset> getEndPosition() {
-        return Optional.ofNullable(endPosition);
+        return endLine < 0 ? Optional.empty() : Optional.of(new LineOffset(endLine, endOffset));
+    }
+
+    /**
+     * Get suggested replacements of the text in error.
+     *
+     * @return suggestions, the best first (Note: most validation errors do not have suggestions)
+     */
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    String getRawValidatorName() {
+        return validatorName;
+    }
+
+    /**
+     * Get error start position in the sentence content.
+     *
+     * @return start position, or -1 when the error does not specify the position in the content
+     */
+    int getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * Get error end position in the sentence content.
+     *
+     * @return end position, or -1 when the error does not specify the position in the content
+     */
+    int getEndIndex() {
+        return endIndex;
+    }
+
+    /**
+     * Check if the error was reported on the given sentence instance.
+     *
+     * @param sentence a sentence
+     * @return true if the sentence in error is the given one
+     */
+    boolean isReportedOn(Sentence sentence) {
+        Reference<Sentence> reference = this.sentence;
+        return reference != null && reference.get() == sentence;
     }
 
     @Override
     public String toString() {
         return "ValidationError{" +
-                "message='" + message + '\'' +
+                "message='" + getMessage() + '\'' +
                 ", validatorName='" + validatorName + '\'' +
-                ", sentence=" + sentence +
-                ", startPosition=" + startPosition +
-                ", endPosition=" + endPosition +
+                ", sentence=" + getSentence() +
+                ", startPosition=" + getStartPosition().orElse(null) +
+                ", endPosition=" + getEndPosition().orElse(null) +
                 '}';
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
 }
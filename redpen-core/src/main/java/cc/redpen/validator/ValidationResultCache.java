@@ -0,0 +1,358 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.RedPen;
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Sentence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of the errors reported by sentence local validators (see {@link Validator#isSentenceLocal()}).
+ * <p>
+ * Results are keyed by the validator class, a fingerprint of its configuration and the sentence content.
+ * Cached errors are re-anchored to the line and offsets of the sentence being validated. The most recently
+ * used entries are kept in memory, and optionally saved to a file to be reused by later runs.
+ */
+public class ValidationResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationResultCache.class);
+    private static final int MAGIC = 0x52505643; // "RPVC"
+    private static final int VERSION = 2;
+    private static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private final File store;
+    private final Map<String, List<CachedError>> entries;
+    // fingerprints computed once per validator instance, weakly keyed so the cache does not keep the validators
+    // of past runs alive
+    private final Map<Validator, Fingerprint> fingerprints = new WeakHashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor of an in-memory cache.
+     */
+    public ValidationResultCache() {
+        this(DEFAULT_MAX_ENTRIES, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries maximum number of sentence results kept
+     * @param store      file to load the results from and to save them to, or null to keep them in memory only
+     */
+    @SuppressWarnings("serial")
+    public ValidationResultCache(int maxEntries, File store) {
+        this.store = store;
+        this.entries = new LinkedHashMap<String, List<CachedError>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CachedError>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (store != null && store.isFile()) {
+            load();
+        }
+    }
+
+    /**
+     * Validate the sentence with the validator, adding the errors to the given list. The errors of sentence local
+     * validators are taken from the cache when a sentence with the same content was validated before.
+     *
+     * @param validator validator
+     * @param sentence  sentence to validate
+     * @param errors    list receiving the errors
+     */
+    public void validate(Validator validator, Sentence sentence, List<ValidationError> errors) {
+        if (!validator.isSentenceLocal()) {
+            validator.setErrorList(errors);
+            validator.validate(sentence);
+            return;
+        }
+
+        String key = getFingerprint(validator) + '\u0000' + sentence.getContent();
+        List<CachedError> cached;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (cached != null) {
+            for (CachedError error : cached) {
+                errors.add(error.anchor(sentence));
+            }
+            return;
+        }
+
+        List<ValidationError> found = new ArrayList<>();
+        validator.setErrorList(found);
+        try {
+            validator.validate(sentence);
+        } finally {
+            validator.setErrorList(errors);
+        }
+        errors.addAll(found);
+
+        List<CachedError> result = new ArrayList<>(found.size());
+        for (ValidationError error : found) {
+            if (!error.isReportedOn(sentence) || error.getMessage() == null
+                || (error.getStartPosition().isPresent() && error.getStartIndex() < 0)) {
+                // positions given as line offsets cannot be moved to another sentence
+                return;
+            }
+            result.add(new CachedError(error.getRawValidatorName(), error.getMessage(), error.getStartIndex(),
+                    error.getEndIndex(), error.getSuggestions()));
+        }
+        synchronized (this) {
+            entries.put(key, result);
+        }
+    }
+
+    /**
+     * Get the number of sentence validations answered from the cache.
+     *
+     * @return number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of sentence validations that had to run the validator.
+     *
+     * @return number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the ratio of the validations answered from the cache.
+     *
+     * @return hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Save the cached results to the store file given to the constructor.
+     *
+     * @throws RedPenException when failed to write the store file
+     */
+    public synchronized void save() throws RedPenException {
+        if (store == null) {
+            return;
+        }
+        try {
+            File directory = store.getAbsoluteFile().getParentFile();
+            Files.createDirectories(directory.toPath());
+            Path temporary = Files.createTempFile(directory.toPath(), store.getName(), ".tmp");
+            try {
+                try (OutputStream os = Files.newOutputStream(temporary);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    for (Map.Entry<String, List<CachedError>> entry : entries.entrySet()) {
+                        writeString(out, entry.getKey());
+                        out.writeInt(entry.getValue().size());
+                        for (CachedError error : entry.getValue()) {
+                            writeString(out, error.validatorName);
+                            writeString(out, error.message);
+                            out.writeInt(error.start);
+                            out.writeInt(error.end);
+                            out.writeInt(error.suggestions.size());
+                            for (String suggestion : error.suggestions) {
+                                writeString(out, suggestion);
+                            }
+                        }
+                    }
+                }
+                try {
+                    Files.move(temporary, store.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, store.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new RedPenException(e);
+        }
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(store.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOG.warn("Ignoring validation result cache of another version: " + store);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = readString(in);
+                int errorCount = in.readInt();
+                List<CachedError> errors = new ArrayList<>(errorCount);
+                for (int j = 0; j < errorCount; j++) {
+                    String validatorName = readString(in);
+                    String message = readString(in);
+                    int start = in.readInt();
+                    int end = in.readInt();
+                    List<String> suggestions = new ArrayList<>();
+                    for (int k = in.readInt(); k > 0; k--) {
+                        suggestions.add(readString(in));
+                    }
+                    errors.add(new CachedError(validatorName, message, start, end, suggestions));
+                }
+                entries.put(key, errors);
+            }
+        } catch (IOException e) {
+            LOG.warn("Ignoring broken validation result cache " + store, e);
+            entries.clear();
+        }
+    }
+
+    private synchronized String getFingerprint(Validator validator) {
+        Fingerprint fingerprint = fingerprints.get(validator);
+        // a validator initialized again with another configuration gets a new fingerprint
+        if (fingerprint == null || fingerprint.config != validator.config
+            || fingerprint.globalConfig != validator.globalConfig) {
+            fingerprint = new Fingerprint(validator.config, validator.globalConfig, fingerprint(validator));
+            fingerprints.put(validator, fingerprint);
+        }
+        return fingerprint.value;
+    }
+
+    private static String fingerprint(Validator validator) {
+        StringBuilder settings = new StringBuilder(validator.getClass().getName())
+            .append('\u0000').append(RedPen.VERSION)
+            .append('\u0000').append(validator.getLocale());
+        if (validator.globalConfig != null) {
+            settings.append('\u0000').append(validator.globalConfig.getKey())
+                .append('\u0000').append(validator.globalConfig.getSymbolTable());
+        }
+        if (validator.config != null) {
+            for (Map.Entry<String, String> property : new TreeMap<>(validator.config.getProperties()).entrySet()) {
+                settings.append('\u0000').append(property.getKey()).append('=').append(property.getValue());
+                // user dictionaries may change while their names stay the same
+                File file = findFile(validator, property.getValue());
+                if (file != null) {
+                    settings.append(':').append(file.lastModified()).append(':').append(file.length());
+                }
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest(settings.toString().getBytes(StandardCharsets.UTF_8))) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    private static File findFile(Validator validator, String value) {
+        if (value == null || value.isEmpty() || validator.globalConfig == null) {
+            return null;
+        }
+        try {
+            File file = validator.globalConfig.findFile(value);
+            return file.isFile() ? file : null;
+        } catch (RedPenException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class CachedError {
+        final String validatorName;
+        final String message;
+        final int start;
+        final int end;
+        final List<String> suggestions;
+
+        CachedError(String validatorName, String message, int start, int end, List<String> suggestions) {
+            this.validatorName = validatorName;
+            this.message = message;
+            this.start = start;
+            this.end = end;
+            this.suggestions = suggestions;
+        }
+
+        ValidationError anchor(Sentence sentence) {
+            if (start < 0) {
+                return new ValidationError(validatorName, message, sentence);
+            }
+            return new ValidationError(validatorName, message, sentence, start, end, suggestions);
+        }
+    }
+
+    private static class Fingerprint {
+        final ValidatorConfiguration config;
+        final Configuration globalConfig;
+        final String value;
+
+        Fingerprint(ValidatorConfiguration config, Configuration globalConfig, String value) {
+            this.config = config;
+            this.globalConfig = globalConfig;
+            this.value = value;
+        }
+    }
+}
@@ -28,17 +28,17 @@ import cc.redpen.parser.LineOffset;
 import cc.redpen.tokenizer.TokenElement;
 import cc.redpen.util.DictionaryLoader;
 import cc.redpen.util.RuleExtractor;
+import cc.redpen.util.WordListLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.text.MessageFormat;
 import java.util.*;
 
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Double.parseDouble;
 import static java.lang.Integer.parseInt;
-import static java.util.ResourceBundle.Control.FORMAT_DEFAULT;
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -47,10 +47,9 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public abstract class Validator {
     private static final Logger LOG = LoggerFactory.getLogger(Validator.class);
-    private final static ResourceBundle.Control fallbackControl = ResourceBundle.Control.getNoFallbackControl(FORMAT_DEFAULT);
-
     private Map<String, Object> defaultProps;
-    private ResourceBundle errorMessages = null;
+    // values of the properties parsed once the validator is initialized
+    private ValidatorProperties properties;
     protected ValidatorConfiguration config;
     protected Configuration globalConfig;
     private Locale locale;
@@ -131,6 +130,17 @@ public abstract class Validator {
     public void validate(Section section) {
     }
 
+    /**
+     * Return true if the errors reported by {@link #validate(Sentence)} depend only on the content and the tokens
+     * of the sentence and on the configuration, so they can be reused for other sentences with the same content.
+     * Validators keeping state between sentences or looking at the position of the sentence must return false.
+     *
+     * @return true if the sentence validation results can be cached
+     */
+    protected boolean isSentenceLocal() {
+        return false;
+    }
+
     /**
      * Return an array of languages supported by this validator
      * {@link cc.redpen.validator.Validator} provides empty implementation. Validator implementation validates sections can override this method.
@@ -144,23 +154,41 @@ public abstract class Validator {
     public void preInit(ValidatorConfiguration config, Configuration globalConfig) throws RedPenException {
         this.config = config;
         this.globalConfig = globalConfig;
+        this.properties = null;
         init();
+        this.properties = resolveProperties();
     }
 
-    void setLocale(Locale locale) {
-        this.locale = locale;
-        // getPackage() would return null for default package
-        String packageName = this.getClass().getPackage() != null ? this.getClass().getPackage().getName() : "";
+    /**
+     * Parse the properties declared with default values into the types of the default values, so the getters
+     * do not parse them on every call.
+     */
+    private ValidatorProperties resolveProperties() throws RedPenException {
         try {
-            errorMessages = ResourceBundle.getBundle(packageName + "." + this.getClass().getSimpleName(), locale, fallbackControl);
-        } catch (MissingResourceException ignore) {
-            try {
-                errorMessages = ResourceBundle.getBundle(packageName + ".error-messages", locale, fallbackControl);
-            } catch (MissingResourceException ignoreAgain) {
-            }
+            return ValidatorProperties.resolve(defaultProps, (name, defaultValue) -> {
+                if (defaultValue instanceof Integer) {
+                    return getInt(name);
+                } else if (defaultValue instanceof Float) {
+                    return getFloat(name);
+                } else if (defaultValue instanceof Boolean) {
+                    return getBoolean(name);
+                } else if (defaultValue instanceof Set) {
+                    return getSet(name);
+                } else if (defaultValue instanceof Map) {
+                    return getMap(name);
+                }
+                return getOrDefault(name);
+            });
+        } catch (NumberFormatException e) {
+            throw new RedPenException("Invalid property value of " + validatorName + ": " + e.getMessage(), e);
         }
     }
 
+    void setLocale(Locale locale) {
+        // the message resources are looked up when the first error is reported
+        this.locale = locale;
+    }
+
     /**
      * Return the configuration properties
      *
@@ -179,12 +207,24 @@ public abstract class Validator {
     protected void init() throws RedPenException {
     }
 
+    Locale getLocale() {
+        return locale;
+    }
+
     public Map<String, Object> getProperties() {
         return defaultProps;
     }
 
+    private ValidatorProperties.Property getProperty(String name) {
+        return properties != null ? properties.get(name) : null;
+    }
+
     Object getOrDefault(String name){
-        Object value = null;
+        ValidatorProperties.Property property = getProperty(name);
+        Object value = property != null ? property.value : null;
+        if(value != null) {
+            return value;
+        }
         if(config != null){
             value = config.getProperty(name);
         }
@@ -195,6 +235,10 @@ public abstract class Validator {
     }
 
     protected int getInt(String name) {
+        ValidatorProperties.Property property = getProperty(name);
+        if (property != null && property.type == ValidatorProperties.Type.INT) {
+            return property.intValue;
+        }
         Object value = getOrDefault(name);
         if(value instanceof Integer) {
             return (int) value;
@@ -204,6 +248,10 @@ public abstract class Validator {
     }
 
     protected float getFloat(String name) {
+        ValidatorProperties.Property property = getProperty(name);
+        if (property != null && property.type == ValidatorProperties.Type.FLOAT) {
+            return property.floatValue;
+        }
         Object value = getOrDefault(name);
         if(value instanceof Float) {
             return (float) value;
@@ -213,10 +261,19 @@ public abstract class Validator {
     }
 
     protected String getString(String name) {
+        ValidatorProperties.Property property = getProperty(name);
+        Object value = property != null ? property.value : null;
+        if(value instanceof String) {
+            return (String) value;
+        }
         return config.getProperties().getOrDefault(name, (String) defaultProps.get(name));
     }
 
     protected boolean getBoolean(String name) {
+        ValidatorProperties.Property property = getProperty(name);
+        if (property != null && property.type == ValidatorProperties.Type.BOOLEAN) {
+            return property.booleanValue;
+        }
         Object value = getOrDefault(name);
         if(value instanceof Boolean) {
             return (boolean) value;
@@ -227,7 +284,12 @@ public abstract class Validator {
 
     @SuppressWarnings("unchecked")
     protected Set<String> getSet(String name) {
-        Object value = null;
+        ValidatorProperties.Property property = getProperty(name);
+        Object value = property != null ? property.value : null;
+        if(value instanceof Set) {
+            return (Set<String>) value;
+        }
+        value = null;
         if(config != null){
             value = config.getProperty(name);
         }
@@ -247,7 +309,12 @@ public abstract class Validator {
 
     @SuppressWarnings("unchecked")
     protected Map<String, String> getMap(String name) {
-        Object value = null;
+        ValidatorProperties.Property property = getProperty(name);
+        Object value = property != null ? property.value : null;
+        if(value instanceof Map) {
+            return (Map<String,String>) value;
+        }
+        value = null;
         if(config != null){
             value = config.getProperty(name);
         }
@@ -370,7 +437,7 @@ public abstract class Validator {
      * @param args              objects to format
      */
     protected void addLocalizedError(Sentence sentenceWithError, Object... args) {
-        errors.add(new ValidationError(this.validatorName, getLocalizedErrorMessage(null, args), sentenceWithError));
+        errors.add(localizedError(null, sentenceWithError, args));
     }
 
     /**
@@ -381,7 +448,7 @@ public abstract class Validator {
      * @param args              objects to format
      */
     protected void addLocalizedError(String messageKey, Sentence sentenceWithError, Object... args) {
-        errors.add(new ValidationError(this.validatorName, getLocalizedErrorMessage(messageKey, args), sentenceWithError));
+        errors.add(localizedError(messageKey, sentenceWithError, args));
     }
 
     /**
@@ -399,6 +466,20 @@ public abstract class Validator {
         );
     }
 
+    /**
+     * create a ValidationError using the details within the given token &amp; localized message, suggesting
+     * replacements of the token
+     *
+     * @param sentenceWithError sentence
+     * @param token             the TokenElement that has the error
+     * @param suggestions       suggested replacements of the token, the best first
+     */
+    protected void addLocalizedErrorFromToken(Sentence sentenceWithError, TokenElement token, List<String> suggestions) {
+        int start = token.getOffset();
+        errors.add(localizedError(null, sentenceWithError, start, start + token.getSurface().length(),
+                new Object[]{token.getSurface()}, suggestions));
+    }
+
     /**
      * create a ValidationError for the specified position with default localized error message
      *
@@ -423,24 +504,43 @@ public abstract class Validator {
      */
     protected void addLocalizedErrorWithPosition(String messageKey, Sentence sentenceWithError,
                                                  int start, int end, Object... args) {
-        errors.add(new ValidationError(this.validatorName, getLocalizedErrorMessage(messageKey, args), sentenceWithError, start, end));
+        errors.add(localizedError(messageKey, sentenceWithError, start, end, args, emptyList()));
+    }
+
+    private ValidationError localizedError(String messageKey, Sentence sentenceWithError, Object[] args) {
+        return new ValidationError(this.validatorName, getMessageTemplate(messageKey), MessageTemplate.freeze(args),
+                sentenceWithError);
+    }
+
+    private ValidationError localizedError(String messageKey, Sentence sentenceWithError, int start, int end,
+                                           Object[] args, List<String> suggestions) {
+        return new ValidationError(this.validatorName, getMessageTemplate(messageKey), MessageTemplate.freeze(args),
+                sentenceWithError, start, end, suggestions);
     }
 
     /**
      * returns localized error message for the given key formatted with argument
+     * <p>
+     * The message is rendered from {@link #getMessageTemplate(String)}, which is also used by the localized
+     * errors, so validators customize their messages by returning their own templates.
      *
      * @param key  message key
      * @param args objects to format
      * @return localized error message
      */
     protected String getLocalizedErrorMessage(String key, Object... args) {
-        if (errorMessages != null) {
-            String suffix = key != null ? "." + key : "";
-            MessageFormat fmt = new MessageFormat(errorMessages.getString(this.getClass().getSimpleName() + suffix), locale);
-            return fmt.format(args);
-        } else {
-            throw new AssertionError("message resource not found.");
-        }
+        return getMessageTemplate(key).format(args);
+    }
+
+    /**
+     * returns the template of the localized error message for the given key, shared by the instances of the
+     * validator class unless overridden
+     *
+     * @param key message key
+     * @return message template
+     */
+    protected MessageTemplate getMessageTemplate(String key) {
+        return MessageTemplate.of(getClass(), key, locale);
     }
 
 
@@ -534,22 +634,22 @@ public abstract class Validator {
                 } else {
                     LOG.error("Skip to load line... Invalid line: " + line);
                 }
-            });
+            }, Collections::unmodifiableMap);
 
     /**
-     * Resource Extractor loads rule dictionary
+     * Resource Extractor loads rule dictionary, compiled into an {@link ExpressionRuleSet}
      */
     protected final static DictionaryLoader<Set<ExpressionRule>> RULE =
-            new DictionaryLoader<>(HashSet::new, (set, line) -> set.add(RuleExtractor.run(line)));
+            new DictionaryLoader<>(HashSet::new, (set, line) -> set.add(RuleExtractor.run(line)), ExpressionRuleSet::new);
 
     /**
      * Resource Extractor loads word list
      */
     protected final static DictionaryLoader<Set<String>> WORD_LIST =
-            new DictionaryLoader<>(HashSet::new, Set::add);
+            new WordListLoader(false);
     /**
      * Resource Extractor loads word list while lowercasting lines
      */
     protected final static DictionaryLoader<Set<String>> WORD_LIST_LOWERCASED =
-            new DictionaryLoader<>(HashSet::new, (set, line) -> set.add(line.toLowerCase()));
+            new WordListLoader(true);
 }
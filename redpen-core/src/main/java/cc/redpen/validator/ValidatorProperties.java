@@ -0,0 +1,107 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the properties of an initialized validator, with each value parsed once into the type
+ * of its default value. Numbers and flags are kept in primitive fields, so reading them does not unbox.
+ */
+final class ValidatorProperties {
+    private final Map<String, Property> values;
+
+    private ValidatorProperties(Map<String, Property> values) {
+        this.values = values;
+    }
+
+    /**
+     * Receives the value of a property with the type of its default value.
+     */
+    @FunctionalInterface
+    interface Resolver {
+        Object resolve(String name, Object defaultValue);
+    }
+
+    /**
+     * Type of a resolved property.
+     */
+    enum Type {
+        INT, FLOAT, BOOLEAN, OBJECT
+    }
+
+    /**
+     * Resolved value of a property, held in the field of its type.
+     */
+    static final class Property {
+        final Type type;
+        final int intValue;
+        final float floatValue;
+        final boolean booleanValue;
+        final Object value;
+
+        private Property(Type type, int intValue, float floatValue, boolean booleanValue, Object value) {
+            this.type = type;
+            this.intValue = intValue;
+            this.floatValue = floatValue;
+            this.booleanValue = booleanValue;
+            this.value = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Property of(Object value) {
+            if (value instanceof Integer) {
+                return new Property(Type.INT, (int) value, 0, false, value);
+            } else if (value instanceof Float) {
+                return new Property(Type.FLOAT, 0, (float) value, false, value);
+            } else if (value instanceof Boolean) {
+                return new Property(Type.BOOLEAN, 0, 0, (boolean) value, value);
+            } else if (value instanceof Set) {
+                return new Property(Type.OBJECT, 0, 0, false, Collections.unmodifiableSet((Set<String>) value));
+            } else if (value instanceof Map) {
+                return new Property(Type.OBJECT, 0, 0, false,
+                        Collections.unmodifiableMap((Map<String, String>) value));
+            }
+            return new Property(Type.OBJECT, 0, 0, false, value);
+        }
+    }
+
+    /**
+     * Resolve the properties declared by their default values.
+     *
+     * @param defaults default values of the properties, whose types are the types of the properties
+     * @param resolver parses the configured or default value of a property
+     * @return snapshot of the properties
+     */
+    static ValidatorProperties resolve(Map<String, Object> defaults, Resolver resolver) {
+        Map<String, Property> values = new HashMap<>();
+        defaults.forEach((name, defaultValue) -> values.put(name, Property.of(resolver.resolve(name, defaultValue))));
+        return new ValidatorProperties(values);
+    }
+
+    /**
+     * @param name name of a property
+     * @return resolved property, null when the property is not declared by the validator
+     */
+    Property get(String name) {
+        return values.get(name);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator.document;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable table of reference word frequencies.
+ * Words are numbered, so the frequencies and the counts of the words in a document are held in primitive
+ * arrays indexed by word. The table is a read-only map of the reference frequencies, so that it can be
+ * loaded and shared like the other dictionaries.
+ */
+final class WordFrequencyTable extends AbstractMap<String, Double> {
+    private final String[] words;
+    private final double[] frequencies;
+    // open addressing table of the word indices, -1 for empty slots
+    private final int[] slots;
+
+    WordFrequencyTable(Map<String, Double> frequencies) {
+        int size = frequencies.size();
+        this.words = new String[size];
+        this.frequencies = new double[size];
+        this.slots = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1];
+        Arrays.fill(slots, -1);
+
+        int index = 0;
+        for (Map.Entry<String, Double> entry : frequencies.entrySet()) {
+            words[index] = entry.getKey();
+            this.frequencies[index] = entry.getValue();
+            slots[findSlot(entry.getKey())] = index;
+            index++;
+        }
+    }
+
+    /**
+     * Get the table of the given reference frequencies.
+     *
+     * @param frequencies reference word frequencies, in percents
+     * @return the given frequencies if they are a table, a new table of them otherwise
+     */
+    static WordFrequencyTable of(Map<String, Double> frequencies) {
+        return frequencies instanceof WordFrequencyTable ? (WordFrequencyTable) frequencies
+                : new WordFrequencyTable(frequencies);
+    }
+
+    /**
+     * Fills the deviations of the frequencies from their mean, in percents.
+     *
+     * @param frequencies word frequencies, in percents
+     * @param size        number of frequencies
+     * @param deviations  array that gets filled with the deviation of each frequency
+     * @return the standard deviation of the frequencies
+     */
+    static double initDeviations(double[] frequencies, int size, double[] deviations) {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += frequencies[i];
+        }
+        double total = 100.0;
+        double mean = sum / total;
+        sum = 0;
+
+        for (int i = 0; i < size; i++) {
+            double diff = frequencies[i] - mean;
+            sum += diff * diff;
+        }
+        double stddev = Math.sqrt(sum / total);
+
+        for (int i = 0; i < size; i++) {
+            deviations[i] = Math.abs(frequencies[i] - mean);
+        }
+        return stddev;
+    }
+
+    private int findSlot(String word) {
+        int mask = slots.length - 1;
+        int slot = word.hashCode() & mask;
+        while (slots[slot] >= 0 && !words[slots[slot]].equals(word)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param word a word
+     * @return index of the word, -1 when the word is not in the table
+     */
+    int indexOf(String word) {
+        return slots[findSlot(word)];
+    }
+
+    @Override
+    public int size() {
+        return words.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public Double get(Object key) {
+        int index = key instanceof String ? indexOf((String) key) : -1;
+        return index >= 0 ? frequencies[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, Double>> entrySet() {
+        return new AbstractSet<Entry<String, Double>>() {
+            @Override
+            public Iterator<Entry<String, Double>> iterator() {
+                return new Iterator<Entry<String, Double>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < words.length;
+                    }
+
+                    @Override
+                    public Entry<String, Double> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Double> entry = new SimpleImmutableEntry<>(words[index], frequencies[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return words.length;
+            }
+        };
+    }
+
+    String getWord(int index) {
+        return words[index];
+    }
+
+    /**
+     * @param index index of a word
+     * @return reference frequency of the word, in percents
+     */
+    double getFrequency(int index) {
+        return frequencies[index];
+    }
+}
@@ -26,6 +26,7 @@ import cc.redpen.util.DictionaryLoader;
 import cc.redpen.validator.sentence.SpellingDictionaryValidator;
 
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,13 +36,20 @@ import java.util.Map;
 public class WordFrequencyValidator extends SpellingDictionaryValidator {
 
     private static final String DEFAULT_RESOURCE_PATH = "default-resources/word-frequency";
-
-    // reference set of word frequencies
-    private Map<String, Double> referenceWordFrequencies;
-    // how the reference words deviate from their average use
-    private Map<String, Double> referenceWordDeviations;
-    // the occurance of words in the document
-    private Map<String, Integer> documentWordOccurances = new HashMap<>();
+    // reference tables are built once per language and shared
+    private static final DictionaryLoader<Map<String, Double>> WORD_FREQUENCIES =
+            new DictionaryLoader<>(HashMap::new, (map, line) -> {
+                String[] fields = line.split(" ");
+                map.put(fields[1], Double.valueOf(fields[0]));
+            }, WordFrequencyTable::new);
+
+    // reference set of word frequencies, with how the words deviate from their average use
+    private WordFrequencyTable referenceWordFrequencies;
+    // the occurance of words in the document, indexed as in the reference
+    private int[] documentWordOccurances;
+    // the reference words found in the document, in order of appearance
+    private int[] documentWords;
+    private int documentWordCount = 0;
     // the number of words in the document
     private int wordCount = 0;
     // one ugly side-effect of using forEach...
@@ -56,13 +64,10 @@ public class WordFrequencyValidator extends SpellingDictionaryValidator {
     protected void init() throws RedPenException {
         super.init();
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH + "/word-frequency-" + getSymbolTable().getLang() + ".dat";
-        referenceWordDeviations = new HashMap<>();
-        referenceWordFrequencies =
-                new DictionaryLoader<Map<String, Double>>(HashMap::new, (set, line) -> {
-                    String[] fields = line.split(" ");
-                    set.put(fields[1], Double.valueOf(fields[0]));
-                }).loadCachedFromResource(defaultDictionaryFile, "word frequencies");
-        initDeviations(referenceWordFrequencies, referenceWordDeviations);
+        referenceWordFrequencies = WordFrequencyTable.of(
+                WORD_FREQUENCIES.loadCachedFromResource(defaultDictionaryFile, "word frequencies"));
+        documentWordOccurances = new int[referenceWordFrequencies.size()];
+        documentWords = new int[16];
     }
 
     /**
@@ -71,12 +76,13 @@ public class WordFrequencyValidator extends SpellingDictionaryValidator {
     private void processSentence(Sentence sentence) {
         for (TokenElement token : sentence.getTokens()) {
             String word = token.getSurface().toLowerCase();
-            if (referenceWordDeviations.get(word) != null) {
-                Integer occurrences = documentWordOccurances.get(word);
-                if (occurrences == null) {
-                    documentWordOccurances.put(word, 1);
-                } else {
-                    documentWordOccurances.put(word, occurrences + 1);
+            int index = referenceWordFrequencies.indexOf(word);
+            if (index >= 0) {
+                if (documentWordOccurances[index]++ == 0) {
+                    if (documentWordCount == documentWords.length) {
+                        documentWords = Arrays.copyOf(documentWords, documentWordCount * 2);
+                    }
+                    documentWords[documentWordCount++] = index;
                 }
                 wordCount++;
             } else if (!dictionaryExists() || inDictionary(word)) {
@@ -85,34 +91,6 @@ public class WordFrequencyValidator extends SpellingDictionaryValidator {
         }
     }
 
-    /**
-     * Initializes the deviations map with root of each word's variance
-     *
-     * @param histogram  word frequency histogram
-     * @param deviations a map that gets filled with each words variance
-     * @return the standard deviation of the histogram
-     */
-    private double initDeviations(Map<String, Double> histogram, Map<String, Double> deviations) {
-        double sum = 0;
-        for (String word : histogram.keySet()) {
-            sum += histogram.get(word);
-        }
-        double size = 100.0;
-        double mean = sum / size;
-        sum = 0;
-
-        for (String word : histogram.keySet()) {
-            double diff = histogram.get(word) - mean;
-            sum += diff * diff;
-        }
-        double stddev = Math.sqrt(sum / size);
-
-        for (String word : histogram.keySet()) {
-            deviations.put(word, Math.abs(histogram.get(word) - mean));
-        }
-        return stddev;
-    }
-
     @Override
     public void validate(Document document) {
         // process each sentence in the document
@@ -128,35 +106,32 @@ public class WordFrequencyValidator extends SpellingDictionaryValidator {
 
         // don't validate if the document is too short
         if (wordCount >= getInt("min_word_count")) {
-            Map<String, Double> documentWordFrequencies = new HashMap<>();
-
-            documentWordOccurances.forEach((word, count) -> {
-                documentWordFrequencies.put(word, 100.0 * (double) count / (double) wordCount);
-            });
+            double[] documentWordFrequencies = new double[documentWordCount];
+            for (int i = 0; i < documentWordCount; i++) {
+                documentWordFrequencies[i] = 100.0 * (double) documentWordOccurances[documentWords[i]] / (double) wordCount;
+            }
 
             DecimalFormat df = new DecimalFormat("0.00");
 
-            Map<String, Double> documentDeviations = new HashMap<>();
-            double stddev = initDeviations(documentWordFrequencies, documentDeviations);
-            documentDeviations.forEach((word, deviation) -> {
-                Double referenceDeviation = referenceWordDeviations.get(word);
-                if (referenceDeviation != null) {
-                    double devRatio = deviation / stddev;
-                    double docPercentage = documentWordFrequencies.get(word);
-                    double referencePercentage = referenceWordFrequencies.get(word);
-
-                    // if the word deviates significantly from the norm and also from the reference percentage,
-                    // then raise an error
-                    if ((devRatio > 1) && (docPercentage > referencePercentage * getFloat("deviation_factor"))) {
-                        addLocalizedError(
-                                "WordUsedTooFrequently",
-                                lastSentence,
-                                word,
-                                df.format(docPercentage),
-                                df.format(referencePercentage));
-                    }
+            double[] documentDeviations = new double[documentWordCount];
+            double stddev = WordFrequencyTable.initDeviations(documentWordFrequencies, documentWordCount, documentDeviations);
+            double deviationFactor = getFloat("deviation_factor");
+            for (int i = 0; i < documentWordCount; i++) {
+                double devRatio = documentDeviations[i] / stddev;
+                double docPercentage = documentWordFrequencies[i];
+                double referencePercentage = referenceWordFrequencies.getFrequency(documentWords[i]);
+
+                // if the word deviates significantly from the norm and also from the reference percentage,
+                // then raise an error
+                if ((devRatio > 1) && (docPercentage > referencePercentage * deviationFactor)) {
+                    addLocalizedError(
+                            "WordUsedTooFrequently",
+                            lastSentence,
+                            referenceWordFrequencies.getWord(documentWords[i]),
+                            df.format(docPercentage),
+                            df.format(referencePercentage));
                 }
-            });
+            }
         }
     }
 }
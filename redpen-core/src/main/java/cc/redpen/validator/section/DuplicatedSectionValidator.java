@@ -21,6 +21,8 @@ import cc.redpen.model.Paragraph;
 import cc.redpen.model.Section;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.util.MinHashLSH;
+import cc.redpen.util.SparseVector;
 import cc.redpen.validator.Validator;
 
 import java.util.*;
@@ -29,13 +31,22 @@ import java.util.*;
  * DuplicatedSectionValidator check if there are highly similar section pairs.
  */
 final public class DuplicatedSectionValidator extends Validator {
+    // bands and rows of the MinHash signatures, to find pairs with a low word overlap as candidates
+    private static final int LSH_BANDS = 16;
+    private static final int LSH_ROWS = 2;
+
     private List<SectionVector> sectionVectors = new ArrayList<>();
+    // indices of the pre-validated sections in the section vectors
+    private Map<Section, Integer> sectionIndices = new IdentityHashMap<>();
+    // ids of the words of the sections
+    private Map<String, Integer> wordIds = new HashMap<>();
+    private MinHashLSH candidateFilter;
 
     class SectionVector {
         public final Sentence header;
-        public final Map<String, Integer> sectionVector;
+        public final SparseVector sectionVector;
 
-        public SectionVector(Sentence header, Map<String, Integer> vector) {
+        public SectionVector(Sentence header, SparseVector vector) {
             this.header = header;
             this.sectionVector = vector;
         }
@@ -50,83 +61,89 @@ final public class DuplicatedSectionValidator extends Validator {
     }
 
     public DuplicatedSectionValidator() {
-        super("threshold", 0.9f); // Default threshold (Cosine similarity).
+        super("threshold", 0.9f, // Default threshold (Cosine similarity).
+                "use_lsh", false); // Compare only the sections found similar by MinHash
     }
 
     @Override
     public void preValidate(Section section) {
-        Map<String, Integer> sectionVector = extractWordFrequency(section);
-        this.sectionVectors.add(new SectionVector(section.getHeaderContent(0), sectionVector));
+        SectionVector sectionVector = new SectionVector(section.getHeaderContent(0), extractWordFrequency(section));
+        this.sectionIndices.put(section, sectionVectors.size());
+        this.sectionVectors.add(sectionVector);
     }
 
-    private Map<String, Integer> extractWordFrequency(Section section) {
-        Map<String, Integer> sectionVector = new HashMap<>();
+    private SparseVector extractWordFrequency(Section section) {
+        int[] words = new int[16];
+        int length = 0;
         for (Paragraph paragraph : section.getParagraphs()) {
             for (Sentence sentence : paragraph.getSentences()) {
-                addWords(sectionVector, sentence);
+                words = addWords(words, length, sentence);
+                length += sentence.getTokens().size();
             }
         }
         // apply to sentences in section header
         for (Sentence headerSentence : section.getHeaderContents()) {
-            addWords(sectionVector, headerSentence);
+            words = addWords(words, length, headerSentence);
+            length += headerSentence.getTokens().size();
         }
-        return sectionVector;
+        return SparseVector.of(words, length);
     }
 
     @Override
     public void validate(Section section) {
-        Map<String, Integer> targetVector = extractWordFrequency(section);
-        for (SectionVector sectionVector : sectionVectors) {
-            Map<String, Integer> candidateVector = sectionVector.sectionVector;
-            // NOTE: not header.equals() since the we need check if the references are identical
-            if (sectionVector.header != section.getHeaderContent(0) &&
-                    calcCosine(targetVector, candidateVector) > getFloat("threshold")) {
-                Optional<Sentence> header = Optional.ofNullable(section.getHeaderContent(0));
-                //NOTE: without the following information, addLocaledError cannot create an error.
-                //FIXME: ideally document.builder should take a responsibility not to have void paragraph and header.
-                if (section.getNumberOfParagraphs() == 0 || sectionVector.header == null) {
-                    continue;
-                }
-                addLocalizedError(header.orElse(section.getParagraph(0).getSentence(0)),
-                        sectionVector.header.getLineNumber());
+        Integer index = sectionIndices.get(section);
+        SectionVector target = index != null ? sectionVectors.get(index)
+                : new SectionVector(section.getHeaderContent(0), extractWordFrequency(section));
+        double threshold = getFloat("threshold");
+        if (getBoolean("use_lsh") && index != null) {
+            BitSet candidates = getCandidateFilter().getCandidates(index);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                validate(section, target, sectionVectors.get(i), threshold);
+            }
+        } else {
+            for (SectionVector sectionVector : sectionVectors) {
+                validate(section, target, sectionVector, threshold);
             }
         }
     }
 
-    private double calcCosine(Map<String, Integer> targetVector,
-            Map<String, Integer> argumentVector) {
-        int innerProduct = 0;
-        int targetVecLen = calcLength(targetVector);
-        int argumentVecLen = calcLength(argumentVector);
-
-        if (targetVecLen == 0 || argumentVecLen == 0) {
-            return 0.0;
-        }
-
-        for (String word : targetVector.keySet()) {
-            if (argumentVector.containsKey(word)) {
-                innerProduct += targetVector.get(word) * argumentVector.get(word);
+    private void validate(Section section, SectionVector target, SectionVector sectionVector, double threshold) {
+        // NOTE: not header.equals() since the we need check if the references are identical
+        if (sectionVector.header != section.getHeaderContent(0) &&
+                target.sectionVector.cosine(sectionVector.sectionVector) > threshold) {
+            Optional<Sentence> header = Optional.ofNullable(section.getHeaderContent(0));
+            //NOTE: without the following information, addLocaledError cannot create an error.
+            //FIXME: ideally document.builder should take a responsibility not to have void paragraph and header.
+            if (section.getNumberOfParagraphs() == 0 || sectionVector.header == null) {
+                return;
             }
+            addLocalizedError(header.orElse(section.getParagraph(0).getSentence(0)),
+                    sectionVector.header.getLineNumber());
         }
-        return innerProduct / (Math.sqrt(targetVecLen) * Math.sqrt(argumentVecLen));
     }
 
-    private int calcLength(Map<String, Integer> targetVector) {
-        int length = 0;
-        for (String word : targetVector.keySet()) {
-            length += targetVector.get(word) * targetVector.get(word);
+    private MinHashLSH getCandidateFilter() {
+        if (candidateFilter == null) {
+            // all the sections have been pre-validated
+            candidateFilter = new MinHashLSH(LSH_BANDS, LSH_ROWS);
+            sectionVectors.forEach(sectionVector -> candidateFilter.add(sectionVector.sectionVector));
         }
-        return length;
+        return candidateFilter;
     }
 
-    private void addWords(Map<String, Integer> sectionVector, Sentence sentence) {
-        for (TokenElement token : sentence.getTokens()) {
-            String surface = token.getSurface();
-            if (!sectionVector.containsKey(surface)){
-                sectionVector.put(surface, 0);
+    private int[] addWords(int[] words, int length, Sentence sentence) {
+        List<TokenElement> tokens = sentence.getTokens();
+        if (length + tokens.size() > words.length) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, length + tokens.size()));
+        }
+        for (TokenElement token : tokens) {
+            Integer id = wordIds.get(token.getSurface());
+            if (id == null) {
+                id = wordIds.size();
+                wordIds.put(token.getSurface(), id);
             }
-            Integer currentNum = sectionVector.get(surface);
-            sectionVector.put(surface, ++currentNum);
+            words[length++] = id;
         }
+        return words;
     }
 }
@@ -38,6 +38,11 @@ public final class CommaNumberValidator extends Validator {
         return getInt("max_num");
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         String content = sentence.getContent();
@@ -21,6 +21,7 @@ import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
 import cc.redpen.validator.ExpressionRule;
+import cc.redpen.validator.ExpressionRuleSet;
 import cc.redpen.validator.Validator;
 
 import java.util.List;
@@ -37,17 +38,16 @@ public class DoubleNegativeValidator extends Validator {
             "default-resources/double-negative/double-negative-expression-";
     private static final String DEFAULT_RESOURCE_WORD_PATH =
             "default-resources/double-negative/double-negative-word-";
-    private Set<ExpressionRule> invalidExpressions;
+    private ExpressionRuleSet invalidExpressions;
     private Set<String> negativeWords;
 
     @Override
     public void validate(Sentence sentence) {
         // validate with expressions (phrase)
-        for (ExpressionRule rule : invalidExpressions) {
-            if (rule.match(sentence.getTokens())) {
-                addLocalizedError(sentence, rule.toString());
-                return;
-            }
+        Set<ExpressionRule> rules = invalidExpressions.findMatchingRules(sentence.getTokens());
+        if (!rules.isEmpty()) {
+            addLocalizedError(sentence, rules.iterator().next().toString());
+            return;
         }
 
         // validate with set of negative words
@@ -68,9 +68,9 @@ public class DoubleNegativeValidator extends Validator {
 
     @Override
     protected void init() throws RedPenException {
-        invalidExpressions = RULE.loadCachedFromResource(
+        invalidExpressions = ExpressionRuleSet.of(RULE.loadCachedFromResource(
                 DEFAULT_RESOURCE_EXPRESSION_PATH + getSymbolTable().getLang() + ".dat",
-                "double negative expression rules");
+                "double negative expression rules"));
 
         negativeWords = WORD_LIST_LOWERCASED.loadCachedFromResource(
                 DEFAULT_RESOURCE_WORD_PATH + getSymbolTable().getLang() +".dat",
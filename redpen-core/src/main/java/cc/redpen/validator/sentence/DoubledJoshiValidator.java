@@ -41,12 +41,11 @@ public class DoubledJoshiValidator extends DictionaryValidator {
     public void validate(Sentence sentence) {
         Map<String, List<TokenElement>> counts = new HashMap<>();
         Map<TokenElement, Integer> positions = new HashMap<>();
-        Set<String> skipList = getSet("list");
         int id = 0;
         // extract all the Joshi tokens
         for (TokenElement tokenElement : sentence.getTokens()) {
             if (tokenElement.getTags().get(0).equals("助詞") &&
-                    !skipList.contains(tokenElement.getSurface())) {
+                    !inDictionary(tokenElement.getSurface())) {
                 if (!counts.containsKey(tokenElement.getSurface())) {
                     counts.put(tokenElement.getSurface(), new LinkedList<>());
                 }
@@ -38,12 +38,18 @@ public final class DoubledWordValidator extends DictionaryValidator {
             getProperties().put("min_len", 1);
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         Set<String> surfaces = new HashSet<>();
+        int minLength = getInt("min_len");
         for (TokenElement token : sentence.getTokens()) {
             String word = token.getSurface().toLowerCase();
-            if (word.length() >= getInt("min_len") && surfaces.contains(word) && !inDictionary(word)) {
+            if (word.length() >= minLength && surfaces.contains(word) && !inDictionary(word)) {
                 addLocalizedErrorFromToken(sentence, token);
             }
             surfaces.add(word);
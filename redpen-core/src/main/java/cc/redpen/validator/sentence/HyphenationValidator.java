@@ -21,39 +21,37 @@ package cc.redpen.validator.sentence;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
 
+import java.util.List;
+import java.util.StringJoiner;
+
 /**
  * Ensure groups of words that are hyphenated in the dictionary are hyphenated in the sentence
  */
 public class HyphenationValidator extends SpellingDictionaryValidator {
+    // consider hyphenated words of this number of tokens at most
+    private static final int MAX_WORDS = 3;
 
     @Override
     public void validate(Sentence sentence) {
-        // consider hyphenated words of this array's length
-        TokenElement tokens[] = new TokenElement[]{null, null, null, null};
-
-        // combine sequences of tokens together with hyphens and test
-        // for their presence in the dictionary
-        for (int i = 0; i < sentence.getTokens().size(); i++) {
-            for (int j = 0; j < tokens.length - 1; j++) {
-                tokens[j] = i + j < sentence.getTokens().size() ? sentence.getTokens().get(i + j) : null;
+        List<TokenElement> tokens = sentence.getTokens();
+        int[] lastStart = {-1};
+        // look up sequences of tokens in the hyphenated words of the dictionary,
+        // reporting the shortest one at each token
+        getDictionaryPhrases("-").forEachMatch(tokens, (start, end) -> {
+            if (end - start < 2 || end - start > MAX_WORDS || start == lastStart[0]) {
+                return;
             }
-
-            if (tokens[0] != null) {
-                // check all groups to see if they are tokenized in the dictionary
-                String hyphenatedForm = tokens[0].getSurface();
-                for (int j = 1; (j < tokens.length) && (tokens[j] != null); j++) {
-                    hyphenatedForm += "-" + tokens[j].getSurface();
-                    if (inDictionary(hyphenatedForm.toLowerCase())) {
-                        addLocalizedErrorWithPosition(
-                                "HyphenatedInDictionary",
-                                sentence,
-                                tokens[0].getOffset(),
-                                tokens[j].getOffset() + tokens[j].getSurface().length(),
-                                hyphenatedForm);
-                        break;
-                    }
-                }
+            lastStart[0] = start;
+            StringJoiner hyphenatedForm = new StringJoiner("-");
+            for (int i = start; i < end; i++) {
+                hyphenatedForm.add(tokens.get(i).getSurface());
             }
-        }
+            addLocalizedErrorWithPosition(
+                    "HyphenatedInDictionary",
+                    sentence,
+                    tokens.get(start).getOffset(),
+                    tokens.get(end - 1).getOffset() + tokens.get(end - 1).getSurface().length(),
+                    hyphenatedForm.toString());
+        });
     }
 }
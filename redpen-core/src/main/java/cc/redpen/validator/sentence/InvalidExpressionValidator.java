@@ -28,13 +28,14 @@ public final class InvalidExpressionValidator extends DictionaryValidator {
         super("invalid-expression/invalid-expression");
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
-        streamDictionary().forEach(value -> {
-            int startPosition = sentence.getContent().indexOf(value);
-            if (startPosition != -1) {
-                addLocalizedErrorWithPosition(sentence, startPosition, startPosition + value.length(), value);
-            }
-        });
+        forEachDictionaryMatch(sentence.getContent(), (start, end, value) ->
+                addLocalizedErrorWithPosition(sentence, start, end, value));
     }
 }
@@ -28,6 +28,11 @@ import java.util.Set;
  * Validate if there is invalid characters in sentences.
  */
 public final class InvalidSymbolValidator extends Validator {
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         Set<SymbolType> symbolTypes = getSymbolTable().getNames();
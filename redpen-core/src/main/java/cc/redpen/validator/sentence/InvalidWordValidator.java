@@ -39,6 +39,11 @@ public final class InvalidWordValidator extends DictionaryValidator {
         return singletonList(Locale.ENGLISH.getLanguage());
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         for (TokenElement token : sentence.getTokens()) {
@@ -18,72 +18,123 @@
 package cc.redpen.validator.sentence;
 
 import cc.redpen.model.Sentence;
+import cc.redpen.util.AhoCorasick;
 import cc.redpen.validator.Validator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.function.Function;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 /**
  * Validate Japanese document if it contains both Desumasu and Dearu styles.
  */
 public class JapaneseStyleValidator extends Validator {
-    private static final Pattern DEARU_PATTERN = Pattern.compile("である|のだが|であった|あるが|あった|だった");
-    private static final Pattern DESUMASU_PATTERN = Pattern.compile("ですね|でした|ました|でしたが|でしたので|ですので|ですが|です");
+    // expressions of each style, earlier ones taking precedence at the same position
+    private static final List<String> DEARU_EXPRESSIONS =
+            Arrays.asList("である", "のだが", "であった", "あるが", "あった", "だった");
+    private static final List<String> DESUMASU_EXPRESSIONS =
+            Arrays.asList("ですね", "でした", "ました", "でしたが", "でしたので", "ですので", "ですが", "です");
+
+    // precedence of the expressions: dearu ones are non-negative, desumasu ones negative
+    private static final Map<String, Integer> PRECEDENCE = new HashMap<>();
+    private static final AhoCorasick STYLE_MATCHER;
+
+    static {
+        for (int i = 0; i < DEARU_EXPRESSIONS.size(); i++) {
+            PRECEDENCE.put(DEARU_EXPRESSIONS.get(i), i);
+        }
+        for (int i = 0; i < DESUMASU_EXPRESSIONS.size(); i++) {
+            PRECEDENCE.put(DESUMASU_EXPRESSIONS.get(i), -1 - i);
+        }
+        STYLE_MATCHER = AhoCorasick.compile(PRECEDENCE.keySet());
+    }
+
+    // kept with the sentence, so the validation does not scan the sentences found in the pre-validation again
+    private static final Function<String, List<StyleExpression>> STYLE_ANALYSIS = JapaneseStyleValidator::analyze;
 
     private int dearuCount = 0;
     private int desumasuCount = 0;
 
-    @Override
-    public void preValidate(Sentence sentence) {
-        // match content
-        dearuCount += countMatch(sentence, DEARU_PATTERN);
-        desumasuCount += countMatch(sentence, DESUMASU_PATTERN);
+    private static final class StyleExpression {
+        private final int start;
+        private final int end;
+        private final boolean dearu;
+
+        private StyleExpression(int start, int end, boolean dearu) {
+            this.start = start;
+            this.end = end;
+            this.dearu = dearu;
+        }
     }
 
-    private int countMatch(Sentence sentence, Pattern pattern) {
-        String content = sentence.getContent();
-        Matcher mat = pattern.matcher(content);
-        int count = 0;
-        while(mat.find()) {
-            count += 1;
+    @Override
+    public void preValidate(Sentence sentence) {
+        List<StyleExpression> expressions = sentence.getAnalysis(STYLE_ANALYSIS);
+        for (StyleExpression expression : expressions) {
+            if (expression.dearu) {
+                dearuCount++;
+            } else {
+                desumasuCount++;
+            }
         }
-        return count;
     }
 
-    private int countEndMatch(Sentence sentence, Pattern pattern) {
-        String content = sentence.getContent();
-        if (content.length() < 2) {
-            return 0;
+    /**
+     * Find the expressions of both styles in a single pass. For each style, the expressions do not overlap and
+     * the earliest one in the list wins at the same position, as with a regex alternation.
+     */
+    private static List<StyleExpression> analyze(String content) {
+        int[][] best = new int[2][];
+        STYLE_MATCHER.forEachMatch(content, (start, end, pattern) -> {
+            int precedence = PRECEDENCE.get(pattern);
+            int style = precedence >= 0 ? 0 : 1;
+            int rank = precedence >= 0 ? precedence : -1 - precedence;
+            if (best[style] == null) {
+                best[style] = new int[content.length()];
+                Arrays.fill(best[style], -1);
+            }
+            if (best[style][start] < 0 || rank < best[style][start]) {
+                best[style][start] = rank;
+            }
+        });
+        if (best[0] == null && best[1] == null) {
+            return emptyList();
         }
-        int count = 0;
-        Matcher mat = pattern.matcher(content);
-        mat.region(0, content.length()-2);
-        while(mat.find()){
-            count +=1;
+
+        List<StyleExpression> expressions = new ArrayList<>();
+        int[] next = new int[2];
+        for (int start = 0; start < content.length(); start++) {
+            for (int style = 0; style < 2; style++) {
+                if (best[style] != null && start >= next[style] && best[style][start] >= 0) {
+                    String expression = (style == 0 ? DEARU_EXPRESSIONS : DESUMASU_EXPRESSIONS)
+                            .get(best[style][start]);
+                    next[style] = start + expression.length();
+                    expressions.add(new StyleExpression(start, next[style], style == 0));
+                }
+            }
         }
-        return count;
+        return expressions;
     }
 
     @Override
     public void validate(Sentence sentence) {
-        if (dearuCount > desumasuCount) {
-            detectPattern(sentence, DESUMASU_PATTERN);
-        } else {
-            detectPattern(sentence, DEARU_PATTERN);
-        }
-    }
-
-    private void detectPattern(Sentence sentence, Pattern pattern) {
-        Matcher mat = pattern.matcher(sentence.getContent());
-        while(mat.find()){
-            addLocalizedErrorWithPosition(sentence,
-                    mat.start(),
-                    mat.end(),
-                    mat.group());
+        List<StyleExpression> expressions = sentence.getAnalysis(STYLE_ANALYSIS);
+        // report the expressions of the minor style
+        boolean dearu = dearuCount <= desumasuCount;
+        for (StyleExpression expression : expressions) {
+            if (expression.dearu == dearu) {
+                addLocalizedErrorWithPosition(sentence,
+                        expression.start,
+                        expression.end,
+                        sentence.getContent().substring(expression.start, expression.end));
+            }
         }
     }
 
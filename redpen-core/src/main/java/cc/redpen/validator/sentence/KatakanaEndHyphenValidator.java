@@ -23,7 +23,6 @@ import cc.redpen.validator.DictionaryValidator;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
 
 import static java.util.Collections.singletonList;
 
@@ -91,8 +90,7 @@ public final class KatakanaEndHyphenValidator extends DictionaryValidator {
     }
 
     private void checkKatakanaEndHyphen(Sentence sentence, String katakana, int position) {
-        Set<String> customSkipList = getSet("list");
-        if (customSkipList.isEmpty() || !customSkipList.contains(katakana)) {
+        if (!inDictionary(katakana)) {
             if (isKatakanaEndHyphen(katakana)) {
                 addLocalizedErrorWithPosition(sentence, position, position + 1, katakana);
             }
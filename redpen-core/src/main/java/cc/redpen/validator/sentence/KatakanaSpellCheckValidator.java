@@ -19,6 +19,7 @@ package cc.redpen.validator.sentence;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.BKTree;
 import cc.redpen.util.LevenshteinDistance;
 import cc.redpen.util.StringUtils;
 import cc.redpen.validator.DictionaryValidator;
@@ -57,6 +58,10 @@ import static java.util.Collections.singletonList;
      * Katakana word dic with line number.
      */
     private HashMap<String, Integer> dic = new HashMap<>();
+    /**
+     * Index of the words in dic for similarity search.
+     */
+    private BKTree<String> similarWords = new BKTree<>(LevenshteinDistance.DEFAULT::distance);
     /**
      * Exception word list.
      */
@@ -105,39 +110,42 @@ import static java.util.Collections.singletonList;
 
     @Override
     public void validate(Sentence sentence) {
+        // short katakana words are ignored without building them
+        int maxIgnoreLength = getInt("max_ignore_len");
+        int minFrequency = getInt("min_freq");
+        float minRatio = getFloat("min_ratio");
         StringBuilder katakana = new StringBuilder();
         for (int i = 0; i < sentence.getContent().length(); i++) {
             char c = sentence.getContent().charAt(i);
             if (StringUtils.isKatakana(c)) {
                 katakana.append(c);
             } else {
-                this.checkKatakanaSpell(sentence, katakana.toString());
+                if (katakana.length() > maxIgnoreLength) {
+                    this.checkKatakanaSpell(sentence, katakana.toString(), minFrequency, minRatio);
+                }
                 katakana.delete(0, katakana.length());
             }
         }
-        checkKatakanaSpell(sentence, katakana.toString());
+        if (katakana.length() > maxIgnoreLength) {
+            checkKatakanaSpell(sentence, katakana.toString(), minFrequency, minRatio);
+        }
     }
 
-    private void checkKatakanaSpell(Sentence sentence, String katakana) {
-        if (katakana.length() <= getInt("max_ignore_len")) {
-            return;
-        }
+    private void checkKatakanaSpell(Sentence sentence, String katakana, int minFrequency, float minRatio) {
         if (dic.containsKey(katakana) || exceptions.contains(katakana)
-                || getSet("list").contains(katakana) ||
+                || inDictionary(katakana) ||
                 (katakanaWordFrequencies.get(katakana) != null
-                        && katakanaWordFrequencies.get(katakana) > getInt("min_freq"))) {
+                        && katakanaWordFrequencies.get(katakana) > minFrequency)) {
             return;
         }
-        int minLsDistance = Math.round(katakana.length() * getFloat("min_ratio"));
-        boolean found = false;
-        for (String key : dic.keySet()) {
-            if (LevenshteinDistance.getDistance(key, katakana) <= minLsDistance) {
-                found = true;
-                addLocalizedError(sentence, katakana, key, dic.get(key).toString());
-            }
+        int minLsDistance = Math.round(katakana.length() * minRatio);
+        List<String> similar = similarWords.search(katakana, minLsDistance);
+        for (String key : similar) {
+            addLocalizedError(sentence, katakana, key, dic.get(key).toString());
         }
-        if (!found) {
+        if (similar.isEmpty()) {
             dic.put(katakana, sentence.getLineNumber());
+            similarWords.add(katakana);
         }
     }
 
@@ -42,6 +42,7 @@ public final class LongKanjiChainValidator extends DictionaryValidator {
     }
 
     @Override protected void init() throws RedPenException {
+        super.init();
         if (getSymbolTable().getLang().equals("ja") && !getConfigAttribute("max_len").isPresent())
             getProperties().put("max_len", 5);
 
@@ -20,7 +20,9 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.util.AhoCorasick;
 import cc.redpen.validator.ExpressionRule;
+import cc.redpen.validator.ExpressionRuleSet;
 import cc.redpen.validator.Validator;
 
 import java.util.HashSet;
@@ -34,14 +36,16 @@ import static java.util.Collections.singletonList;
 // Checks if the Japanese input sentences contain the invalid Okurigana style.
 public class OkuriganaValidator extends Validator {
     private static final Set<String> invalidOkurigana;
-    private static final Set<ExpressionRule> invalidOkuriganaTokens;
+    private static final ExpressionRuleSet invalidOkuriganaTokens;
+    private static final AhoCorasick invalidOkuriganaMatcher;
 
     static {
-        invalidOkuriganaTokens = new HashSet<>();
-        invalidOkuriganaTokens.add(new ExpressionRule().addElement(new TokenElement("合さ", asList("動詞", "自立"), 0)));
-        invalidOkuriganaTokens.add(new ExpressionRule().addElement(new TokenElement("合し", asList("動詞", "自立"), 0)));
-        invalidOkuriganaTokens.add(new ExpressionRule().addElement(new TokenElement("合す", asList("動詞", "自立"), 0)));
-        invalidOkuriganaTokens.add(new ExpressionRule().addElement(new TokenElement("合せ", asList("動詞", "自立"), 0)));
+        Set<ExpressionRule> rules = new HashSet<>();
+        rules.add(new ExpressionRule().addElement(new TokenElement("合さ", asList("動詞", "自立"), 0)));
+        rules.add(new ExpressionRule().addElement(new TokenElement("合し", asList("動詞", "自立"), 0)));
+        rules.add(new ExpressionRule().addElement(new TokenElement("合す", asList("動詞", "自立"), 0)));
+        rules.add(new ExpressionRule().addElement(new TokenElement("合せ", asList("動詞", "自立"), 0)));
+        invalidOkuriganaTokens = new ExpressionRuleSet(rules);
     }
 
     static {
@@ -131,25 +135,16 @@ public class OkuriganaValidator extends Validator {
         invalidOkurigana.add("懐ろ");
         invalidOkurigana.add("恥かし");
         invalidOkurigana.add("過す");
+        invalidOkuriganaMatcher = AhoCorasick.compile(invalidOkurigana);
     }
 
     @Override
     public void validate(Sentence sentence) {
-        invalidOkurigana.stream().forEach(value -> {
-                    int startPosition = sentence.getContent().indexOf(value);
-                    if (startPosition != -1) {
-                        addLocalizedErrorWithPosition(sentence,
-                               startPosition,
-                               startPosition + value.length(),
-                                value);
-                    }
-                }
-        );
+        invalidOkuriganaMatcher.forEachMatch(sentence.getContent(), (start, end, value) ->
+                addLocalizedErrorWithPosition(sentence, start, end, value));
 
-        for (ExpressionRule rule : invalidOkuriganaTokens) {
-            if (rule.match(sentence.getTokens())) {
-                addLocalizedError(sentence, rule.toString());
-            }
+        for (ExpressionRule rule : invalidOkuriganaTokens.findMatchingRules(sentence.getTokens())) {
+            addLocalizedError(sentence, rule.toString());
         }
     }
 
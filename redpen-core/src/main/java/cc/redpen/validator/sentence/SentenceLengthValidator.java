@@ -28,6 +28,11 @@ public final class SentenceLengthValidator extends Validator {
         super("max_len", 120);
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         int maxLength = getInt("max_len");
@@ -17,10 +17,31 @@
  */
 package cc.redpen.validator.sentence;
 
+import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
 
 public final class SpellingValidator extends SpellingDictionaryValidator {
+    public SpellingValidator() {
+        addDefaultProperties("max_suggestions", 3, // number of suggested words for a misspelled word, 0 to disable
+                "suggestion_distance", 2, // maximum edit distance of the suggested words
+                "suggestion_candidates", 1000); // maximum number of dictionary words compared with a misspelled word
+    }
+
+    @Override
+    protected void init() throws RedPenException {
+        super.init();
+        if (getInt("max_suggestions") > 0) {
+            // built before the validation, so the first misspelled word does not pay for the index
+            getDictionarySuggester();
+        }
+    }
+
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         for (TokenElement token : sentence.getTokens()) {
@@ -28,7 +49,13 @@ public final class SpellingValidator extends SpellingDictionaryValidator {
             if (surface.length() == 0 || surface.matches("\\P{L}+")) continue;
 
             if (dictionaryExists() && !inDictionary(surface)) {
-                addLocalizedErrorFromToken(sentence, token);
+                int maxSuggestions = getInt("max_suggestions");
+                if (maxSuggestions > 0) {
+                    addLocalizedErrorFromToken(sentence, token, suggestDictionaryWords(surface,
+                            getInt("suggestion_distance"), maxSuggestions, getInt("suggestion_candidates")));
+                } else {
+                    addLocalizedErrorFromToken(sentence, token);
+                }
             }
         }
     }
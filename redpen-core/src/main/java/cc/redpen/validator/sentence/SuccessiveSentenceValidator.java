@@ -55,7 +55,7 @@ public class SuccessiveSentenceValidator extends Validator {
             return true;
         }
         // check with edit distance
-        if (LevenshteinDistance.getDistance(sentence.getContent(), prevSentence.getContent()) < getInt("dist")) {
+        if (LevenshteinDistance.DEFAULT.isWithin(sentence.getContent(), prevSentence.getContent(), getInt("dist") - 1)) {
             return true;
         } else {
             return false;
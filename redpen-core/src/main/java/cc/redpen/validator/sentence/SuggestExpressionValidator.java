@@ -19,14 +19,18 @@ package cc.redpen.validator.sentence;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.AhoCorasick;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import static cc.redpen.util.StringUtils.isProbablyJapanese;
 import static java.lang.Character.isLetter;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
@@ -35,23 +39,32 @@ import static org.apache.commons.lang3.StringUtils.isNotEmpty;
  */
 public final class SuggestExpressionValidator extends Validator {
     private static final Logger LOG = LoggerFactory.getLogger(SuggestExpressionValidator.class);
+    private Map<String, String> dictionary = emptyMap();
+    private AhoCorasick matcher;
 
     public SuggestExpressionValidator() {
         super("map", new HashMap<>(), "dict", "");
     }
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         String text = sentence.getContent();
-        getMap("map").keySet().stream().forEach(value -> {
-                int start = text.indexOf(value);
-                if (start < 0) return;
-                int end = start + value.length();
-                boolean hasWordBoundaries = (start == 0 || !isLetter(text.charAt(start - 1))) && (end == text.length() || !isLetter(text.charAt(end)));
-                if (isProbablyJapanese(text.charAt(start)) || hasWordBoundaries) {
-                    addLocalizedErrorWithPosition(sentence, start, end, value, getMap("map").get(value));
-                }
-            });
+        matcher.forEachMatch(text, (start, end, value) -> {
+            boolean hasWordBoundaries = (start == 0 || !isLetter(text.charAt(start - 1))) && (end == text.length() || !isLetter(text.charAt(end)));
+            if (isProbablyJapanese(text.charAt(start)) || hasWordBoundaries) {
+                addLocalizedErrorWithPosition(sentence, start, end, value, getSuggestion(value));
+            }
+        });
+    }
+
+    private String getSuggestion(String value) {
+        String suggestion = dictionary.get(value);
+        return suggestion != null ? suggestion : getMap("map").get(value);
     }
 
     @Override
@@ -60,12 +73,13 @@ public final class SuggestExpressionValidator extends Validator {
         String confFile = getString("dict");
         if (isNotEmpty(confFile)) {
             LOG.info("Dictionary file is " + confFile);
-            getMap("map").putAll(KEY_VALUE.loadCachedFromFile(findFile(confFile), "SuggestExpressionValidator " +
-                    "dictionary"));
+            dictionary = KEY_VALUE.loadCachedFromFile(findFile(confFile), "SuggestExpressionValidator " +
+                    "dictionary");
         }
         else {
             LOG.warn("Dictionary file is not specified");
         }
+        matcher = AhoCorasick.shared(singletonList(dictionary.keySet()), getMap("map").keySet());
     }
 
 }
@@ -34,6 +34,11 @@ import static java.lang.Character.isWhitespace;
  */
 public class SymbolWithSpaceValidator extends Validator {
 
+    @Override
+    protected boolean isSentenceLocal() {
+        return true;
+    }
+
     @Override
     public void validate(Sentence sentence) {
         Set<SymbolType> symbolTypes = getSymbolTable().getNames();
@@ -22,10 +22,16 @@ import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
 import cc.redpen.util.DictionaryLoader;
+import cc.redpen.util.PhraseIndex;
 import cc.redpen.validator.Validator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.StringJoiner;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 
 /**
  * Warn about grammatically weak expressions in the sentence. This is essentially a version of
@@ -35,49 +41,47 @@ public class WeakExpressionValidator extends Validator {
 
     private static final String DEFAULT_RESOURCE_PATH = "default-resources/weak-expressions";
 
-    // a list of weak expressions
-    private List<String> weakExpressions;
+    private static final DictionaryLoader<List<String>> WEAK_EXPRESSIONS =
+            new DictionaryLoader<>(ArrayList::new, (list, line) -> list.add(line.trim().toLowerCase()), Collections::unmodifiableList);
+
+    // consider weak expressions of this number of tokens at most
+    private static final int MAX_WORDS = 5;
+
+    // index of the weak expressions
+    private PhraseIndex weakExpressions;
 
     @Override
     protected void init() throws RedPenException {
         super.init();
 
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH + "/weak-expressions-" + getSymbolTable().getLang() + ".dat";
-        weakExpressions = new DictionaryLoader<List<String>>(ArrayList::new, (list, line) -> list.add(line.trim().toLowerCase()))
-          .loadCachedFromResource(defaultDictionaryFile, "weak expressions");
+        weakExpressions = PhraseIndex.shared(
+                singletonList(WEAK_EXPRESSIONS.loadCachedFromResource(defaultDictionaryFile, "weak expressions")),
+                emptySet(), " ");
     }
 
     /**
-     * Build up sequences of tokens and see if that sequence exists in the weak-expression dictionary
+     * Look up the sequences of tokens in the weak-expression dictionary
      *
      * @param sentence input
      */
     @Override
     public void validate(Sentence sentence) {
-        TokenElement tokens[] = new TokenElement[]{null, null, null, null, null, null};
-
-        for (int i = 0; i < sentence.getTokens().size(); i++) {
-
-            for (int j = 0; j < tokens.length - 1; j++) {
-                tokens[j] = i + j < sentence.getTokens().size() ? sentence.getTokens().get(i + j) : null;
+        List<TokenElement> tokens = sentence.getTokens();
+        weakExpressions.forEachMatch(tokens, (start, end) -> {
+            if (end - start > MAX_WORDS) {
+                return;
             }
-
-            if (tokens[0] != null) {
-                // check all groups to see if they are tokenized in the dictionary
-                String expression = "";
-                for (int j = 0; (j < tokens.length) && (tokens[j] != null); j++) {
-                    expression += ((j > 0) ? " " : "") + tokens[j].getSurface();
-
-                    if (weakExpressions.contains(expression.toLowerCase())) {
-                        addLocalizedErrorWithPosition(
-                                "WeakExpression",
-                                sentence,
-                                tokens[0].getOffset(),
-                                tokens[j].getOffset() + tokens[j].getSurface().length(),
-                                expression);
-                    }
-                }
+            StringJoiner expression = new StringJoiner(" ");
+            for (int i = start; i < end; i++) {
+                expression.add(tokens.get(i).getSurface());
             }
-        }
+            addLocalizedErrorWithPosition(
+                    "WeakExpression",
+                    sentence,
+                    tokens.get(start).getOffset(),
+                    tokens.get(end - 1).getOffset() + tokens.get(end - 1).getSurface().length(),
+                    expression.toString());
+        });
     }
 }
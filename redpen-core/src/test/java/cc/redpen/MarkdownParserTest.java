@@ -24,6 +24,7 @@ import cc.redpen.model.Document;
 import cc.redpen.model.ListBlock;
 import cc.redpen.model.Paragraph;
 import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
 import cc.redpen.parser.BaseParserTest;
 import cc.redpen.parser.DocumentParser;
 import cc.redpen.parser.LineOffset;
@@ -860,6 +861,23 @@ public class MarkdownParserTest extends BaseParserTest {
         assertEquals(0, doc.getSection(0).getParagraph(0).getNumberOfSentences());
     }
 
+    @Test
+    public void testLineNumbersOfLongDocument() throws Exception {
+        StringBuilder sampleText = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            sampleText.append("Sentence ").append(i).append(".\n\n");
+        }
+        Document doc = createFileContent(sampleText.toString());
+        Section section = doc.getSection(0);
+        assertEquals(1000, section.getNumberOfParagraphs());
+        for (int i = 0; i < 1000; i++) {
+            Sentence sentence = section.getParagraph(i).getSentence(0);
+            assertEquals("Sentence " + (i + 1) + ".", sentence.getContent());
+            assertEquals(i * 2 + 1, sentence.getLineNumber());
+            assertEquals(new LineOffset(i * 2 + 1, 0), sentence.getOffset(0).get());
+        }
+    }
+
     private Document createFileContent(String inputDocumentString,
                                        Configuration config) {
         DocumentParser parser = DocumentParser.MARKDOWN;
@@ -84,4 +84,25 @@ public class JSONBySentenceFormatterTest extends Validator {
         assertEquals("InvalidSymbol", error.getString("validator"));
 
     }
+
+    @Test
+    public void testFormatErrorWithoutSentence() throws JSONException {
+        JSONFormatter formatter = new JSONBySentenceFormatter();
+        List<ValidationError> errors = new ArrayList<>();
+        setErrorList(errors);
+        addError("error without sentence", null);
+        addLocalizedError(new Sentence("testing JSONFormatter", 1));
+        Document document = Document.builder().setFileName("docName").build();
+        String result = formatter.format(document, errors);
+
+        JSONArray jsonErrors = new JSONObject(result).getJSONArray("errors");
+        assertEquals(2, jsonErrors.length());
+        JSONObject sentenceErrors = jsonErrors.getJSONObject(0);
+        assertEquals("", sentenceErrors.getString("sentence"));
+        assertEquals(0, sentenceErrors.getJSONObject("position").getJSONObject("start").getInt("line"));
+        JSONObject error = sentenceErrors.getJSONArray("errors").getJSONObject(0);
+        assertEquals("error without sentence", error.getString("message"));
+        assertEquals(0, error.getJSONObject("subsentence").getInt("length"));
+        assertEquals("testing JSONFormatter", jsonErrors.getJSONObject(1).getString("sentence"));
+    }
 }
@@ -117,4 +117,17 @@ public class JSONFormatterTest extends Validator {
         assertEquals("19", jsonErrors.getJSONObject(0).getJSONObject("endPosition").getString("offset"));
     }
 
+    @Test
+    public void testFormatErrorWithoutSentence() throws JSONException {
+        JSONFormatter formatter = new JSONFormatter();
+        List<ValidationError> errors = new ArrayList<>();
+        setErrorList(errors);
+        addError("error without sentence", null);
+        Document document = Document.builder().setFileName("docName").build();
+        String result = formatter.format(document, errors);
+        JSONObject jsonError = new JSONObject(result).getJSONArray("errors").getJSONObject(0);
+        assertEquals("", jsonError.getString("sentence"));
+        assertEquals("error without sentence", jsonError.getString("message"));
+        assertEquals(0, jsonError.getInt("lineNum"));
+    }
 }
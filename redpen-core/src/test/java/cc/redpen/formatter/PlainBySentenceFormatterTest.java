@@ -0,0 +1,48 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.formatter;
+
+import cc.redpen.model.Document;
+import cc.redpen.model.Sentence;
+import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.Validator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PlainBySentenceFormatterTest extends Validator {
+    @Test
+    public void testFormatErrorWithoutSentence() {
+        List<ValidationError> errors = new ArrayList<>();
+        setErrorList(errors);
+        addError("error without sentence", null);
+        addError("error in sentence", new Sentence("This is a sentence", 2, 4));
+        Formatter formatter = new PlainBySentenceFormatter();
+        Document document = Document.builder().setFileName("docName").build();
+        assertEquals("Document: docName\n" +
+                "\tLine: 0, Offset: 0\n" +
+                "\t\tSentence: \n" +
+                "\t\t\tPlainBySentenceFormatterTest: error without sentence\n" +
+                "\tLine: 2, Offset: 4\n" +
+                "\t\tSentence: This is a sentence\n" +
+                "\t\t\tPlainBySentenceFormatterTest: error in sentence\n", formatter.format(document, errors));
+    }
+}
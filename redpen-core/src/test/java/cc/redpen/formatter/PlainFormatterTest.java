@@ -55,4 +55,15 @@ public class PlainFormatterTest extends Validator {
         String resultString = formatter.format(document, validationErrors);
         assertEquals("0: ValidationError[PlainFormatterTest], plain test error at line: This is a sentence\n", resultString);
     }
+
+    @Test
+    public void testConvertValidationErrorWithoutSentence() {
+        List<ValidationError> errors = new ArrayList<>();
+        setErrorList(errors);
+        addError("error without sentence", null);
+        Formatter formatter = new PlainFormatter();
+        Document document = new cc.redpen.model.Document.DocumentBuilder(new WhiteSpaceTokenizer()).build();
+        String resultString = formatter.format(document, errors);
+        assertEquals("0: ValidationError[PlainFormatterTest], error without sentence at line: \n", resultString);
+    }
 }
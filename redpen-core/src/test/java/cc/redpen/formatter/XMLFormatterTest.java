@@ -153,4 +153,19 @@ public class XMLFormatterTest extends Validator {
         }
         return document;
     }
+
+    @Test
+    public void testConvertValidationErrorWithoutSentence() throws RedPenException {
+        List<ValidationError> errors = new ArrayList<>();
+        setErrorList(errors);
+        addError("error without sentence", null);
+        XMLFormatter formatter = new XMLFormatter();
+        String resultString = formatter.format(new cc.redpen.model.Document.DocumentBuilder(new WhiteSpaceTokenizer()).build(), errors);
+
+        Document document = extractDocument(resultString);
+        assertEquals(1, document.getElementsByTagName("error").getLength());
+        assertEquals("error without sentence",
+                document.getElementsByTagName("message").item(0).getTextContent());
+        assertEquals("", document.getElementsByTagName("sentence").item(0).getTextContent());
+    }
 }
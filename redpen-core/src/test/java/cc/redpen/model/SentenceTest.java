@@ -0,0 +1,44 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class SentenceTest {
+    @Test
+    public void testAnalysisIsComputedOncePerContent() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Integer> length = content -> {
+            calls.incrementAndGet();
+            return content.length();
+        };
+        Sentence sentence = new Sentence("This is a pen.", 1);
+        assertEquals(Integer.valueOf(14), sentence.getAnalysis(length));
+        assertEquals(Integer.valueOf(14), sentence.getAnalysis(length));
+        assertEquals(1, calls.get());
+
+        sentence.setContent("A pen.");
+        assertEquals(Integer.valueOf(6), sentence.getAnalysis(length));
+        assertEquals(2, calls.get());
+    }
+}
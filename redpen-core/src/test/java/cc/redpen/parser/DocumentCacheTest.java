@@ -0,0 +1,164 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.Document;
+import cc.redpen.model.ListBlock;
+import cc.redpen.model.ListElement;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Section;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String SAMPLE = "# About RedPen\n\n" +
+        "RedPen is a proofreading tool. It checks [the documents](http://redpen.cc) written in **Markdown**.\n\n" +
+        "## Features\n\n" +
+        "* Sentence length\n" +
+        "    * Spelling\n" +
+        "* Symbols\n\n" +
+        "<!-- @suppress SentenceLength -->\n" +
+        "This is the `last` sentence.\n";
+
+    private Configuration configuration = Configuration.builder().build();
+
+    private Document parse(DocumentCache cache, File file) throws RedPenException {
+        return cache.parse(DocumentParser.MARKDOWN, file,
+            new SentenceExtractor(configuration.getSymbolTable()), configuration.getTokenizer());
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String dump(Document document) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(document.getFileName()).append('\n');
+        for (PreprocessorRule rule : document.getPreprocessorRules()) {
+            builder.append(rule.getRuleType()).append(' ').append(rule.getLineNumber()).append(' ')
+                .append(rule.getLineNumberLimit()).append(rule.getParameters()).append('\n');
+        }
+        for (Section section : document) {
+            builder.append("section ").append(section.getLevel())
+                .append(" parent ").append(section.getParentSection() == null ? "-" : section.getParentSection().getHeaderContents())
+                .append(" subsections ").append(section.getNumberOfSubsections()).append('\n')
+                .append(section.getHeaderContents()).append('\n');
+            for (Paragraph paragraph : section.getParagraphs()) {
+                builder.append(paragraph.getSentences()).append('\n');
+            }
+            for (ListBlock listBlock : section.getListBlocks()) {
+                for (ListElement element : listBlock.getListElements()) {
+                    builder.append(element.getLevel()).append(element.getSentences()).append('\n');
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testSecondParseIsServedFromCache() throws Exception {
+        File file = write("sample.md", SAMPLE);
+        DocumentCache cache = new DocumentCache(folder.newFolder("cache"));
+
+        Document parsed = parse(cache, file);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Document cached = parse(new DocumentCache(new File(folder.getRoot(), "cache")), file);
+        assertEquals(dump(DocumentParser.MARKDOWN.parse(file,
+            new SentenceExtractor(configuration.getSymbolTable()), configuration.getTokenizer())), dump(parsed));
+        assertEquals(dump(parsed), dump(cached));
+        assertEquals(parsed.getFileName(), cached.getFileName());
+        assertEquals(1, cached.getPreprocessorRules().size());
+    }
+
+    @Test
+    public void testFilesOfSameContentKeepTheirNames() throws Exception {
+        File first = write("first.md", SAMPLE);
+        File copy = write("copy.md", SAMPLE);
+        DocumentCache cache = new DocumentCache(folder.newFolder("cache"));
+
+        assertEquals(Optional.of("first.md"), parse(cache, first).getFileName());
+        Document cached = parse(cache, copy);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(Optional.of("copy.md"), cached.getFileName());
+        assertEquals(dump(parse(cache, first)).replaceFirst("first", "copy"), dump(cached));
+    }
+
+    @Test
+    public void testChangedContentIsParsedAgain() throws Exception {
+        File file = write("sample.md", SAMPLE);
+        DocumentCache cache = new DocumentCache(folder.newFolder("cache"));
+        parse(cache, file);
+        parse(cache, file);
+        write("sample.md", SAMPLE + "\nOne more sentence.\n");
+        Document document = parse(cache, file);
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals("One more sentence.", document.getLastSection().getParagraph(1).getSentence(0).getContent());
+    }
+
+    @Test
+    public void testBrokenEntryIsReplaced() throws Exception {
+        File file = write("sample.md", SAMPLE);
+        File directory = folder.newFolder("cache");
+        DocumentCache cache = new DocumentCache(directory);
+        Document parsed = parse(cache, file);
+        for (File entry : directory.listFiles()) {
+            Files.write(entry.toPath(), new byte[]{1, 2, 3});
+        }
+
+        assertEquals(dump(parsed), dump(parse(cache, file)));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(dump(parsed), dump(parse(cache, file)));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() throws Exception {
+        File directory = folder.newFolder("cache");
+        DocumentCache cache = new DocumentCache(directory, 2048);
+        for (int i = 0; i < 20; i++) {
+            parse(cache, write("sample" + i + ".md", SAMPLE + "\nSentence number " + i + ".\n"));
+        }
+        long total = 0;
+        for (File entry : directory.listFiles()) {
+            total += entry.length();
+        }
+        assertTrue(total <= 2048);
+        assertTrue(directory.listFiles().length > 0);
+    }
+}
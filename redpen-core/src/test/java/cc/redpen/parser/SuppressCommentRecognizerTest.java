@@ -0,0 +1,70 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class SuppressCommentRecognizerTest {
+    @Test
+    public void testMarkdownComment() {
+        SuppressCommentRecognizer recognizer = DocumentParser.MARKDOWN.getSuppressCommentRecognizer();
+        assertEquals(Optional.of(Arrays.asList("Spelling", "SentenceLength")),
+                recognizer.recognize("  <!-- @suppress Spelling SentenceLength -->"));
+        assertEquals(Optional.of(Collections.emptyList()), recognizer.recognize("<!-- @suppress -->"));
+        assertFalse(recognizer.recognize("<!-- a comment -->").isPresent());
+        assertFalse(recognizer.recognize("This is a sentence. <!-- @suppress -->").isPresent());
+        assertFalse(recognizer.recognize("").isPresent());
+    }
+
+    @Test
+    public void testAsciiDocAttribute() {
+        SuppressCommentRecognizer recognizer = DocumentParser.ASCIIDOC.getSuppressCommentRecognizer();
+        assertEquals(Optional.of(Arrays.asList("SuccessiveWord", "Spelling")),
+                recognizer.recognize("[suppress='SuccessiveWord Spelling']"));
+        assertEquals(Optional.of(Collections.emptyList()), recognizer.recognize("[SUPPRESS]"));
+        assertTrue(recognizer.isErasingLine());
+        assertFalse(recognizer.recognize("[abstract]").isPresent());
+    }
+
+    @Test
+    public void testPlainTextHasNoSuppressComment() {
+        assertFalse(DocumentParser.PLAIN.getSuppressCommentRecognizer().recognize("<!-- @suppress -->").isPresent());
+    }
+
+    @Test
+    public void testCustomCommentSyntax() throws IOException {
+        SuppressCommentRecognizer recognizer = new SuppressCommentRecognizer(';', "^;+ *@suppress(.*)");
+        try (PreprocessingReader reader = new PreprocessingReader(new StringReader("a\n;; @suppress Spelling\nb\n"), recognizer)) {
+            assertEquals("a", reader.readLine());
+            assertEquals(";; @suppress Spelling", reader.readLine());
+            assertEquals("b", reader.readLine());
+            assertEquals(1, reader.getPreprocessorRules().size());
+            PreprocessorRule rule = reader.getPreprocessorRules().iterator().next();
+            assertEquals(3, rule.getLineNumber());
+            assertEquals(Collections.singletonList("spelling"), rule.getParameters());
+        }
+    }
+}
@@ -18,5 +18,47 @@
 
 package cc.redpen.parser.common;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class LineTest {
+
+    @Test
+    public void testEscapedCharactersAreMappedToTheirOffsets() {
+        Line line = new Line("a\\*b\\c", 1);
+        line.mapCharacters("*");
+        assertEquals(5, line.length());
+        assertEquals('a', line.rawCharAt(0));
+        assertEquals('*', line.rawCharAt(1));
+        assertEquals(Line.ESCAPED_CHARACTER_VALUE, line.charAt(1));
+        assertEquals(2, line.getOffset(1));
+        assertEquals('\\', line.rawCharAt(3));
+        assertEquals(4, line.getOffset(3));
+        assertEquals(5, line.getOffset(5));
+    }
+
+    @Test
+    public void testEraseAndTrim() {
+        Line line = new Line("abc def  ", 1);
+        line.mapCharacters(null);
+        line.trimEnd();
+        assertEquals(7, line.length());
+        assertEquals(7, line.getOffset(7));
+
+        line.erase(1, 3);
+        assertTrue(line.isValid(0));
+        assertFalse(line.isValid(1));
+        assertFalse(line.isValid(3));
+        assertTrue(line.isValid(4));
+        assertEquals(0, line.charAt(2));
+        assertEquals('c', line.charAt(2, true));
+        assertEquals("  0-0-001: a·b·c· def", line.toString());
+
+        line.erase();
+        assertTrue(line.isErased());
+        assertTrue(line.isEmpty());
+    }
 }
@@ -0,0 +1,74 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.latex;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.SentenceExtractor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures the parse of a generated thesis-sized LaTeX document: the token stream of {@link StreamParser} alone
+ * and the whole {@link DocumentParser#LATEX} parse into a document. It is not a unit test; run it after
+ * {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat classpath.txt) cc.redpen.parser.latex.LaTeXParserBenchmark [chapters]
+ * </pre>
+ * where {@code classpath.txt} is written by {@code mvn dependency:build-classpath -Dmdep.outputFile=classpath.txt}.
+ */
+public class LaTeXParserBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws RedPenException {
+        String document = Tools.thesis(args.length > 0 ? Integer.parseInt(args[0]) : 12);
+        Configuration configuration = Configuration.builder().build();
+        SentenceExtractor extractor = new SentenceExtractor(configuration.getSymbolTable());
+
+        System.out.printf("%d KB, %d lines%n", document.getBytes(StandardCharsets.UTF_8).length / 1024,
+                document.split("\n", -1).length);
+        run("tokens", () -> {
+            int[] count = new int[1];
+            new StreamParser(document, t -> count[0]++).parse();
+            return count[0];
+        });
+        run("document", () -> DocumentParser.LATEX.parse(document, extractor, configuration.getTokenizer())
+                .size());
+    }
+
+    private interface Parse {
+        int run() throws RedPenException;
+    }
+
+    private static void run(String name, Parse parse) throws RedPenException {
+        long found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            found += parse.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            found += parse.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-8s %8.2f ms per parse (%d elements)%n",
+                name, best / 1e6, found / (WARMUP_ROUNDS + ROUNDS));
+    }
+}
@@ -18,6 +18,9 @@
 package cc.redpen.parser.latex;
 
 import org.junit.Test;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -519,4 +522,23 @@ public class StreamParserTest {
         );
     }
 
+    @Test
+    public void testParsingNormalizeQuotes() {
+        assertEquals("\"quoted\" it's \"'", StreamParser.Parsing.normalizeQuotes("``quoted'' it’s ```"));
+        final String plain = "no quotes here";
+        assertSame(plain, StreamParser.Parsing.normalizeQuotes(plain));
+    }
+
+    @Test(timeout = 20000)
+    public void testParseThesisSizedDocument() throws Exception {
+        final StringBuilder streamed = new StringBuilder();
+        new StreamParser(thesis(20), t -> streamed.append(t).append('\n')).parse();
+
+        // token dump of the same document by the parser which applied each stage to the whole token list
+        final String expected = new String(
+            Files.readAllBytes(Paths.get(getClass().getResource("thesis-tokens.txt").toURI())),
+            StandardCharsets.UTF_8);
+        assertEquals(expected, streamed.toString());
+    }
+
 }
@@ -55,6 +55,28 @@ public class Tools {
         }
     }
 
+    /**
+     * Generate a thesis-like document of the given number of chapters, each of 10 sections with paragraphs,
+     * inline formatting, comments, math, a verbatim and a tabular block.
+     */
+    public static String thesis(final int chapters) {
+        final StringBuilder doc = new StringBuilder("\\documentclass{book}\n\\title{A Thesis}\n\\begin{document}\n");
+        for (int chapter = 0; chapter < chapters; ++chapter) {
+            doc.append("\\chapter{Chapter ").append(chapter).append("}\n");
+            for (int section = 0; section < 10; ++section) {
+                doc.append("\\section{Section ").append(section).append("}\\label{sec:").append(section).append("}\n");
+                for (int paragraph = 0; paragraph < 5; ++paragraph) {
+                    doc.append("This is ``a \\textbf{thesis}'' with $x^2$ and~\\cite{ref} text.\n")
+                       .append("It’s the second line of the paragraph. % comment\n\n");
+                }
+                doc.append("\\begin{verbatim}\ncode\n\\end{verbatim}\n")
+                   .append("\\begin{tabular}{cc}\na & b \\\\\n\\end{tabular}\n\n");
+            }
+        }
+        doc.append("\\end{document}\n");
+        return doc.toString();
+    }
+
     public static <T> List<T> takenFor(final MapFunc<T> f, final List<Token> tokens) {
         final List<T> o = new ArrayList<>();
         for (Token t : tokens) {
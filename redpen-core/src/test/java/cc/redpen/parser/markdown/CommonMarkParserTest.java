@@ -0,0 +1,217 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.Document;
+import cc.redpen.model.ListBlock;
+import cc.redpen.model.ListElement;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.BaseParserTest;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.SentenceExtractor;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommonMarkParserTest extends BaseParserTest {
+
+    @Test
+    public void testBasicDocumentIsSameAsMarkdownParser() throws RedPenException {
+        String sampleText = "";
+        sampleText += "# About Gekioko.\n";
+        sampleText += "Gekioko pun pun maru means _very very_ angry.\n";
+        sampleText += "\n";
+        sampleText += "The word also has a positive meaning.\n";
+        sampleText += "## About Gunma.\n";
+        sampleText += "\n";
+        sampleText += "Gunma is located at west of Saitama.\n";
+        sampleText += "\n";
+        sampleText += "* Features\n";
+        sampleText += "    * Main City: Gumma City\n";
+        sampleText += "    * Capical: 200 Millon\n";
+        sampleText += "* Location\n";
+        sampleText += "    * Japan\n";
+        sampleText += "\n";
+        sampleText += "The word also have positive meaning. However it is a bit weird.";
+        assertSameDocument(sampleText);
+    }
+
+    @Test
+    public void testBlocksAreSameAsMarkdownParser() throws RedPenException {
+        String sampleText = "";
+        sampleText += "Header\n";
+        sampleText += "======\n";
+        sampleText += "\n";
+        sampleText += "Some sentence with **strong** words.\n";
+        sampleText += "\n";
+        sampleText += "Sub header\n";
+        sampleText += "----------\n";
+        sampleText += "\n";
+        sampleText += "1. one\n";
+        sampleText += "2. two\n";
+        sampleText += "\n";
+        sampleText += "> quoted text\n";
+        sampleText += "lazy quoted text\n";
+        sampleText += "\n";
+        sampleText += "    code block\n";
+        sampleText += "\n";
+        sampleText += "```\n";
+        sampleText += "fenced code\n";
+        sampleText += "```\n";
+        sampleText += "\n";
+        sampleText += "<div>\n";
+        sampleText += "html block\n";
+        sampleText += "</div>\n";
+        sampleText += "\n";
+        sampleText += "| a | b |\n";
+        sampleText += "|---|---|\n";
+        sampleText += "| 1 | 2 |\n";
+        sampleText += "\n";
+        sampleText += "### Third ###\n";
+        sampleText += "Text with <span>inline html</span> tag.\n";
+        assertSameDocument(sampleText);
+    }
+
+    @Test
+    public void testLinksAreSameAsMarkdownParser() throws RedPenException {
+        String sampleText = "";
+        sampleText += "[ref]: http://example.com\n";
+        sampleText += "This is a [link](http://example.com) in the text.\n";
+        sampleText += "See [the site][ref] and [this].\n";
+        sampleText += "Link [**strong label**](http://x.y \"title\") end.\n";
+        sampleText += "Visit http://redpen.cc for more.\n";
+        sampleText += "Final paragraph ![image](img.png) here.\n";
+        assertSameDocument(sampleText);
+    }
+
+    @Test
+    public void testDocumentStartingWithList() throws RedPenException {
+        String sampleText = "";
+        sampleText += "* first\n";
+        sampleText += "* second\n";
+        sampleText += "\n";
+        sampleText += "text\n";
+        Document doc = parse(DocumentParser.COMMONMARK, sampleText);
+        assertEquals(1, doc.size());
+        Section section = doc.getSection(0);
+        assertEquals(0, section.getLevel());
+        assertEquals(1, section.getNumberOfLists());
+        assertEquals(2, section.getListBlock(0).getNumberOfListElements());
+        assertEquals("first", section.getListBlock(0).getListElement(0).getSentence(0).getContent());
+        assertEquals(1, section.getNumberOfParagraphs());
+        assertEquals("text", section.getParagraph(0).getSentence(0).getContent());
+    }
+
+    @Test
+    public void testLooseListItems() throws RedPenException {
+        String sampleText = "";
+        sampleText += "* item one\n";
+        sampleText += "  continued line\n";
+        sampleText += "\n";
+        sampleText += "  paragraph in item\n";
+        sampleText += "* item two\n";
+        Document doc = parse(DocumentParser.COMMONMARK, sampleText);
+        Section section = doc.getSection(0);
+        assertEquals(1, section.getNumberOfLists());
+        ListBlock listBlock = section.getListBlock(0);
+        assertEquals(2, listBlock.getNumberOfListElements());
+        assertEquals("item one continued line", listBlock.getListElement(0).getSentence(0).getContent());
+        assertEquals(offsets(1, range(2, 10)).get(0), listBlock.getListElement(0).getSentence(0).getOffset(0).get());
+        assertEquals("item two", listBlock.getListElement(1).getSentence(0).getContent());
+        assertEquals(1, section.getNumberOfParagraphs());
+        assertEquals("paragraph in item", section.getParagraph(0).getSentence(0).getContent());
+    }
+
+    @Test
+    public void testCodeSpanOffsets() throws RedPenException {
+        Document doc = parse(DocumentParser.COMMONMARK, "Use `redpen` now.\n");
+        Sentence sentence = doc.getSection(0).getParagraph(0).getSentence(0);
+        assertEquals("Use redpen now.", sentence.getContent());
+        assertEquals(offsets(1, range(0, 4), range(5, 11), range(12, 17)), sentence.getOffsetMap());
+    }
+
+    @Test(timeout = 10000)
+    public void testMalformedMarkupDoesNotTimeout() throws RedPenException {
+        StringBuilder sampleText = new StringBuilder("# Header\n\n");
+        for (int i = 0; i < 20000; i++) {
+            sampleText.append("[*_`<a ");
+        }
+        sampleText.append("\n");
+        Document doc = parse(DocumentParser.COMMONMARK, sampleText.toString());
+        assertNotNull(doc);
+        assertTrue(doc.getSection(0).getNumberOfParagraphs() > 0);
+    }
+
+    private void assertSameDocument(String sampleText) throws RedPenException {
+        Document expected = parse(DocumentParser.MARKDOWN, sampleText);
+        Document actual = parse(DocumentParser.COMMONMARK, sampleText);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Section expectedSection = expected.getSection(i);
+            Section actualSection = actual.getSection(i);
+            assertEquals(expectedSection.getLevel(), actualSection.getLevel());
+            assertEquals(expectedSection.getParentSection() == null, actualSection.getParentSection() == null);
+            if (expectedSection.getParentSection() != null) {
+                assertEquals(expectedSection.getParentSection().getLevel(), actualSection.getParentSection().getLevel());
+            }
+            assertSameSentences(expectedSection.getHeaderContents(), actualSection.getHeaderContents());
+            assertEquals(expectedSection.getNumberOfParagraphs(), actualSection.getNumberOfParagraphs());
+            for (int j = 0; j < expectedSection.getNumberOfParagraphs(); j++) {
+                Paragraph expectedParagraph = expectedSection.getParagraph(j);
+                assertSameSentences(expectedParagraph.getSentences(), actualSection.getParagraph(j).getSentences());
+            }
+            assertEquals(expectedSection.getNumberOfLists(), actualSection.getNumberOfLists());
+            for (int j = 0; j < expectedSection.getNumberOfLists(); j++) {
+                ListBlock expectedList = expectedSection.getListBlock(j);
+                ListBlock actualList = actualSection.getListBlock(j);
+                assertEquals(expectedList.getNumberOfListElements(), actualList.getNumberOfListElements());
+                for (int k = 0; k < expectedList.getNumberOfListElements(); k++) {
+                    ListElement expectedElement = expectedList.getListElement(k);
+                    assertEquals(expectedElement.getLevel(), actualList.getListElement(k).getLevel());
+                    assertSameSentences(expectedElement.getSentences(), actualList.getListElement(k).getSentences());
+                }
+            }
+        }
+    }
+
+    private void assertSameSentences(List<Sentence> expected, List<Sentence> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getContent(), actual.get(i).getContent());
+            assertEquals(expected.get(i).getLineNumber(), actual.get(i).getLineNumber());
+            assertEquals(expected.get(i).getOffsetMap(), actual.get(i).getOffsetMap());
+            assertEquals(expected.get(i).getLinks(), actual.get(i).getLinks());
+            assertEquals(expected.get(i).isFirstSentence(), actual.get(i).isFirstSentence());
+        }
+    }
+
+    private Document parse(DocumentParser parser, String sampleText) throws RedPenException {
+        Configuration configuration = Configuration.builder().build();
+        return parser.parse(sampleText, new SentenceExtractor(configuration.getSymbolTable()),
+                configuration.getTokenizer());
+    }
+}
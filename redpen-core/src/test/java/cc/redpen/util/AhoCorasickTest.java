@@ -0,0 +1,78 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AhoCorasickTest {
+    private static List<String> matches(AhoCorasick automaton, String text) {
+        List<String> matches = new ArrayList<>();
+        automaton.forEachMatch(text, (start, end, pattern) -> {
+            assertEquals(pattern, text.substring(start, end));
+            matches.add(start + ":" + pattern);
+        });
+        return matches;
+    }
+
+    @Test
+    public void testFindsAllOccurrences() {
+        AhoCorasick automaton = AhoCorasick.compile(Arrays.asList("he", "she", "his", "hers", ""));
+        assertEquals(4, automaton.size());
+        assertEquals(Arrays.asList("1:she", "2:he", "2:hers"), matches(automaton, "ushers"));
+        assertEquals(Arrays.asList("0:his", "4:she", "5:he", "8:he"), matches(automaton, "his she he"));
+    }
+
+    @Test
+    public void testJapanesePatterns() {
+        AhoCorasick automaton = AhoCorasick.compile(Arrays.asList("起り", "起る", "生れ"));
+        assertEquals(Arrays.asList("3:起る", "6:生れ"), matches(automaton, "問題が起る。生れた。"));
+        assertTrue(automaton.containsAny("事故が起り"));
+        assertFalse(automaton.containsAny("起きる"));
+    }
+
+    @Test
+    public void testNoPatterns() {
+        AhoCorasick automaton = AhoCorasick.compile(Collections.emptyList());
+        assertEquals(0, automaton.size());
+        assertFalse(automaton.containsAny("anything"));
+    }
+
+    @Test
+    public void testSharedAutomatonIsReused() {
+        Set<String> dictionary = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("foo", "bar")));
+        AhoCorasick first = AhoCorasick.shared(Collections.singletonList(dictionary), new HashSet<>(Arrays.asList("baz")));
+        assertSame(first, AhoCorasick.shared(Collections.singletonList(dictionary), new HashSet<>(Arrays.asList("baz"))));
+        assertEquals(Arrays.asList("0:foo", "4:baz"), matches(first, "foo baz"));
+
+        Set<String> reloaded = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("foo")));
+        AhoCorasick second = AhoCorasick.shared(Collections.singletonList(reloaded), new HashSet<>(Arrays.asList("baz")));
+        assertEquals(Arrays.asList("0:foo"), matches(second, "foo bar"));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BKTreeTest {
+    @Test
+    public void testSearch() {
+        BKTree<String> tree = new BKTree<>(LevenshteinDistance::getDistance);
+        for (String word : new String[]{"インデックス", "インデクス", "サポート", "サポータ", "アナライズ"}) {
+            assertTrue(tree.add(word));
+        }
+        assertFalse(tree.add("サポート"));
+        assertEquals(5, tree.size());
+        assertEquals(Arrays.asList("インデックス", "インデクス"), tree.search("インデックス", 1));
+        assertEquals(Arrays.asList("サポート", "サポータ"), tree.search("サポーテ", 1));
+        assertTrue(tree.search("テスト", 1).isEmpty());
+    }
+
+    @Test
+    public void testSameResultsAsLinearScan() {
+        Random random = new Random(42);
+        BKTree<String> tree = new BKTree<>(LevenshteinDistance::getDistance);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random);
+            if (tree.add(word)) {
+                words.add(word);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            String query = randomWord(random);
+            for (int bound = 0; bound <= 3; bound++) {
+                List<String> expected = new ArrayList<>();
+                for (String word : words) {
+                    if (LevenshteinDistance.getDistance(word, query) <= bound) {
+                        expected.add(word);
+                    }
+                }
+                assertEquals(expected, tree.search(query, bound));
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append("アイウエオカキ".charAt(random.nextInt(7)));
+        }
+        return word.toString();
+    }
+}
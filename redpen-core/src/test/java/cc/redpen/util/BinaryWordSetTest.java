@@ -0,0 +1,94 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryWordSetTest {
+    private static BinaryWordSet compile(String... words) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryWordSet.write(Arrays.asList(words), os);
+        return new BinaryWordSet(ByteBuffer.wrap(os.toByteArray()));
+    }
+
+    @Test
+    public void testContains() throws IOException {
+        BinaryWordSet words = compile("pear", "apple", "", "日本語", "apple", "Zebra", "app");
+        assertEquals(6, words.size());
+        for (String word : new String[]{"pear", "apple", "", "日本語", "Zebra", "app"}) {
+            assertTrue(word, words.contains(word));
+        }
+        assertFalse(words.contains("zebra"));
+        assertFalse(words.contains("appl"));
+        assertFalse(words.contains("apples"));
+        assertFalse(words.contains("日本"));
+        assertFalse(words.contains(1));
+        assertFalse(words.isLowerCase());
+    }
+
+    @Test
+    public void testEqualsToHashSet() throws IOException {
+        Set<String> expected = new HashSet<>(Arrays.asList("b", "a", "c", "ß", "é"));
+        BinaryWordSet words = compile(expected.toArray(new String[0]));
+        assertEquals(expected, words);
+        assertEquals(expected, new HashSet<>(words));
+        assertTrue(words.isLowerCase());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        BinaryWordSet words = compile();
+        assertTrue(words.isEmpty());
+        assertFalse(words.contains(""));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() throws IOException {
+        compile("a").add("b");
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidBuffer() throws IOException {
+        new BinaryWordSet(ByteBuffer.wrap("foo\nbar\n".getBytes()));
+    }
+
+    @Test
+    public void testDefaultDictionaryIsLoadedFromBinaryForm() throws IOException {
+        String path = "default-resources/doubled-word/doubled-word-skiplist-en.dat";
+        Set<String> words = new WordListLoader(false).loadCachedFromResource(path, "doubled word skip list");
+        assertTrue(words instanceof BinaryWordSet);
+
+        Set<String> expected;
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(path)) {
+            expected = new DictionaryLoader<Set<String>>(HashSet::new, Set::add).load(inputStream);
+        }
+        assertEquals(expected, words);
+    }
+}
@@ -34,8 +34,12 @@ import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class DictionaryLoaderTest extends Validator {
+    // polling watch services, such as the default one on macOS, notice changes within about 10 seconds
+    private static final long RELOAD_TIMEOUT_MILLIS = 30000;
+
     @Test
     public void testCreateWordList() throws IOException {
         String sampleWordSet = "Saitama\n";
@@ -75,7 +79,7 @@ public class DictionaryLoaderTest extends Validator {
     }
 
     @Test
-    public void testLoadCachedFile() throws IOException, RedPenException {
+    public void testLoadCachedFile() throws IOException, RedPenException, InterruptedException {
         Path path = Files.createTempFile("test", "txt");
         File file = path.toFile();
         System.setProperty("REDPEN_HOME", file.getParentFile().getAbsolutePath());
@@ -91,21 +95,30 @@ public class DictionaryLoaderTest extends Validator {
         assertTrue(strings.contains("foo"));
 
         long lastModified = file.lastModified();
-
-
         Files.copy(new ByteArrayInputStream("foo\nbar".getBytes()), path, StandardCopyOption.REPLACE_EXISTING);
-        file.setLastModified(lastModified);
-        // won't be reloaded because the last modified date is not changed
-        strings = WORD_LIST.loadCachedFromFile(path.toFile(), "temp file");
-        assertEquals(1, strings.size());
-        assertTrue(strings.contains("foo"));
-
         file.setLastModified(lastModified + 1000);
-        // will be reloaded because the last modified date is changed
+        // reloaded in the background by the file watcher
+        long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MILLIS;
         strings = WORD_LIST.loadCachedFromFile(path.toFile(), "temp file");
+        while (strings.size() != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            strings = WORD_LIST.loadCachedFromFile(path.toFile(), "temp file");
+        }
         assertEquals(2, strings.size());
         assertTrue(strings.contains("foo"));
         assertTrue(strings.contains("bar"));
+
+        Files.delete(path);
+        deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                WORD_LIST.loadCachedFromFile(path.toFile(), "temp file");
+            } catch (RedPenException e) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("deleted file is still loaded");
     }
 
     @Test
@@ -0,0 +1,108 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DictionaryRegistryTest {
+    @Test
+    public void testDictionaryIsLoadedOnceForConcurrentRequests() throws Exception {
+        Path path = Files.createTempFile("dictionary", ".txt");
+        Files.write(path, "foo\nbar\n".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger lines = new AtomicInteger();
+        DictionaryLoader<Set<String>> loader = new DictionaryLoader<>(HashSet::new, (set, line) -> {
+            lines.incrementAndGet();
+            set.add(line);
+        }, Collections::unmodifiableSet);
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Set<String>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.loadCachedFromFile(path.toFile(), "dictionary");
+                }));
+            }
+            start.countDown();
+            Set<String> first = results.get(0).get();
+            for (Future<Set<String>> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(2, lines.get());
+        } finally {
+            executor.shutdown();
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedDictionaryIsImmutable() throws Exception {
+        Path path = Files.createTempFile("dictionary", ".txt");
+        Files.write(path, "foo\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            new DictionaryLoader<Set<String>>(HashSet::new, Set::add, Collections::unmodifiableSet)
+                .loadCachedFromFile(path.toFile(), "dictionary").add("bar");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testLoadsAreCounted() throws Exception {
+        DictionaryRegistry registry = DictionaryRegistry.getInstance();
+        DictionaryLoader<Set<String>> loader = new DictionaryLoader<>(HashSet::new, Set::add);
+        long loads = registry.getLoadCount();
+        long entries = registry.getLoadedEntries();
+        long bytes = registry.getLoadedBytes();
+
+        Path path = Files.createTempFile("dictionary", ".txt");
+        Files.write(path, "foo\nbar\nbaz\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            File file = path.toFile();
+            Set<String> words = loader.loadCachedFromFile(file, "dictionary");
+            assertSame(words, loader.loadCachedFromFile(file, "dictionary"));
+
+            assertEquals(loads + 1, registry.getLoadCount());
+            assertEquals(entries + 3, registry.getLoadedEntries());
+            assertEquals(bytes + 12, registry.getLoadedBytes());
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
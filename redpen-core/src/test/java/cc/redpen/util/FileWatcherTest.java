@@ -0,0 +1,80 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileWatcherTest {
+    @Test
+    public void testListenerIsCalledWhenFileChanges() throws Exception {
+        Path directory = Files.createTempDirectory("watched");
+        Path file = directory.resolve("words.txt");
+        Files.write(file, "foo\n".getBytes(StandardCharsets.UTF_8));
+        CountDownLatch changed = new CountDownLatch(1);
+        Consumer<Path> listener = path -> {
+            if (path.equals(file.toAbsolutePath().normalize())) {
+                changed.countDown();
+            }
+        };
+        try {
+            assertTrue(FileWatcher.getInstance().watch(file, listener));
+            Files.write(file, "foo\nbar\n".getBytes(StandardCharsets.UTF_8));
+            // polling watch services, such as the default one on macOS, notice changes within about 10 seconds
+            assertTrue(changed.await(30, TimeUnit.SECONDS));
+        } finally {
+            FileWatcher.getInstance().unwatch(file, listener);
+            Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testDirectoryIsNotWatchedWithoutListeners() throws Exception {
+        Path directory = Files.createTempDirectory("watched");
+        Path file1 = directory.resolve("words1.txt");
+        Path file2 = directory.resolve("words2.txt");
+        Consumer<Path> listener1 = path -> {
+        };
+        Consumer<Path> listener2 = path -> {
+        };
+        try {
+            assertTrue(FileWatcher.getInstance().watch(file1, listener1));
+            assertTrue(FileWatcher.getInstance().watch(file1, listener2));
+            assertTrue(FileWatcher.getInstance().watch(file2, listener1));
+            assertTrue(FileWatcher.getInstance().isWatching(directory));
+
+            FileWatcher.getInstance().unwatch(file1, listener1);
+            FileWatcher.getInstance().unwatch(file1, listener2);
+            assertTrue(FileWatcher.getInstance().isWatching(directory));
+            FileWatcher.getInstance().unwatch(file2, listener1);
+            assertFalse(FileWatcher.getInstance().isWatching(directory));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LayeredSetTest {
+    private static Set<String> set(String... words) {
+        return new HashSet<>(Arrays.asList(words));
+    }
+
+    @Test
+    public void testContains() {
+        Set<String> layered = LayeredSet.of(set("apple", "pear"), null, set(), set("pear", "plum"));
+        assertTrue(layered.contains("apple"));
+        assertTrue(layered.contains("plum"));
+        assertFalse(layered.contains("grape"));
+        assertFalse(layered.isEmpty());
+    }
+
+    @Test
+    public void testDuplicatesAreIteratedOnce() {
+        Set<String> layered = LayeredSet.of(set("apple", "pear"), set("pear", "plum"), set("plum", "fig"));
+        List<String> elements = new ArrayList<>(layered);
+        Collections.sort(elements);
+        assertEquals(Arrays.asList("apple", "fig", "pear", "plum"), elements);
+        assertEquals(4, layered.size());
+        assertEquals(set("apple", "fig", "pear", "plum"), layered);
+    }
+
+    @Test
+    public void testNoLayers() {
+        Set<String> layered = LayeredSet.of(null, set());
+        assertTrue(layered.isEmpty());
+        assertFalse(layered.iterator().hasNext());
+    }
+
+    @Test
+    public void testLayersAreNotCopied() {
+        Set<String> user = set("apple");
+        Set<String> layered = LayeredSet.of(set("pear"), user);
+        user.add("plum");
+        assertTrue(layered.contains("plum"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        LayeredSet.of(set("pear"), set("apple")).add("plum");
+    }
+}
@@ -19,7 +19,11 @@ package cc.redpen.util;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class LevenshteinDistanceTest {
 
@@ -27,24 +31,12 @@ public class LevenshteinDistanceTest {
     private static final int ALTERNATE_COST = 100;
 
     @Test
-    public void testSetGetInsertionCost() {
-        LevenshteinDistance.setInsertionCost(5);
-        assertEquals(5, LevenshteinDistance.getInsertionCost());
-        resetCost();
-    }
-
-    @Test
-    public void testSetGetDeletionCost() {
-        LevenshteinDistance.setDeletionCost(7);
-        assertEquals(7, LevenshteinDistance.getDeletionCost());
-        resetCost();
-    }
-
-    @Test
-    public void testSetGetSubstitutionCost() {
-        LevenshteinDistance.setSubstitutionCost(9);
-        assertEquals(9, LevenshteinDistance.getSubstitutionCost());
-        resetCost();
+    public void testGetCosts() {
+        LevenshteinDistance distance = new LevenshteinDistance(5, 7, 9);
+        assertEquals(5, distance.getInsertionCost());
+        assertEquals(7, distance.getDeletionCost());
+        assertEquals(9, distance.getSubstitutionCost());
+        assertEquals(1, LevenshteinDistance.DEFAULT.getInsertionCost());
     }
 
     @Test
@@ -87,23 +79,20 @@ public class LevenshteinDistanceTest {
         String a;
         String b;
 
-        LevenshteinDistance.setInsertionCost(TARGET_COST);
-        LevenshteinDistance.setDeletionCost(ALTERNATE_COST);
-        LevenshteinDistance.setSubstitutionCost(ALTERNATE_COST);
+        LevenshteinDistance distance = new LevenshteinDistance(TARGET_COST, ALTERNATE_COST, ALTERNATE_COST);
 
         a = "ab";
         b = "abc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "bc";
         b = "abc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "ac";
         b = "abc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
-        resetCost();
     }
 
     @Test
@@ -111,23 +100,20 @@ public class LevenshteinDistanceTest {
         String a;
         String b;
 
-        LevenshteinDistance.setInsertionCost(ALTERNATE_COST);
-        LevenshteinDistance.setDeletionCost(TARGET_COST);
-        LevenshteinDistance.setSubstitutionCost(ALTERNATE_COST);
+        LevenshteinDistance distance = new LevenshteinDistance(ALTERNATE_COST, TARGET_COST, ALTERNATE_COST);
 
         a = "abc";
         b = "ab";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "abc";
         b = "bc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "abc";
         b = "ac";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
-        resetCost();
     }
 
     @Test
@@ -135,23 +121,20 @@ public class LevenshteinDistanceTest {
         String a;
         String b;
 
-        LevenshteinDistance.setInsertionCost(ALTERNATE_COST);
-        LevenshteinDistance.setDeletionCost(ALTERNATE_COST);
-        LevenshteinDistance.setSubstitutionCost(TARGET_COST);
+        LevenshteinDistance distance = new LevenshteinDistance(ALTERNATE_COST, ALTERNATE_COST, TARGET_COST);
 
         a = "abc";
         b = "xbc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "abc";
         b = "axc";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
         a = "abc";
         b = "abx";
-        assertEquals(TARGET_COST, LevenshteinDistance.getDistance(a, b));
+        assertEquals(TARGET_COST, distance.distance(a, b));
 
-        resetCost();
     }
 
     @Test
@@ -162,16 +145,54 @@ public class LevenshteinDistanceTest {
         cost = 3;
         assertEquals(cost, LevenshteinDistance.getDistance(a, b));
         cost = 5;
-        LevenshteinDistance.setInsertionCost(1);
-        LevenshteinDistance.setDeletionCost(1);
-        LevenshteinDistance.setSubstitutionCost(2);
-        assertEquals(cost, LevenshteinDistance.getDistance(a, b));
-        resetCost();
+        assertEquals(cost, new LevenshteinDistance(1, 1, 2).distance(a, b));
+    }
+
+    @Test
+    public void testBoundedDistance() {
+        LevenshteinDistance distance = LevenshteinDistance.DEFAULT;
+        assertEquals(3, distance.distance("kitten", "sitting", 3));
+        assertTrue(distance.distance("kitten", "sitting", 2) > 2);
+        assertTrue(distance.isWithin("kitten", "sitting", 3));
+        assertFalse(distance.isWithin("kitten", "sitting", 2));
+        assertFalse(distance.isWithin("a", "abcdef", 4));
+        LevenshteinDistance weighted = new LevenshteinDistance(1, 1, 2);
+        assertEquals(5, weighted.distance("kitten", "sitting", 5));
+        assertTrue(weighted.distance("kitten", "sitting", 4) > 4);
+    }
+
+    @Test
+    public void testBitParallelDistanceOfLongStrings() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            String a = randomString(random, random.nextInt(200));
+            String b = randomString(random, random.nextInt(200));
+            assertEquals(a + " " + b, dynamicProgramming(a, b), LevenshteinDistance.getDistance(a, b));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append("abcd".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
     }
 
-    public void resetCost() {
-        LevenshteinDistance.setInsertionCost(1);
-        LevenshteinDistance.setDeletionCost(1);
-        LevenshteinDistance.setSubstitutionCost(1);
+    private static int dynamicProgramming(String a, String b) {
+        int[][] distance = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            distance[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            distance[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = distance[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                distance[i][j] = Math.min(substitution, Math.min(distance[i - 1][j], distance[i][j - 1]) + 1);
+            }
+        }
+        return distance[a.length()][b.length()];
     }
 }
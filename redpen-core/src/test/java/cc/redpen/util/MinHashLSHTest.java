@@ -0,0 +1,68 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MinHashLSHTest {
+    private static SparseVector range(int from, int to) {
+        int[] ids = new int[to - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = from + i;
+        }
+        return SparseVector.of(ids, ids.length);
+    }
+
+    @Test
+    public void testCandidates() {
+        MinHashLSH lsh = new MinHashLSH(16, 2);
+        assertEquals(0, lsh.add(range(0, 100)));
+        assertEquals(1, lsh.add(range(1000, 1100)));
+        assertEquals(2, lsh.add(range(5, 100)));
+        assertEquals(3, lsh.add(range(0, 0)));
+        assertEquals(4, lsh.size());
+
+        BitSet candidates = lsh.getCandidates(0);
+        assertTrue(candidates.get(2));
+        assertFalse(candidates.get(0));
+        assertFalse(candidates.get(1));
+        assertFalse(candidates.get(3));
+        assertTrue(lsh.getCandidates(1).isEmpty());
+        assertTrue(lsh.getCandidates(3).isEmpty());
+    }
+
+    @Test
+    public void testIdenticalVectorsAreCandidates() {
+        MinHashLSH lsh = new MinHashLSH(4, 8);
+        lsh.add(range(10, 20));
+        lsh.add(range(10, 20));
+        assertTrue(lsh.getCandidates(0).get(1));
+        assertTrue(lsh.getCandidates(1).get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBands() {
+        new MinHashLSH(0, 2);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.tokenizer.TokenElement;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PhraseIndexTest {
+    private static List<TokenElement> tokens(String... surfaces) {
+        List<TokenElement> tokens = new ArrayList<>();
+        for (String surface : surfaces) {
+            tokens.add(new TokenElement(surface, singletonList(""), 0));
+        }
+        return tokens;
+    }
+
+    private static List<String> matches(PhraseIndex index, List<TokenElement> tokens) {
+        List<String> matches = new ArrayList<>();
+        index.forEachMatch(tokens, (start, end) -> matches.add(start + "-" + end));
+        return matches;
+    }
+
+    @Test
+    public void testMatchPhrases() {
+        PhraseIndex index = new PhraseIndex(asList("a bit", "a bit of", "kind of", "of"), " ");
+        assertEquals(4, index.size());
+        assertEquals(3, index.getMaxWords());
+        assertEquals(asList("1-3", "1-4", "3-4", "4-6", "5-6"),
+                matches(index, tokens("It", "A", "bit", "of", "kind", "of", "thing")));
+    }
+
+    @Test
+    public void testPrefixIsNotMatched() {
+        PhraseIndex index = new PhraseIndex(singletonList("a lot of"), " ");
+        assertEquals(0, matches(index, tokens("a", "lot", "more")).size());
+        assertEquals(singletonList("0-3"), matches(index, tokens("A", "LOT", "OF")));
+    }
+
+    @Test
+    public void testSeparator() {
+        PhraseIndex index = new PhraseIndex(asList("state-of-the-art", "well-known"), "-");
+        assertEquals(asList("0-2", "3-7"), matches(index, tokens("well", "known", "and", "state", "of", "the", "art")));
+    }
+
+    @Test
+    public void testEmpty() {
+        PhraseIndex index = new PhraseIndex(emptySet(), " ");
+        assertEquals(0, index.size());
+        assertEquals(0, matches(index, tokens("a", "b")).size());
+    }
+
+    @Test
+    public void testSharedKeepsPhrasesWithSeparator() {
+        List<String> dictionary = asList("pen", "red-pen", "text");
+        PhraseIndex index = PhraseIndex.shared(singletonList(dictionary), emptySet(), "-");
+        assertEquals(1, index.size());
+        assertSame(index, PhraseIndex.shared(singletonList(dictionary), emptySet(), "-"));
+    }
+}
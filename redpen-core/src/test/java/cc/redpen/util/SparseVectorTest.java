@@ -0,0 +1,52 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SparseVectorTest {
+    @Test
+    public void testCounts() {
+        SparseVector vector = SparseVector.of(new int[]{5, 1, 5, 3, 5, 99}, 5);
+        assertEquals(3, vector.size());
+        assertEquals(1, vector.get(1));
+        assertEquals(1, vector.get(3));
+        assertEquals(3, vector.get(5));
+        assertEquals(0, vector.get(99));
+        assertEquals(Math.sqrt(11), vector.getNorm(), 1e-9);
+        assertEquals("{1=1, 3=1, 5=3}", vector.toString());
+    }
+
+    @Test
+    public void testCosine() {
+        SparseVector a = SparseVector.of(new int[]{0, 1, 1}, 3);
+        SparseVector b = SparseVector.of(new int[]{1, 2}, 2);
+        assertEquals(2, a.dot(b));
+        assertEquals(2 / (Math.sqrt(5) * Math.sqrt(2)), a.cosine(b), 1e-9);
+        assertEquals(1.0, a.cosine(a), 1e-9);
+    }
+
+    @Test
+    public void testEmpty() {
+        SparseVector empty = SparseVector.of(new int[0], 0);
+        assertEquals(0, empty.size());
+        assertEquals(0.0, empty.cosine(SparseVector.of(new int[]{1}, 1)), 0.0);
+    }
+}
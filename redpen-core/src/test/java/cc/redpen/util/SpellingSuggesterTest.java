@@ -0,0 +1,127 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpellingSuggesterTest {
+    private static final int BUDGET = 1000;
+
+    @Test
+    public void testSuggestionsAreRankedByDistance() {
+        SpellingSuggester suggester = new SpellingSuggester(
+                Arrays.asList("receive", "recipe", "relieve", "deceive", "receiver", "perceive"));
+        assertEquals(6, suggester.size());
+        assertEquals(Arrays.asList("relieve", "receive", "recipe"), suggester.suggest("recieve", 2, 3, BUDGET));
+        assertEquals(Arrays.asList("relieve"), suggester.suggest("recieve", 2, 1, BUDGET));
+        assertTrue(suggester.suggest("xyz", 2, 3, BUDGET).isEmpty());
+    }
+
+    @Test
+    public void testWordItselfIsNotSuggested() {
+        SpellingSuggester suggester = new SpellingSuggester(Arrays.asList("pen", "pan"));
+        assertEquals(Arrays.asList("pan"), suggester.suggest("pen", 1, 3, BUDGET));
+    }
+
+    @Test
+    public void testSameResultsAsLinearScan() {
+        Set<String> words = new HashSet<>(Arrays.asList(
+                "apple", "apply", "ample", "maple", "applet", "pale", "peal", "leap", "plea", "appeal"));
+        SpellingSuggester suggester = new SpellingSuggester(words);
+        for (String query : new String[]{"appel", "aple", "aplpe", "pael", "lape"}) {
+            Set<String> expected = new HashSet<>();
+            for (String word : words) {
+                if (LevenshteinDistance.getDistance(query, word) <= 2) {
+                    expected.add(word);
+                }
+            }
+            assertEquals(query, expected, new HashSet<>(suggester.suggest(query, 2, 100, BUDGET)));
+        }
+    }
+
+    @Test
+    public void testBudgetLimitsComparedWords() {
+        List<String> words = new ArrayList<>();
+        for (char c = 'a'; c <= 'z'; c++) {
+            words.add("recieve" + c);
+        }
+        words.add("recieved");
+        words.add("xyzzy");
+        SpellingSuggester suggester = new SpellingSuggester(words);
+        assertEquals(27, suggester.size());
+        List<String> complete = suggester.suggest("recieve", 1, 100, BUDGET);
+        assertEquals(26, complete.size());
+
+        List<String> limited = suggester.suggest("recieve", 1, 100, 10);
+        assertEquals(10, limited.size());
+        assertEquals(complete.subList(0, 10), limited);
+        // the search after a limited one is not affected by the counts left behind
+        assertEquals(complete, suggester.suggest("recieve", 1, 100, BUDGET));
+    }
+
+    @Test
+    public void testIndexOfManyWordsGivesSameResultsAsLinearScan() {
+        List<String> words = new ArrayList<>();
+        for (char a = 'a'; a <= 'z'; a++) {
+            for (char b = 'a'; b <= 'z'; b++) {
+                words.add("st" + a + b + "e");
+            }
+        }
+        SpellingSuggester suggester = new SpellingSuggester(words);
+        Set<String> expected = new HashSet<>();
+        for (String word : words) {
+            if (LevenshteinDistance.getDistance("stoxe", word) <= 1 && !word.equals("stoxe")) {
+                expected.add(word);
+            }
+        }
+        assertEquals(expected, new HashSet<>(suggester.suggest("stoxe", 1, 1000, 10000)));
+    }
+
+    @Test
+    public void testSharedIndexIsReused() {
+        Set<String> dictionary = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("foo", "bar")));
+        SpellingSuggester first = SpellingSuggester.shared(Collections.singletonList(dictionary), Collections.emptySet());
+        assertSame(first, SpellingSuggester.shared(Collections.singletonList(dictionary), Collections.emptySet()));
+    }
+
+    @Test
+    public void testSharedIndexDoesNotRetainDictionary() throws Exception {
+        Set<String> dictionary = new HashSet<>(Arrays.asList("foo", "bar"));
+        SpellingSuggester.shared(Collections.singletonList(dictionary), Collections.emptySet());
+        WeakReference<Set<String>> reference = new WeakReference<>(dictionary);
+        dictionary = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+}
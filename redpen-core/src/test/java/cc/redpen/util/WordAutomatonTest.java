@@ -0,0 +1,121 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordAutomatonTest {
+    private static WordAutomaton compile(String... words) throws IOException {
+        return compile(Arrays.asList(words));
+    }
+
+    private static WordAutomaton compile(List<String> words) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        WordAutomaton.write(words, os);
+        return new WordAutomaton(ByteBuffer.wrap(os.toByteArray()));
+    }
+
+    @Test
+    public void testContains() throws IOException {
+        WordAutomaton words = compile("tap", "taps", "top", "tops", "", "tap", "日本語", "日本");
+        assertEquals(7, words.size());
+        for (String word : new String[]{"tap", "taps", "top", "tops", "", "日本語", "日本"}) {
+            assertTrue(word, words.contains(word));
+        }
+        assertFalse(words.contains("t"));
+        assertFalse(words.contains("to"));
+        assertFalse(words.contains("tapss"));
+        assertFalse(words.contains("日"));
+        assertFalse(words.contains("x"));
+        assertFalse(words.contains(null));
+        assertTrue(words.isLowerCase());
+    }
+
+    @Test
+    public void testIterationIsSorted() throws IOException {
+        WordAutomaton words = compile("b", "ab", "a", "abc", "c");
+        assertEquals(Arrays.asList("a", "ab", "abc", "b", "c"), new ArrayList<>(words));
+    }
+
+    @Test
+    public void testPrefixQueries() throws IOException {
+        WordAutomaton words = compile("car", "card", "care", "cared", "cat", "dog");
+        assertTrue(words.hasPrefix("ca"));
+        assertTrue(words.hasPrefix("card"));
+        assertFalse(words.hasPrefix("cb"));
+        assertEquals(Arrays.asList("car", "card", "care", "cared"), words.getWordsWithPrefix("car", 10));
+        assertEquals(Arrays.asList("car", "card"), words.getWordsWithPrefix("car", 2));
+        assertEquals(Arrays.asList("cared"), words.getWordsWithPrefix("cared", 10));
+        assertEquals(emptyList(), words.getWordsWithPrefix("cow", 10));
+        assertEquals(6, words.getWordsWithPrefix("", 10).size());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        WordAutomaton words = compile();
+        assertTrue(words.isEmpty());
+        assertFalse(words.contains(""));
+        assertFalse(words.iterator().hasNext());
+    }
+
+    @Test
+    public void testRandomWordsEqualToHashSet() throws IOException {
+        Random random = new Random(1);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            char[] word = new char[random.nextInt(8)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = "abcdeアイウ".charAt(random.nextInt(8));
+            }
+            expected.add(new String(word));
+        }
+        WordAutomaton words = compile(new ArrayList<>(expected));
+        assertEquals(expected, words);
+        assertEquals(expected, new HashSet<>(words));
+        assertFalse(words.contains("abcdeabcde"));
+    }
+
+    @Test
+    public void testSpellcheckerIsLoadedAsAutomaton() throws IOException {
+        String path = "default-resources/spellchecker/spellchecker-en.dat";
+        Set<String> words = new WordListLoader(true).loadCachedFromResource(path, "spell checker");
+        assertTrue(words instanceof WordAutomaton);
+
+        Set<String> expected;
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(path)) {
+            expected = new DictionaryLoader<Set<String>>(HashSet::new, (set, line) -> set.add(line.toLowerCase())).load(inputStream);
+        }
+        assertEquals(expected, words);
+    }
+}
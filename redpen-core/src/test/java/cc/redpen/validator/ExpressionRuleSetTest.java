@@ -0,0 +1,85 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.util.RuleExtractor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExpressionRuleSetTest {
+    private static List<TokenElement> tokens(String... surfaces) {
+        List<TokenElement> tokens = new ArrayList<>();
+        for (String surface : surfaces) {
+            tokens.add(new TokenElement(surface, asList("名詞", "一般"), 0));
+        }
+        return tokens;
+    }
+
+    private static ExpressionRuleSet rules(String... lines) {
+        Set<ExpressionRule> rules = new HashSet<>();
+        for (String line : lines) {
+            rules.add(RuleExtractor.run(line));
+        }
+        return new ExpressionRuleSet(rules);
+    }
+
+    @Test
+    public void testFindsAllRulesInOnePass() {
+        ExpressionRuleSet rules = rules("ない + こと + ない", "こと + ない", "ない + もの");
+        List<String> matches = new ArrayList<>();
+        rules.forEachMatch(tokens("ない", "こと", "ない", "もの"),
+                (start, end, rule) -> matches.add(start + "-" + end + ":" + rule.getElements().size()));
+        assertEquals(asList("0-3:3", "1-3:2", "2-4:2"), matches);
+    }
+
+    @Test
+    public void testMatchesAsExpressionRule() {
+        ExpressionRuleSet rules = rules("ない + こと + ない", "ない + 事 + ない", "ある");
+        List<TokenElement> tokens = tokens("それ", "ない", "事", "ない");
+        Set<ExpressionRule> matched = rules.findMatchingRules(tokens);
+        assertEquals(1, matched.size());
+        for (ExpressionRule rule : rules) {
+            assertEquals(matched.contains(rule), rule.match(tokens));
+        }
+    }
+
+    @Test
+    public void testTagConstraints() {
+        ExpressionRuleSet rules = rules("合せ:動詞,自立", "合せ:名詞");
+        List<TokenElement> tokens = asList(new TokenElement("合せ", asList("動詞", "自立", "*"), 0));
+        Set<ExpressionRule> matched = rules.findMatchingRules(tokens);
+        assertEquals(1, matched.size());
+        assertTrue(matched.contains(RuleExtractor.run("合せ:動詞,自立")));
+        assertTrue(rules.findMatchingRules(tokens("合わせ")).isEmpty());
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        ExpressionRuleSet rules = rules("ない + こと");
+        assertTrue(ExpressionRuleSet.of(rules) == rules);
+    }
+}
@@ -17,10 +17,38 @@
  */
 package cc.redpen.validator;
 
+import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.util.RuleExtractor;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class ExpressionRuleTest {
+    private static List<TokenElement> tokens(String... surfaces) {
+        List<TokenElement> tokens = new ArrayList<>();
+        for (String surface : surfaces) {
+            tokens.add(new TokenElement(surface, asList("名詞", "一般"), 0));
+        }
+        return tokens;
+    }
+
     @Test
     public void testMatch() throws Exception {
+        ExpressionRule rule = RuleExtractor.run("ない + こと + ない");
+        assertTrue(rule.match(tokens("それ", "ない", "こと", "ない")));
+        assertFalse(rule.match(tokens("ない", "もの", "ない")));
+        assertFalse(rule.match(tokens("ない", "こと")));
+        assertFalse(rule.match(tokens()));
+    }
+
+    @Test
+    public void testMatchWithTags() throws Exception {
+        assertTrue(RuleExtractor.run("こと:名詞").match(tokens("こと")));
+        assertFalse(RuleExtractor.run("こと:動詞").match(tokens("こと")));
     }
 }
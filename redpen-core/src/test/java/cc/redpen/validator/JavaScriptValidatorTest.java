@@ -63,7 +63,14 @@ public class JavaScriptValidatorTest extends JavaScriptValidator {
         // ensure the modified date differs
         file.setLastModified(System.currentTimeMillis() + 2000);
 
+        // reloaded in the background by the file watcher
+        // polling watch services, such as the default one on macOS, notice changes within about 10 seconds
+        long deadline = System.currentTimeMillis() + 30000;
         String loadCached2 = JavaScriptValidator.loadCached(file);
+        while (!content2.equals(loadCached2) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            loadCached2 = JavaScriptValidator.loadCached(file);
+        }
         assertEquals(content2, loadCached2);
     }
 
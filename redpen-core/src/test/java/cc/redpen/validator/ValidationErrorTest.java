@@ -0,0 +1,135 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.LineOffset;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValidationErrorTest {
+    @Test
+    public void testSentenceIsResolved() {
+        Sentence sentence = new Sentence("this is a pen", 3, 5);
+        ValidationError error = new ValidationError("SomeValidator", "message", sentence, 5, 7);
+        assertSame(sentence, error.getSentence());
+        assertTrue(error.isReportedOn(sentence));
+        assertEquals(3, error.getLineNumber());
+        assertEquals(5, error.getStartColumnNumber());
+        assertEquals(new LineOffset(3, 5), error.getStartPosition().get());
+        assertEquals(new LineOffset(3, 7), error.getEndPosition().get());
+        assertEquals("Some", error.getValidatorName());
+    }
+
+    @Test
+    public void testDetachedSentenceIsRebuilt() throws Exception {
+        Sentence sentence = new Sentence("this is a pen",
+                singletonList(new LineOffset(2, 4)), singletonList("http://example.com"));
+        ValidationError error = new ValidationError("SomeValidator",
+                new MessageTemplate(new MessageFormat("{0} is wrong")), new Object[]{"pen"}, sentence, 0, 1,
+                singletonList("pencil"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(error);
+        }
+        ValidationError detached;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            detached = (ValidationError) in.readObject();
+        }
+
+        assertFalse(detached.isReportedOn(sentence));
+        assertEquals("pen is wrong", detached.getMessage());
+        assertEquals("this is a pen", detached.getSentence().getContent());
+        assertEquals(2, detached.getSentence().getLineNumber());
+        assertEquals(4, detached.getSentence().getStartPositionOffset());
+        assertEquals(sentence.getOffset(4), detached.getSentence().getOffset(4));
+        assertEquals(error.getStartPosition(), detached.getStartPosition());
+        assertEquals(error.getEndPosition(), detached.getEndPosition());
+        assertEquals(singletonList("pencil"), detached.getSuggestions());
+    }
+
+    @Test
+    public void testRebuiltSentenceKeepsTheOffsets() throws Exception {
+        // "an invalid\nsentence" starting at column 6 of line 3, without the line break in the content
+        List<LineOffset> offsetMap = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            offsetMap.add(new LineOffset(3, 6 + i));
+        }
+        for (int i = 0; i < 8; i++) {
+            offsetMap.add(new LineOffset(4, i));
+        }
+        Sentence sentence = new Sentence("an invalidsentence", offsetMap, new ArrayList<>());
+        ValidationError error = new ValidationError("SomeValidator", "message", sentence, 3, 12);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(error);
+        }
+        Sentence rebuilt;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            rebuilt = ((ValidationError) in.readObject()).getSentence();
+        }
+
+        assertEquals(sentence.getLineNumber(), rebuilt.getLineNumber());
+        assertEquals(sentence.getStartPositionOffset(), rebuilt.getStartPositionOffset());
+        assertEquals(sentence.getOffsetMap(), rebuilt.getOffsetMap());
+        for (int i = 0; i <= sentence.getContent().length(); i++) {
+            assertEquals(sentence.getOffset(i), rebuilt.getOffset(i));
+        }
+        assertEquals(sentence.getOffsetPosition(new LineOffset(4, 2)), rebuilt.getOffsetPosition(new LineOffset(4, 2)));
+    }
+
+    @Test
+    public void testSentenceIsNotRetained() throws Exception {
+        Sentence sentence = new Sentence("this is a pen", 3, 5);
+        ValidationError error = new ValidationError("SomeValidator", "message", sentence);
+        WeakReference<Sentence> reference = new WeakReference<>(sentence);
+        sentence = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertEquals("this is a pen", error.getSentence().getContent());
+        assertEquals(3, error.getSentence().getLineNumber());
+        assertEquals(5, error.getSentence().getStartPositionOffset());
+    }
+
+    @Test
+    public void testWithoutSentence() {
+        ValidationError error = new ValidationError("SomeValidator", "message", null);
+        assertNull(error.getSentence());
+        assertFalse(error.getStartPosition().isPresent());
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator;
+
+import cc.redpen.RedPen;
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Document;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.DocumentParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ValidationResultCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String TEXT = "This sentence has an invalid symbol： here.\n" +
+        "\n" +
+        "A short one.\n" +
+        "\n" +
+        "This sentence has an invalid symbol： here.\n" +
+        "\n" +
+        "This sentence has an invalid\n" +
+        "symbol： here.\n";
+
+    private static Configuration configuration(String maxLength) {
+        return Configuration.builder()
+            .addValidatorConfig(new ValidatorConfiguration("InvalidSymbol"))
+            .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addProperty("max_len", maxLength))
+            .addValidatorConfig(new ValidatorConfiguration("SuccessiveSentence"))
+            .build();
+    }
+
+    private static List<String> validate(RedPen redPen) throws Exception {
+        Document document = redPen.parse(DocumentParser.PLAIN, TEXT);
+        return redPen.validate(document).stream()
+            .map(error -> error.getValidatorName() + " " + error.getLineNumber() + " " + error.getStartPosition()
+                + " " + error.getEndPosition() + " " + error.getMessage() + " " + error.getSentence().getContent())
+            .sorted()
+            .collect(toList());
+    }
+
+    @Test
+    public void testCachedErrorsAreAnchoredToTheSentence() throws Exception {
+        List<String> expected = validate(new RedPen(configuration("30")));
+
+        RedPen redPen = new RedPen(configuration("30"));
+        ValidationResultCache cache = new ValidationResultCache();
+        redPen.setValidationResultCache(cache);
+
+        assertEquals(expected, validate(redPen));
+        // the second and third occurrences of the sentence are answered for InvalidSymbol and SentenceLength
+        assertEquals(4, cache.getHitCount());
+        assertEquals(6, cache.getMissCount());
+        assertEquals(3, expected.stream().filter(error -> error.startsWith("InvalidSymbol")).count());
+
+        assertEquals(expected, validate(redPen));
+        assertEquals(14, cache.getHitCount());
+        assertEquals(6, cache.getMissCount());
+        assertEquals(0.7, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testValidatorsOfPastRunsAreNotRetained() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache();
+        RedPen redPen = new RedPen(configuration("30"));
+        redPen.setValidationResultCache(cache);
+        for (int i = 0; i < 20; i++) {
+            validate(redPen);
+        }
+        // validators are created again on every run and still share the cached results
+        assertEquals(6, cache.getMissCount());
+
+        Sentence sentence = new Sentence("sentence", 1);
+        Validator validator = new Validator() {
+            @Override
+            protected boolean isSentenceLocal() {
+                return true;
+            }
+        };
+        validator.preInit(new ValidatorConfiguration("Anonymous"), Configuration.builder().build());
+        cache.validate(validator, sentence, new ArrayList<>());
+        WeakReference<Validator> reference = new WeakReference<>(validator);
+        validator = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testDifferentConfigurationIsNotShared() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache();
+        RedPen redPen = new RedPen(configuration("30"));
+        redPen.setValidationResultCache(cache);
+        validate(redPen);
+
+        RedPen other = new RedPen(configuration("100"));
+        other.setValidationResultCache(cache);
+        List<String> errors = validate(other);
+        assertEquals(validate(new RedPen(configuration("100"))), errors);
+        assertEquals(0, errors.stream().filter(error -> error.startsWith("SentenceLength")).count());
+    }
+
+    @Test
+    public void testResultsAreSavedToStore() throws Exception {
+        File store = new File(folder.getRoot(), "results.cache");
+        ValidationResultCache cache = new ValidationResultCache(100, store);
+        RedPen redPen = new RedPen(configuration("30"));
+        redPen.setValidationResultCache(cache);
+        List<String> expected = validate(redPen);
+        cache.save();
+
+        ValidationResultCache loaded = new ValidationResultCache(100, store);
+        RedPen next = new RedPen(configuration("30"));
+        next.setValidationResultCache(loaded);
+        assertEquals(expected, validate(next));
+        assertEquals(10, loaded.getHitCount());
+        assertEquals(0, loaded.getMissCount());
+    }
+}
@@ -24,13 +24,18 @@ import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
 import org.junit.Test;
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ValidatorTest {
     private final Configuration globalConfig = Configuration.builder().build();
@@ -56,6 +61,38 @@ public class ValidatorTest {
         assertEquals("キー指定 :sentence", validationErrors.get(1).getMessage());
     }
 
+    @Test
+    public void messageIsRenderedFromSharedTemplate() throws RedPenException {
+        Validator validator = new ValidationErrorMessageTest();
+        validator.setLocale(Locale.ENGLISH);
+        List<ValidationError> errors = new ArrayList<>();
+        validator.setErrorList(errors);
+        StringBuilder argument = new StringBuilder("sentence");
+        validator.addLocalizedError("withKey", new Sentence("sentence", 1), argument);
+        argument.append(" changed");
+        assertEquals("with Key :sentence", errors.get(0).getMessage());
+        Validator other = new ValidationErrorMessageTest();
+        other.setLocale(Locale.ENGLISH);
+        assertSame(validator.getMessageTemplate("withKey"), other.getMessageTemplate("withKey"));
+    }
+
+    @Test
+    public void overriddenMessageTemplateIsUsed() {
+        Validator validator = new ValidationErrorMessageTest() {
+            @Override
+            protected MessageTemplate getMessageTemplate(String key) {
+                return new MessageTemplate(new MessageFormat("custom " + key + " {0}"));
+            }
+        };
+        List<ValidationError> errors = new ArrayList<>();
+        validator.setErrorList(errors);
+        Sentence sentence = new Sentence("sentence", 1);
+        validator.addLocalizedError("withKey", sentence, "a");
+        validator.addLocalizedErrorWithPosition("withKey", sentence, 0, 1, "b");
+        assertEquals("custom withKey a", errors.get(0).getMessage());
+        assertEquals("custom withKey b", errors.get(1).getMessage());
+    }
+
     @Test
     public void configOverridesDefaultAttributes() throws Exception {
         Validator validator = new Validator("hello", 123) {};
@@ -65,6 +102,25 @@ public class ValidatorTest {
         assertEquals(234, validator.getInt("hello"));
     }
 
+    @Test
+    public void propertiesAreParsedOnInit() throws Exception {
+        Validator validator = new Validator("int", 1, "float", 0.5f, "bool", false, "list", new HashSet<>()) {};
+        validator.preInit(new ValidatorConfiguration("blah")
+                .addProperty("int", "2").addProperty("float", "1.5")
+                .addProperty("bool", "true").addProperty("list", "Foo,bar"), globalConfig);
+        assertEquals(2, validator.getInt("int"));
+        assertEquals(1.5f, validator.getFloat("float"), 0f);
+        assertTrue(validator.getBoolean("bool"));
+        assertEquals(new HashSet<>(asList("foo", "bar")), validator.getSet("list"));
+        assertSame(validator.getSet("list"), validator.getSet("list"));
+    }
+
+    @Test(expected = RedPenException.class)
+    public void invalidPropertyFailsOnInit() throws Exception {
+        Validator validator = new Validator("int", 1) {};
+        validator.preInit(new ValidatorConfiguration("blah").addProperty("int", "one"), globalConfig);
+    }
+
     @Test
     public void equalsAndHashCode() throws Exception {
         Validator validator = new ValidationErrorMessageTest();
@@ -0,0 +1,60 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator.document;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class WordFrequencyTableTest {
+    @Test
+    public void testTable() {
+        Map<String, Double> frequencies = new HashMap<>();
+        frequencies.put("the", 60.0);
+        frequencies.put("of", 30.0);
+        frequencies.put("and", 10.0);
+        WordFrequencyTable table = new WordFrequencyTable(frequencies);
+
+        assertEquals(3, table.size());
+        assertEquals(frequencies, table);
+        assertEquals(60.0, table.get("the"), 0.0);
+        assertNull(table.get("pen"));
+        assertFalse(table.containsKey("pen"));
+        assertEquals(-1, table.indexOf("pen"));
+
+        int of = table.indexOf("of");
+        assertEquals("of", table.getWord(of));
+        assertEquals(30.0, table.getFrequency(of), 0.0);
+        assertSame(table, WordFrequencyTable.of(table));
+    }
+
+    @Test
+    public void testDeviations() {
+        double[] deviations = new double[3];
+        double stddev = WordFrequencyTable.initDeviations(new double[]{60.0, 30.0, 10.0}, 3, deviations);
+        // the mean is the sum of the frequencies divided by 100
+        assertEquals(29.0, deviations[1], 1e-9);
+        assertEquals(Math.sqrt((59 * 59 + 29 * 29 + 9 * 9) / 100.0), stddev, 1e-9);
+    }
+}
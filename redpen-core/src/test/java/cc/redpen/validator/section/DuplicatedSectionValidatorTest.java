@@ -175,4 +175,32 @@ public class DuplicatedSectionValidatorTest {
         Map<Document, List<ValidationError>> errors = redPen.validate(documents);
         Assert.assertEquals(1, errors.get(documents.get(0)).size());
     }
+
+    @Test
+    public void testDetectDuplicatedSectionWithLsh() throws RedPenException {
+        Configuration config = Configuration.builder()
+                .addValidatorConfig(new ValidatorConfiguration("DuplicatedSection").addProperty("use_lsh", "true"))
+                .build();
+
+        List<Document> documents = new ArrayList<>();
+        documents.add(
+                Document.builder()
+                        .addSection(1)
+                        .addSectionHeader("this is header")
+                        .addParagraph()
+                        .addSentence(new Sentence("he is a super man.", 1))
+                        .addSection(1)
+                        .addSectionHeader("foobar")
+                        .addParagraph()
+                        .addSentence(new Sentence("baz baz baz", 2))
+                        .addSection(1)
+                        .addSectionHeader("this is header 2")
+                        .addParagraph()
+                        .addSentence(new Sentence("he is a super man.", 3))
+                        .build());
+
+        RedPen redPen = new RedPen(config);
+        List<ValidationError> errors = redPen.validate(documents).get(documents.get(0));
+        Assert.assertEquals(2, errors.size());
+    }
 }
@@ -53,6 +53,18 @@ public class InvalidExpressionValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testEveryOccurrenceIsReported() throws RedPenException {
+        Configuration config = Configuration.builder()
+                .addValidatorConfig(new ValidatorConfiguration("InvalidExpression").addProperty("list", "may,may be"))
+                .build();
+        Validator validator = ValidatorFactory.getInstance(config.getValidatorConfigs().get(0), config);
+        List<ValidationError> errors = new ArrayList<>();
+        validator.setErrorList(errors);
+        validator.validate(new Sentence("It may be true, or may not.", 0));
+        assertEquals(3, errors.size());
+    }
+
     @Test
     public void testVoid() throws RedPenException {
         Configuration config = Configuration.builder()
@@ -0,0 +1,133 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator.sentence;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the lookups of the joyo kanjis: the character class regex used before, a set of boxed code points
+ * and the code point bit set of {@link JapaneseJoyoKanjiValidator}. It is not a unit test; run it after
+ * {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/classes:target/test-classes cc.redpen.validator.sentence.JapaneseJoyoKanjiBenchmark
+ * </pre>
+ */
+public class JapaneseJoyoKanjiBenchmark {
+    private static final int FIRST = 0x4E00;
+    private static final int LAST = 0x9FFF;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        String joyo = JapaneseJoyoKanjiValidator.JOYO_KANJI;
+        Pattern pattern = Pattern.compile("[\\p{InCJKUnifiedIdeographs}&&[^" + joyo + "]]");
+        Set<Integer> set = new HashSet<>();
+        joyo.codePoints().forEach(set::add);
+        BitSet bits = new BitSet();
+        joyo.codePoints().forEach(bits::set);
+
+        String[] sentences = sentences(joyo, 10000, 60);
+        long characters = 0;
+        for (String sentence : sentences) {
+            characters += sentence.length();
+        }
+
+        ToIntFunction<String> regex = sentence -> {
+            Matcher matcher = pattern.matcher(sentence);
+            int found = 0;
+            while (matcher.find()) {
+                found++;
+            }
+            return found;
+        };
+        ToIntFunction<String> hashSet = sentence -> count(sentence, set::contains);
+        ToIntFunction<String> bitSet = sentence -> count(sentence, bits::get);
+
+        System.out.printf("%d sentences, %d characters%n", sentences.length, characters);
+        run("regex", regex, sentences, characters);
+        run("HashSet", hashSet, sentences, characters);
+        run("BitSet", bitSet, sentences, characters);
+    }
+
+    private interface CodePointSet {
+        boolean contains(int codePoint);
+    }
+
+    private static int count(String sentence, CodePointSet joyo) {
+        int found = 0;
+        for (int i = 0; i < sentence.length(); ) {
+            int codePoint = sentence.codePointAt(i);
+            if (codePoint >= FIRST && codePoint <= LAST && !joyo.contains(codePoint)) {
+                found++;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return found;
+    }
+
+    // half hiragana, four characters in ten joyo kanjis and one in ten any character of the CJK block
+    private static String[] sentences(String joyo, int count, int length) {
+        int[] joyoCodePoints = joyo.codePoints().toArray();
+        Random random = new Random(0);
+        String[] sentences = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sentence = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                int kind = random.nextInt(10);
+                if (kind < 5) {
+                    sentence.append((char) ('ぁ' + random.nextInt(83)));
+                } else if (kind < 9) {
+                    sentence.appendCodePoint(joyoCodePoints[random.nextInt(joyoCodePoints.length)]);
+                } else {
+                    sentence.appendCodePoint(FIRST + random.nextInt(LAST - FIRST + 1));
+                }
+            }
+            sentences[i] = sentence.toString();
+        }
+        return sentences;
+    }
+
+    private static void run(String name, ToIntFunction<String> lookup, String[] sentences, long characters) {
+        long found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            found += scan(lookup, sentences);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            found += scan(lookup, sentences);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-8s %8.2f ms per round %6.2f ns per character (%d found)%n",
+                name, best / 1e6, (double) best / characters, found / (WARMUP_ROUNDS + ROUNDS));
+    }
+
+    private static long scan(ToIntFunction<String> lookup, String[] sentences) {
+        long found = 0;
+        for (String sentence : sentences) {
+            found += lookup.applyAsInt(sentence);
+        }
+        return found;
+    }
+}
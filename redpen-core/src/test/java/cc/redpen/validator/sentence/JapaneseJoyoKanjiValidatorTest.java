@@ -72,4 +72,23 @@ public class JapaneseJoyoKanjiValidatorTest {
         assertEquals("JapaneseJoyoKanji", errors.get(0).getValidatorName());
         assertEquals("JapaneseJoyoKanji", errors.get(1).getValidatorName());
     }
+
+    @Test
+    public void testSurrogatePair() throws RedPenException {
+        Configuration config = Configuration.builder("ja")
+                .addValidatorConfig(new ValidatorConfiguration("JapaneseJoyoKanji"))
+                .build();
+
+        List<Document> documents = new ArrayList<>();documents.add(
+                Document.builder(new JapaneseTokenizer())
+                        .addSection(1)
+                        .addParagraph()
+                        .addSentence(new Sentence("\uD842\uDF9Fられても嘘はつかない。", 1))
+                        .build());
+
+        RedPen redPen = new RedPen(config);
+        List<ValidationError> errors = redPen.validate(documents).get(documents.get(0));
+        Assert.assertEquals(1, errors.size());
+        Assert.assertTrue(errors.get(0).getMessage().contains("嘘"));
+    }
 }
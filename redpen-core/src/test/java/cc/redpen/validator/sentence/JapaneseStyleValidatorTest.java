@@ -126,4 +126,29 @@ public class JapaneseStyleValidatorTest {
         Assert.assertEquals(24, errors.get(documents.get(0)).get(0).getEndPosition().get().offset);
         Assert.assertEquals("JapaneseStyle", errors.get(documents.get(0)).get(0).getValidatorName());
     }
+
+    @Test
+    public void earlierExpressionTakesPrecedence() throws RedPenException {
+        Configuration config = Configuration.builder("ja")
+                .addValidatorConfig(new ValidatorConfiguration("JapaneseStyle"))
+                .build();
+
+        List<Document> documents = new ArrayList<>();
+        documents.add(
+                Document.builder(new JapaneseTokenizer())
+                        .addSection(1)
+                        .addParagraph()
+                        .addSentence(new Sentence("雨でしたので中止ですね。", 1))
+                        .addSentence(new Sentence("それは残念である。", 2))
+                        .addSentence(new Sentence("晴れるはずだったのだが。", 3))
+                        .build());
+
+        RedPen redPen = new RedPen(config);
+        List<ValidationError> errors = redPen.validate(documents).get(documents.get(0));
+        Assert.assertEquals(2, errors.size());
+        Assert.assertEquals(1, errors.get(0).getStartPosition().get().offset);
+        Assert.assertEquals(4, errors.get(0).getEndPosition().get().offset);
+        Assert.assertEquals(8, errors.get(1).getStartPosition().get().offset);
+        Assert.assertEquals(11, errors.get(1).getEndPosition().get().offset);
+    }
 }
@@ -34,6 +34,7 @@ import java.util.Map;
 
 import static java.util.Collections.singletonList;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 public class SpellingValidatorTest extends BaseValidatorTest {
     public SpellingValidatorTest() {
@@ -56,6 +57,44 @@ public class SpellingValidatorTest extends BaseValidatorTest {
         assertEquals(1, errors.size());
     }
 
+    @Test
+    public void testSuggestions() throws Exception {
+        config = Configuration.builder()
+          .addValidatorConfig(new ValidatorConfiguration(validatorName).addProperty("list", "this,is,a,pen,pan,pencil"))
+          .build();
+
+        Document document = prepareSimpleDocument("this is a pem");
+
+        Validator validator = ValidatorFactory.getInstance(config.getValidatorConfigs().get(0), config);
+
+        List<ValidationError> errors = new ArrayList<>();
+        validator.setErrorList(errors);
+        validator.validate(document.getLastSection().getParagraph(0).getSentence(0));
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getSuggestions().size());
+        assertTrue(errors.get(0).getSuggestions().contains("pen"));
+    }
+
+    @Test
+    public void testSuggestionsOfCapitalizedWord() throws RedPenException {
+        Document document = prepareSimpleDocument("Beautifull day");
+
+        RedPen redPen = new RedPen(config);
+        List<ValidationError> errors = redPen.validate(singletonList(document)).get(document);
+        assertEquals(1, errors.size());
+        assertEquals("beautiful", errors.get(0).getSuggestions().get(0));
+    }
+
+    @Test
+    public void testSuggestionsFromDefaultDictionary() throws RedPenException {
+        Document document = prepareSimpleDocument("this is a beautifull day");
+
+        RedPen redPen = new RedPen(config);
+        List<ValidationError> errors = redPen.validate(singletonList(document)).get(document);
+        assertEquals(1, errors.size());
+        assertEquals("beautiful", errors.get(0).getSuggestions().get(0));
+    }
+
     @Test
     public void testLoadDefaultDictionary() throws RedPenException {
         Document document = prepareSimpleDocument("this iz goody");